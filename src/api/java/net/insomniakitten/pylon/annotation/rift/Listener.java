@@ -22,7 +22,8 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Listener {
     /**
-     * The loading priority of this Listener
+     * The loading priority of this Listener, where Listeners of equal
+     * priority are ordered by their binary name
      * @since 0.1.0
      */
     int priority() default 0;
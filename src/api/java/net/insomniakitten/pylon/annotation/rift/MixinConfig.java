@@ -0,0 +1,31 @@
+package net.insomniakitten.pylon.annotation.rift;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers the annotated mixin class in the mixin config of its Mod, which
+ * is generated by the annotation processor as `mixins.[id].json` and listed
+ * in the `riftmod.json` descriptor of the Mod. Mixins are partitioned by their
+ * physical side, so that each side only parses and applies its own mixins.
+ * Every mixin of a Mod must share a common package, which may not contain
+ * any other classes of the Mod.
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MixinConfig {
+    /**
+     * The physical side this mixin should be applied on
+     * By default, it will be applied on both physical sides
+     * @since 0.4.0
+     */
+    Side side() default Side.EITHER;
+}
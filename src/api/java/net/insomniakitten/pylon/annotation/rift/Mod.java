@@ -53,4 +53,25 @@ public @interface Mod {
      * @since 0.1.0
      */
     String[] authors() default {};
+
+    /**
+     * The identifiers of the Mods this Mod requires, which must be present
+     * and are loaded before this Mod
+     * @since 0.4.0
+     */
+    String[] dependencies() default {};
+
+    /**
+     * The identifiers of the Mods this Mod should be loaded after, if they
+     * are present
+     * @since 0.4.0
+     */
+    String[] loadAfter() default {};
+
+    /**
+     * The identifiers of the Mods this Mod should be loaded before, if they
+     * are present
+     * @since 0.4.0
+     */
+    String[] loadBefore() default {};
 }
@@ -0,0 +1,339 @@
+package net.insomniakitten.pylon.runtime;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader of the compact binary descriptor, `riftmod.bin`, which the annotation
+ * processor can emit alongside `riftmod.json`. Values are read directly from the
+ * backing buffer on request, so a memory-mapped descriptor is never copied or
+ * parsed as a whole. All values are big-endian, and laid out as follows:
+ * <pre>
+ * header        magic, version, flags, string count, string index offset,
+ *               id, name, version, side, author count, author offset,
+ *               listener count, listener offset, bootstrap,
+ *               dependency count, dependency offset, load after count,
+ *               load after offset, load before count, load before offset,
+ *               mixin count, mixin offset
+ * authors       string index per author
+ * listeners     fixed size records of class, priority, and side
+ * dependencies  string index per dependency
+ * load after    string index per mod to be loaded after
+ * load before   string index per mod to be loaded before
+ * mixins        string index per mixin config
+ * strings       offset per string, followed by the length-prefixed UTF-8 data
+ * </pre>
+ * String values are stored as indices into the string table, and a negative
+ * index represents an absent value. Sides are stored as the codes given by
+ * {@link #getSideCode(Side)}, independent of the order of the constants
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class BinaryDescriptor {
+    public static final String FILE = "riftmod.bin";
+    public static final int MAGIC = 0x50594C4E; // PYLN
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 84;
+    public static final int LISTENER_SIZE = 12;
+
+    private static final int STRING_COUNT = 8;
+    private static final int STRING_INDEX = 12;
+    private static final int ID = 16;
+    private static final int NAME = 20;
+    private static final int MOD_VERSION = 24;
+    private static final int SIDE = 28;
+    private static final int AUTHOR_COUNT = 32;
+    private static final int AUTHOR_OFFSET = 36;
+    private static final int LISTENER_COUNT = 40;
+    private static final int LISTENER_OFFSET = 44;
+    private static final int BOOTSTRAP = 48;
+    private static final int DEPENDENCY_COUNT = 52;
+    private static final int DEPENDENCY_OFFSET = 56;
+    private static final int LOAD_AFTER_COUNT = 60;
+    private static final int LOAD_AFTER_OFFSET = 64;
+    private static final int LOAD_BEFORE_COUNT = 68;
+    private static final int LOAD_BEFORE_OFFSET = 72;
+    private static final int MIXIN_COUNT = 76;
+    private static final int MIXIN_OFFSET = 80;
+
+    private static final int SIDE_EITHER = 0;
+    private static final int SIDE_CLIENT = 1;
+    private static final int SIDE_SERVER = 2;
+
+    private final ByteBuffer buffer;
+
+    private BinaryDescriptor(final ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a descriptor reading from the given buffer, without copying it
+     * @param buffer The buffer containing the descriptor
+     * @return A descriptor backed by the buffer
+     * @throws IllegalArgumentException If the buffer is not a valid descriptor
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static BinaryDescriptor of(final ByteBuffer buffer) {
+        final ByteBuffer view = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+
+        if (view.remaining() < BinaryDescriptor.HEADER_SIZE || view.getInt(0) != BinaryDescriptor.MAGIC) {
+            throw new IllegalArgumentException("Not a Pylon binary descriptor");
+        }
+
+        if (view.getShort(4) != BinaryDescriptor.VERSION) {
+            throw new IllegalArgumentException("Unsupported descriptor version " + view.getShort(4));
+        }
+
+        return new BinaryDescriptor(view);
+    }
+
+    /**
+     * Memory-maps the descriptor at the given path
+     * @param path The path of the descriptor file
+     * @return A descriptor backed by the mapped file
+     * @throws IOException If the file cannot be mapped
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static BinaryDescriptor map(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return BinaryDescriptor.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The unique identifier of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getId() {
+        return this.getString(this.buffer.getInt(BinaryDescriptor.ID));
+    }
+
+    /**
+     * The friendly name of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getName() {
+        return this.getString(this.buffer.getInt(BinaryDescriptor.NAME));
+    }
+
+    /**
+     * The semantic version of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getVersion() {
+        return this.getString(this.buffer.getInt(BinaryDescriptor.MOD_VERSION));
+    }
+
+    /**
+     * The physical side the Mod should be loaded on
+     * @since 0.4.0
+     */
+    @Nonnull
+    public Side getSide() {
+        return BinaryDescriptor.getSide(this.buffer.getInt(BinaryDescriptor.SIDE));
+    }
+
+    /**
+     * The number of authors of the Mod
+     * @since 0.4.0
+     */
+    public int getAuthorCount() {
+        return this.buffer.getInt(BinaryDescriptor.AUTHOR_COUNT);
+    }
+
+    /**
+     * The author at the given index
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getAuthor(final int index) {
+        return this.getListedString(BinaryDescriptor.AUTHOR_COUNT, BinaryDescriptor.AUTHOR_OFFSET, index);
+    }
+
+    /**
+     * The number of Mods the Mod depends on
+     * @since 0.4.0
+     */
+    public int getDependencyCount() {
+        return this.buffer.getInt(BinaryDescriptor.DEPENDENCY_COUNT);
+    }
+
+    /**
+     * The identifier of the dependency at the given index
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getDependency(final int index) {
+        return this.getListedString(BinaryDescriptor.DEPENDENCY_COUNT, BinaryDescriptor.DEPENDENCY_OFFSET, index);
+    }
+
+    /**
+     * The number of Mods the Mod is loaded after, if present
+     * @since 0.4.0
+     */
+    public int getLoadAfterCount() {
+        return this.buffer.getInt(BinaryDescriptor.LOAD_AFTER_COUNT);
+    }
+
+    /**
+     * The identifier of the Mod at the given index that the Mod is loaded after
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getLoadAfter(final int index) {
+        return this.getListedString(BinaryDescriptor.LOAD_AFTER_COUNT, BinaryDescriptor.LOAD_AFTER_OFFSET, index);
+    }
+
+    /**
+     * The number of Mods the Mod is loaded before, if present
+     * @since 0.4.0
+     */
+    public int getLoadBeforeCount() {
+        return this.buffer.getInt(BinaryDescriptor.LOAD_BEFORE_COUNT);
+    }
+
+    /**
+     * The identifier of the Mod at the given index that the Mod is loaded before
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getLoadBefore(final int index) {
+        return this.getListedString(BinaryDescriptor.LOAD_BEFORE_COUNT, BinaryDescriptor.LOAD_BEFORE_OFFSET, index);
+    }
+
+    /**
+     * The number of mixin configs of the Mod
+     * @since 0.4.0
+     */
+    public int getMixinCount() {
+        return this.buffer.getInt(BinaryDescriptor.MIXIN_COUNT);
+    }
+
+    /**
+     * The path of the mixin config at the given index
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getMixin(final int index) {
+        return this.getListedString(BinaryDescriptor.MIXIN_COUNT, BinaryDescriptor.MIXIN_OFFSET, index);
+    }
+
+    /**
+     * The number of listeners of the Mod
+     * @since 0.4.0
+     */
+    public int getListenerCount() {
+        return this.buffer.getInt(BinaryDescriptor.LISTENER_COUNT);
+    }
+
+    /**
+     * The binary name of the listener at the given index
+     * Listeners are ordered by their loading priority
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getListenerClass(final int index) {
+        return this.getString(this.buffer.getInt(this.getListenerRecord(index)));
+    }
+
+    /**
+     * The loading priority of the listener at the given index
+     * @since 0.4.0
+     */
+    public int getListenerPriority(final int index) {
+        return this.buffer.getInt(this.getListenerRecord(index) + 4);
+    }
+
+    /**
+     * The physical side of the listener at the given index
+     * @since 0.4.0
+     */
+    @Nonnull
+    public Side getListenerSide(final int index) {
+        return BinaryDescriptor.getSide(this.buffer.getInt(this.getListenerRecord(index) + 8));
+    }
+
+    /**
+     * The binary name of the generated {@link ListenerBootstrap} of the Mod
+     * @since 0.4.0
+     */
+    @Nullable
+    public String getBootstrap() {
+        final int index = this.buffer.getInt(BinaryDescriptor.BOOTSTRAP);
+        return index < 0 ? null : this.getString(index);
+    }
+
+    /**
+     * The code by which the given side is stored in a descriptor
+     * @param side The side to be stored
+     * @return The code of the side
+     * @since 0.4.0
+     */
+    public static int getSideCode(final Side side) {
+        switch (side) {
+            case CLIENT: return BinaryDescriptor.SIDE_CLIENT;
+            case SERVER: return BinaryDescriptor.SIDE_SERVER;
+            default: return BinaryDescriptor.SIDE_EITHER;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the code is not that of a side
+     */
+    private static Side getSide(final int code) {
+        switch (code) {
+            case BinaryDescriptor.SIDE_EITHER: return Side.EITHER;
+            case BinaryDescriptor.SIDE_CLIENT: return Side.CLIENT;
+            case BinaryDescriptor.SIDE_SERVER: return Side.SERVER;
+            default: throw new IllegalArgumentException("Unknown side code " + code);
+        }
+    }
+
+    private int getListenerRecord(final int index) {
+        this.checkIndex(index, this.getListenerCount());
+        return this.buffer.getInt(BinaryDescriptor.LISTENER_OFFSET) + index * BinaryDescriptor.LISTENER_SIZE;
+    }
+
+    /**
+     * Reads the string at the given index of a list of string indices, whose
+     * count and offset are held in the header at the given positions
+     */
+    private String getListedString(final int count, final int offset, final int index) {
+        this.checkIndex(index, this.buffer.getInt(count));
+        return this.getString(this.buffer.getInt(this.buffer.getInt(offset) + index * 4));
+    }
+
+    private String getString(final int index) {
+        this.checkIndex(index, this.buffer.getInt(BinaryDescriptor.STRING_COUNT));
+        final int offset = this.buffer.getInt(this.buffer.getInt(BinaryDescriptor.STRING_INDEX) + index * 4);
+        final int length = this.buffer.getInt(offset);
+        final ByteBuffer bytes = this.buffer.duplicate();
+        bytes.position(offset + 4).limit(offset + 4 + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    private void checkIndex(final int index, final int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BinaryDescriptor['%s', %d listeners]", this.getId(), this.getListenerCount());
+    }
+}
@@ -0,0 +1,319 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A persistent cache of the descriptors read from jars, so that unchanged jars
+ * need not be opened on subsequent launches. Entries are keyed by the path of
+ * the jar, and validated against its size and modification time. A jar is
+ * only hashed once its modification time has changed while its size has not,
+ * in which case its content hash is compared before it is read again, so that
+ * a jar is read only once when first cached. Every descriptor of a jar is
+ * cached, including the per-Mod descriptors of a jar declaring several Mods.
+ * The cache holds at most a fixed number of entries, evicting the least
+ * recently used entries first, and entries for jars that no longer exist are
+ * dropped when the cache is saved
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class DescriptorCache {
+    private static final int FORMAT = 1;
+    private static final String FORMAT_KEY = "format";
+    private static final String ENTRIES = "entries";
+    private static final String PATH = "path";
+    private static final String SIZE = "size";
+    private static final String MODIFIED = "modified";
+    private static final String HASH = "hash";
+    private static final String DESCRIPTORS = "descriptors";
+
+    private final Path file;
+    private final Map<String, CacheEntry> entries;
+    private boolean dirty;
+    private int hits;
+    private int misses;
+
+    private DescriptorCache(final Path file, final int maximumSize) {
+        this.file = file;
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Opens the cache stored in the given file. A missing or unreadable file
+     * results in an empty cache, which will replace the file when saved
+     * @param file The path of the cache file
+     * @param maximumSize The maximum number of jars to hold entries for
+     * @return The opened cache
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static DescriptorCache open(final Path file, final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+
+        final DescriptorCache cache = new DescriptorCache(file, maximumSize);
+
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            cache.load(new JsonReader(reader));
+        } catch (final NoSuchFileException e) {
+            return cache;
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            cache.entries.clear();
+            cache.dirty = true;
+        }
+
+        return cache;
+    }
+
+    /**
+     * Retrieves the descriptors of the given jar, reading the jar only if it
+     * has changed since it was last cached
+     * @param jar The path of the jar
+     * @return The descriptors of the jar, or an empty list if it contains none
+     * @throws IOException If the jar cannot be read
+     * @see DescriptorReader#readJarAll(Path)
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<ModDescriptor> get(final Path jar) throws IOException {
+        final String key = jar.toAbsolutePath().normalize().toString();
+        final BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+        final CacheEntry cached = this.entries.get(key);
+
+        if (cached != null && cached.size == size) {
+            if (cached.modified == modified) {
+                ++this.hits;
+                return cached.descriptors;
+            }
+
+            // The jar is hashed when first touched, and compared against that hash when touched again
+            final String hash = DescriptorCache.hash(jar);
+            if (hash.equals(cached.hash)) {
+                ++this.hits;
+                this.entries.put(key, new CacheEntry(size, modified, hash, cached.descriptors));
+                this.dirty = true;
+                return cached.descriptors;
+            }
+
+            return this.update(key, jar, size, modified, hash);
+        }
+
+        return this.update(key, jar, size, modified, null);
+    }
+
+    /**
+     * Saves the cache to its file if any entries have changed, dropping the
+     * entries of jars that no longer exist
+     * @throws IOException If the cache file cannot be written
+     * @since 0.4.0
+     */
+    public void save() throws IOException {
+        for (final Iterator<String> iterator = this.entries.keySet().iterator(); iterator.hasNext(); ) {
+            if (!Files.exists(this.file.getFileSystem().getPath(iterator.next()))) {
+                iterator.remove();
+                this.dirty = true;
+            }
+        }
+
+        if (!this.dirty) {
+            return;
+        }
+
+        final Path parent = this.file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            this.store(new JsonWriter(writer));
+        }
+        Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+        this.dirty = false;
+    }
+
+    /**
+     * The number of lookups that were served without reading a jar
+     * @since 0.4.0
+     */
+    public int getHits() {
+        return this.hits;
+    }
+
+    /**
+     * The number of lookups that required a jar to be read
+     * @since 0.4.0
+     */
+    public int getMisses() {
+        return this.misses;
+    }
+
+    private List<ModDescriptor> update(final String key, final Path jar, final long size, final long modified, @Nullable final String hash) throws IOException {
+        ++this.misses;
+        final List<ModDescriptor> descriptors = DescriptorReader.readJarAll(jar);
+        this.entries.put(key, new CacheEntry(size, modified, hash, descriptors));
+        this.dirty = true;
+        return descriptors;
+    }
+
+    private void load(final JsonReader json) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            final String name = json.nextName();
+            if (DescriptorCache.FORMAT_KEY.equals(name)) {
+                if (json.nextInt() != DescriptorCache.FORMAT) {
+                    throw new IOException("Unsupported cache format");
+                }
+            } else if (DescriptorCache.ENTRIES.equals(name)) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    this.loadEntry(json);
+                }
+                json.endArray();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private void loadEntry(final JsonReader json) throws IOException {
+        String path = null;
+        long size = -1;
+        long modified = -1;
+        String hash = null;
+        final List<ModDescriptor> descriptors = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case DescriptorCache.PATH:
+                    path = json.nextString();
+                    break;
+                case DescriptorCache.SIZE:
+                    size = json.nextLong();
+                    break;
+                case DescriptorCache.MODIFIED:
+                    modified = json.nextLong();
+                    break;
+                case DescriptorCache.HASH:
+                    hash = json.nextString();
+                    break;
+                case DescriptorCache.DESCRIPTORS:
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        descriptors.add(DescriptorReader.read(json));
+                    }
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+
+        if (path != null) {
+            this.entries.put(path, new CacheEntry(size, modified, hash, descriptors));
+        }
+    }
+
+    private void store(final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name(DescriptorCache.FORMAT_KEY).value(DescriptorCache.FORMAT);
+        json.name(DescriptorCache.ENTRIES).beginArray();
+        for (final Map.Entry<String, CacheEntry> mapping : this.entries.entrySet()) {
+            final CacheEntry entry = mapping.getValue();
+            json.beginObject();
+            json.name(DescriptorCache.PATH).value(mapping.getKey());
+            json.name(DescriptorCache.SIZE).value(entry.size);
+            json.name(DescriptorCache.MODIFIED).value(entry.modified);
+            if (entry.hash != null) {
+                json.name(DescriptorCache.HASH).value(entry.hash);
+            }
+            json.name(DescriptorCache.DESCRIPTORS).beginArray();
+            for (final ModDescriptor descriptor : entry.descriptors) {
+                DescriptorReader.write(descriptor, json);
+            }
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * @param file The file to be hashed
+     * @return The hexadecimal SHA-256 hash of the contents of the file
+     */
+    static String hash(final Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final byte[] buffer = new byte[8192];
+        try (final InputStream stream = Files.newInputStream(file)) {
+            for (int read; (read = stream.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(64);
+        for (final byte b : digest.digest()) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DescriptorCache['%s', %d entries]", this.file, this.entries.size());
+    }
+
+    private static final class CacheEntry {
+        private final long size;
+        private final long modified;
+        @Nullable
+        private final String hash;
+        private final List<ModDescriptor> descriptors;
+
+        private CacheEntry(final long size, final long modified, @Nullable final String hash, final List<ModDescriptor> descriptors) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.descriptors = Collections.unmodifiableList(descriptors);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads `riftmod.json` descriptors as generated by the annotation processor.
+ * Descriptors are streamed token by token, and any values that are not part
+ * of a {@link ModDescriptor} are skipped without being parsed
+ * @author InsomniaKitten
+ * @see DescriptorCache
+ * @since 0.4.0
+ */
+public final class DescriptorReader {
+    public static final String FILE = "riftmod.json";
+    public static final String INDEX = "META-INF/pylon/mods.json";
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String VERSION = "version";
+    private static final String SIDE = "side";
+    private static final String AUTHORS = "authors";
+    private static final String LISTENERS = "listeners";
+    private static final String CLASS = "class";
+    private static final String PRIORITY = "priority";
+    private static final String INTERFACES = "interfaces";
+    private static final String BOOTSTRAP = "bootstrap";
+    private static final String MIXINS = "mixins";
+    private static final String DEPENDENCIES = "dependencies";
+    private static final String LOAD_AFTER = "load_after";
+    private static final String LOAD_BEFORE = "load_before";
+    private static final String BOTH = "both";
+    private static final String MODS = "mods";
+    private static final String DESCRIPTOR = "descriptor";
+
+    private DescriptorReader() {}
+
+    /**
+     * Reads the descriptor contained in the given jar
+     * @param jar The path of the jar to be read
+     * @return The descriptor, or null if the jar does not contain one
+     * @throws IOException If the jar or its descriptor cannot be read
+     * @since 0.4.0
+     */
+    @Nullable
+    public static ModDescriptor readJar(final Path jar) throws IOException {
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            final ZipEntry entry = zip.getEntry(DescriptorReader.FILE);
+            if (entry == null) {
+                return null;
+            }
+            return DescriptorReader.read(zip, entry);
+        }
+    }
+
+    /**
+     * Reads every descriptor contained in the given jar. A jar compiled with
+     * a single mod contains its descriptor at the root, while a jar compiled
+     * with several mods contains an index of their per-mod descriptors
+     * @param jar The path of the jar to be read
+     * @return The descriptors, or an empty list if the jar contains none
+     * @throws IOException If the jar or its descriptors cannot be read
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static List<ModDescriptor> readJarAll(final Path jar) throws IOException {
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            final ZipEntry root = zip.getEntry(DescriptorReader.FILE);
+            if (root != null) {
+                return Collections.singletonList(DescriptorReader.read(zip, root));
+            }
+
+            final ZipEntry index = zip.getEntry(DescriptorReader.INDEX);
+            if (index == null) {
+                return Collections.emptyList();
+            }
+
+            final List<ModDescriptor> descriptors = new ArrayList<>();
+            for (final String path : DescriptorReader.readIndex(zip, index)) {
+                final ZipEntry entry = zip.getEntry(path);
+                if (entry == null) {
+                    throw new IOException("Missing descriptor '" + path + "' listed in " + DescriptorReader.INDEX);
+                }
+                descriptors.add(DescriptorReader.read(zip, entry));
+            }
+            return Collections.unmodifiableList(descriptors);
+        }
+    }
+
+    private static ModDescriptor read(final ZipFile zip, final ZipEntry entry) throws IOException {
+        try (final Reader reader = new BufferedReader(new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+            return DescriptorReader.read(reader);
+        }
+    }
+
+    private static List<String> readIndex(final ZipFile zip, final ZipEntry entry) throws IOException {
+        final List<String> paths = new ArrayList<>();
+
+        try (final JsonReader json = new JsonReader(new BufferedReader(new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8)))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                if (!DescriptorReader.MODS.equals(json.nextName())) {
+                    json.skipValue();
+                    continue;
+                }
+                json.beginArray();
+                while (json.hasNext()) {
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        if (DescriptorReader.DESCRIPTOR.equals(json.nextName())) {
+                            paths.add(json.nextString());
+                        } else {
+                            json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                }
+                json.endArray();
+            }
+            json.endObject();
+        }
+
+        return paths;
+    }
+
+    /**
+     * Reads a descriptor from the given reader
+     * @param reader The reader to be read from
+     * @return The descriptor
+     * @throws IOException If the descriptor cannot be read, or is malformed
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static ModDescriptor read(final Reader reader) throws IOException {
+        return DescriptorReader.read(new JsonReader(reader));
+    }
+
+    /**
+     * Reads a descriptor object from the given JSON reader
+     * @param json The reader positioned at the start of the descriptor
+     * @return The descriptor
+     * @throws IOException If the descriptor cannot be read, or is malformed
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static ModDescriptor read(final JsonReader json) throws IOException {
+        String id = null;
+        String name = null;
+        String version = "";
+        Side side = Side.EITHER;
+        String bootstrap = null;
+        final List<String> authors = new ArrayList<>();
+        final List<ListenerDescriptor> listeners = new ArrayList<>();
+        final List<String> mixins = new ArrayList<>();
+        final List<String> dependencies = new ArrayList<>();
+        final List<String> loadAfter = new ArrayList<>();
+        final List<String> loadBefore = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case DescriptorReader.ID:
+                    id = json.nextString();
+                    break;
+                case DescriptorReader.NAME:
+                    name = json.nextString();
+                    break;
+                case DescriptorReader.VERSION:
+                    version = json.nextString();
+                    break;
+                case DescriptorReader.SIDE:
+                    side = DescriptorReader.toSide(json.nextString());
+                    break;
+                case DescriptorReader.AUTHORS:
+                    DescriptorReader.readStrings(json, authors);
+                    break;
+                case DescriptorReader.DEPENDENCIES:
+                    DescriptorReader.readStrings(json, dependencies);
+                    break;
+                case DescriptorReader.LOAD_AFTER:
+                    DescriptorReader.readStrings(json, loadAfter);
+                    break;
+                case DescriptorReader.LOAD_BEFORE:
+                    DescriptorReader.readStrings(json, loadBefore);
+                    break;
+                case DescriptorReader.LISTENERS:
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        listeners.add(DescriptorReader.readListener(json));
+                    }
+                    json.endArray();
+                    break;
+                case DescriptorReader.BOOTSTRAP:
+                    bootstrap = json.nextString();
+                    break;
+                case DescriptorReader.MIXINS:
+                    DescriptorReader.readStrings(json, mixins);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+
+        if (id == null) {
+            throw new IOException("Missing value 'id' in descriptor");
+        }
+
+        return new ModDescriptor(id, name != null ? name : id, version, side, authors, listeners, bootstrap, mixins, dependencies, loadAfter, loadBefore);
+    }
+
+    /**
+     * Writes the given descriptor as a `riftmod.json` descriptor object
+     * @param descriptor The descriptor to be written
+     * @param json The writer to write to
+     * @throws IOException If the descriptor cannot be written
+     * @since 0.4.0
+     */
+    public static void write(final ModDescriptor descriptor, final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name(DescriptorReader.ID).value(descriptor.getId());
+        json.name(DescriptorReader.NAME).value(descriptor.getName());
+        json.name(DescriptorReader.VERSION).value(descriptor.getVersion());
+        json.name(DescriptorReader.SIDE).value(descriptor.getSide().getName());
+        DescriptorReader.writeStrings(json, DescriptorReader.AUTHORS, descriptor.getAuthors());
+        if (!descriptor.getDependencies().isEmpty()) {
+            DescriptorReader.writeStrings(json, DescriptorReader.DEPENDENCIES, descriptor.getDependencies());
+        }
+        if (!descriptor.getLoadAfter().isEmpty()) {
+            DescriptorReader.writeStrings(json, DescriptorReader.LOAD_AFTER, descriptor.getLoadAfter());
+        }
+        if (!descriptor.getLoadBefore().isEmpty()) {
+            DescriptorReader.writeStrings(json, DescriptorReader.LOAD_BEFORE, descriptor.getLoadBefore());
+        }
+        json.name(DescriptorReader.LISTENERS).beginArray();
+        for (final ListenerDescriptor listener : descriptor.getListeners()) {
+            json.beginObject();
+            json.name(DescriptorReader.CLASS).value(listener.getClassName());
+            json.name(DescriptorReader.SIDE).value(listener.getSide().isAmbiguous() ? DescriptorReader.BOTH : listener.getSide().getName());
+            json.name(DescriptorReader.PRIORITY).value(listener.getPriority());
+            if (!listener.getInterfaces().isEmpty()) {
+                json.name(DescriptorReader.INTERFACES).beginArray();
+                for (final String type : listener.getInterfaces()) {
+                    json.value(type);
+                }
+                json.endArray();
+            }
+            json.endObject();
+        }
+        json.endArray();
+        if (descriptor.getBootstrap() != null) {
+            json.name(DescriptorReader.BOOTSTRAP).value(descriptor.getBootstrap());
+        }
+        if (!descriptor.getMixins().isEmpty()) {
+            DescriptorReader.writeStrings(json, DescriptorReader.MIXINS, descriptor.getMixins());
+        }
+        json.endObject();
+    }
+
+    private static void readStrings(final JsonReader json, final List<String> values) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            values.add(json.nextString());
+        }
+        json.endArray();
+    }
+
+    private static void writeStrings(final JsonWriter json, final String name, final List<String> values) throws IOException {
+        json.name(name).beginArray();
+        for (final String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+
+    private static ListenerDescriptor readListener(final JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.STRING) {
+            return new ListenerDescriptor(json.nextString(), Side.EITHER, 0);
+        }
+
+        String name = null;
+        Side side = Side.EITHER;
+        int priority = 0;
+        final List<String> interfaces = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case DescriptorReader.CLASS:
+                    name = json.nextString();
+                    break;
+                case DescriptorReader.SIDE:
+                    side = DescriptorReader.toSide(json.nextString());
+                    break;
+                case DescriptorReader.PRIORITY:
+                    priority = json.nextInt();
+                    break;
+                case DescriptorReader.INTERFACES:
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        interfaces.add(json.nextString());
+                    }
+                    json.endArray();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+
+        if (name == null) {
+            throw new IOException("Missing value 'class' in listener");
+        }
+
+        return new ListenerDescriptor(name, side, priority, interfaces);
+    }
+
+    /**
+     * @param name The name of a side, as written by the annotation processor
+     * @return The side of the given name, where Rift's 'both' is ambiguous
+     */
+    private static Side toSide(final String name) {
+        if (DescriptorReader.BOTH.equals(name)) {
+            return Side.EITHER;
+        }
+        try {
+            return Side.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return Side.EITHER;
+        }
+    }
+}
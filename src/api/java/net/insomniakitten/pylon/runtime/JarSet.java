@@ -0,0 +1,329 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable record of the jars in a mods directory, identifying each jar by
+ * its file name, size and modification time, so that results computed from
+ * the descriptors of the jars can be reused until any jar is added, removed
+ * or replaced. A record can also hold the content hash of each jar, in which
+ * case a jar whose modification time alone has changed is compared by its
+ * hash before it is considered to be modified
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class JarSet {
+    private static final String NAME = "name";
+    private static final String SIZE = "size";
+    private static final String MODIFIED = "modified";
+    private static final String HASH = "hash";
+
+    private final List<Jar> jars;
+
+    private JarSet(final List<Jar> jars) {
+        this.jars = Collections.unmodifiableList(jars);
+    }
+
+    /**
+     * Records the jars directly contained in the given directory
+     * @param directory The mods directory
+     * @return The jars of the directory, in order of file name
+     * @throws IOException If the directory or its jars cannot be read
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static JarSet scan(final Path directory) throws IOException {
+        final List<Jar> jars = new ArrayList<>();
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path path : stream) {
+                final String name = path.getFileName().toString();
+                if (!name.toLowerCase(Locale.ROOT).endsWith(".jar") || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                jars.add(new Jar(path, path.getFileName().toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+            }
+        }
+
+        jars.sort(Comparator.comparing(Jar::getName));
+        return new JarSet(jars);
+    }
+
+    /**
+     * Computes the content hash of every jar of this record
+     * @return A copy of this record holding the hash of each jar
+     * @throws IOException If a jar cannot be read
+     * @throws IllegalStateException If this record was read rather than scanned
+     * @since 0.4.0
+     */
+    @Nonnull
+    public JarSet withHashes() throws IOException {
+        return this.withHashes(null);
+    }
+
+    /**
+     * Computes the content hash of every jar of this record, reusing the hash
+     * held by the given record for each jar whose name, size and modification
+     * time are unchanged, so that only new and modified jars are read
+     * @param previous A record holding the hashes of the jars when a result
+     *        was last computed, or null to hash every jar
+     * @return A copy of this record holding the hash of each jar
+     * @throws IOException If a jar cannot be read
+     * @throws IllegalStateException If this record was read rather than scanned
+     * @since 0.4.0
+     */
+    @Nonnull
+    public JarSet withHashes(@Nullable final JarSet previous) throws IOException {
+        final Map<String, Jar> hashed = new HashMap<>();
+        final List<Jar> jars = new ArrayList<>(this.jars.size());
+
+        if (previous != null) {
+            for (final Jar jar : previous.jars) {
+                if (jar.hash != null) {
+                    hashed.put(jar.name, jar);
+                }
+            }
+        }
+
+        for (final Jar jar : this.jars) {
+            if (jar.path == null) {
+                throw new IllegalStateException("Cannot hash jar '" + jar.name + "' of a read record");
+            }
+            final Jar known = hashed.get(jar.name);
+            final String hash = jar.equals(known) ? known.hash : DescriptorCache.hash(jar.path);
+            jars.add(new Jar(jar.path, jar.name, jar.size, jar.modified, hash));
+        }
+
+        return new JarSet(jars);
+    }
+
+    /**
+     * The jars of the directory, in order of file name
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<Jar> getJars() {
+        return this.jars;
+    }
+
+    /**
+     * Determines if the given record describes the same jars as this record
+     * @param jars The record of the jars when a result was computed
+     * @return True if no jar has since been added, removed, or modified
+     * @since 0.4.0
+     */
+    public boolean matches(final JarSet jars) {
+        return this.jars.equals(jars.jars);
+    }
+
+    /**
+     * Determines if the given record describes jars of the same content as
+     * this record. Jars are first compared by name, size and modification
+     * time, and a jar whose modification time alone differs is hashed and
+     * compared against the hash held by the given record, if any
+     * @param jars The record of the jars when a result was computed, as
+     *        returned by {@link #withHashes()}
+     * @return True if no jar has since been added, removed, or had its
+     *         content changed
+     * @throws IOException If a jar of this record cannot be hashed
+     * @since 0.4.0
+     */
+    public boolean matchesContent(final JarSet jars) throws IOException {
+        if (this.jars.size() != jars.jars.size()) {
+            return false;
+        }
+
+        for (int index = 0; index < this.jars.size(); ++index) {
+            final Jar jar = this.jars.get(index);
+            final Jar other = jars.jars.get(index);
+
+            if (!jar.name.equals(other.name) || jar.size != other.size) {
+                return false;
+            }
+
+            if (jar.modified != other.modified) {
+                if (jar.path == null || other.hash == null || !other.hash.equals(DescriptorCache.hash(jar.path))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes this record as a JSON array
+     * @param json The writer to write to
+     * @throws IOException If the record cannot be written
+     * @since 0.4.0
+     */
+    public void write(final JsonWriter json) throws IOException {
+        json.beginArray();
+        for (final Jar jar : this.jars) {
+            json.beginObject();
+            json.name(JarSet.NAME).value(jar.name);
+            json.name(JarSet.SIZE).value(jar.size);
+            json.name(JarSet.MODIFIED).value(jar.modified);
+            if (jar.hash != null) {
+                json.name(JarSet.HASH).value(jar.hash);
+            }
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Reads a record written by {@link #write(JsonWriter)}. The jars of a read
+     * record have no path, and are only to be matched against a scanned record
+     * @param json The reader to read from
+     * @return The record
+     * @throws IOException If the record cannot be read
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static JarSet read(final JsonReader json) throws IOException {
+        final List<Jar> jars = new ArrayList<>();
+
+        json.beginArray();
+        while (json.hasNext()) {
+            String name = null;
+            long size = -1L;
+            long modified = -1L;
+            String hash = null;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case JarSet.NAME:
+                        name = json.nextString();
+                        break;
+                    case JarSet.SIZE:
+                        size = json.nextLong();
+                        break;
+                    case JarSet.MODIFIED:
+                        modified = json.nextLong();
+                        break;
+                    case JarSet.HASH:
+                        hash = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+
+            if (name == null) {
+                throw new IOException("Missing value 'name' in jar");
+            }
+
+            jars.add(new Jar(null, name, size, modified, hash));
+        }
+        json.endArray();
+
+        return new JarSet(jars);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JarSet[%d jars]", this.jars.size());
+    }
+
+    /**
+     * A single jar of a mods directory
+     * @since 0.4.0
+     */
+    public static final class Jar {
+        @Nullable
+        private final Path path;
+        private final String name;
+        private final long size;
+        private final long modified;
+        @Nullable
+        private final String hash;
+
+        private Jar(@Nullable final Path path, final String name, final long size, final long modified, @Nullable final String hash) {
+            this.path = path;
+            this.name = name;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        /**
+         * The path of the jar, or null if the record was read rather than scanned
+         * @since 0.4.0
+         */
+        @Nullable
+        public Path getPath() {
+            return this.path;
+        }
+
+        /**
+         * The file name of the jar
+         * @since 0.4.0
+         */
+        @Nonnull
+        public String getName() {
+            return this.name;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getModified() {
+            return this.modified;
+        }
+
+        /**
+         * The hexadecimal SHA-256 hash of the contents of the jar, or null if
+         * the record was scanned without hashes
+         * @since 0.4.0
+         */
+        @Nullable
+        public String getHash() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Jar)) {
+                return false;
+            }
+            final Jar other = (Jar) obj;
+            return this.name.equals(other.name) && this.size == other.size && this.modified == other.modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.name, this.size, this.modified);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Jar['%s', %d bytes]", this.name, this.size);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package net.insomniakitten.pylon.runtime;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Constructs and dispatches to the listeners of a Mod directly, without
+ * reflective lookups of each listener class. Implementations are generated at compile time by the
+ * annotation processor, and their binary name is exported to `riftmod.json`
+ * under the `bootstrap` key
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public interface ListenerBootstrap {
+    /**
+     * Retrieves every listener that should be loaded on the given physical
+     * side, in order of their loading priority. Each listener is constructed
+     * once, and the same instances are dispatched to by invokers
+     * @param side The physical side that is being loaded
+     * @return A mutable list of the listeners
+     * @since 0.4.0
+     */
+    @Nonnull
+    List<Object> createListeners(final Side side);
+
+    /**
+     * Creates an invoker for the given listener interface, which dispatches
+     * every call to the listeners implementing the interface on the given
+     * physical side, in order of their loading priority. Listeners are only
+     * constructed when an invoker for one of their interfaces is first called
+     * @param type The listener interface to be invoked
+     * @param side The physical side that is being loaded
+     * @param <T> The type of the listener interface
+     * @return An invoker of the interface, or null if none was generated
+     * @since 0.4.0
+     */
+    @Nullable
+    <T> T createInvoker(final Class<T> type, final Side side);
+}
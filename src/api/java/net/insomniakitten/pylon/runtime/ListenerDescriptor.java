@@ -0,0 +1,91 @@
+package net.insomniakitten.pylon.runtime;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable description of a listener, as declared in a Mod descriptor
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ListenerDescriptor {
+    private final String className;
+    private final Side side;
+    private final int priority;
+    private final List<String> interfaces;
+
+    public ListenerDescriptor(final String className, final Side side, final int priority) {
+        this(className, side, priority, Collections.emptyList());
+    }
+
+    public ListenerDescriptor(final String className, final Side side, final int priority, final List<String> interfaces) {
+        this.className = Objects.requireNonNull(className, "className");
+        this.side = Objects.requireNonNull(side, "side");
+        this.priority = priority;
+        this.interfaces = Collections.unmodifiableList(new ArrayList<>(interfaces));
+    }
+
+    /**
+     * The binary name of the listener class
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * The physical side the listener should be loaded on
+     * @since 0.4.0
+     */
+    @Nonnull
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The loading priority of the listener
+     * @since 0.4.0
+     */
+    public int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * The binary names of the listener interfaces implemented by the listener,
+     * including inherited interfaces, as resolved at compile time
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ListenerDescriptor)) {
+            return false;
+        }
+        final ListenerDescriptor other = (ListenerDescriptor) obj;
+        return this.priority == other.priority && this.side == other.side
+            && this.className.equals(other.className) && this.interfaces.equals(other.interfaces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.className, this.side, this.priority, this.interfaces);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ListenerDescriptor['%s', %s, %d]", this.className, this.side, this.priority);
+    }
+}
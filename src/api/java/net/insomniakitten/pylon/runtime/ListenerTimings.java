@@ -0,0 +1,150 @@
+package net.insomniakitten.pylon.runtime;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the time taken to load and construct each listener, as reported by
+ * a {@link ListenerBootstrap} generated with the {@code pylon.timing} option.
+ * Timings are held in a fixed-size ring buffer shared by every Mod, so that
+ * recording never blocks or grows, and only the most recent timings are kept
+ * once it is full. Bootstraps generated without the option record nothing
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ListenerTimings {
+    private static final int CAPACITY = 4096;
+    private static final AtomicReferenceArray<Timing> TIMINGS = new AtomicReferenceArray<>(ListenerTimings.CAPACITY);
+    private static final AtomicLong RECORDED = new AtomicLong();
+
+    private ListenerTimings() {}
+
+    /**
+     * Records the timing of a listener, overwriting the oldest timing if the
+     * buffer is full. Called by generated bootstraps when a listener is first
+     * constructed
+     * @param mod The identifier of the Mod owning the listener
+     * @param className The binary name of the listener class
+     * @param loadNanos The time taken to load and initialize the listener class
+     * @param constructionNanos The time taken to construct the listener
+     * @since 0.4.0
+     */
+    public static void record(final String mod, final String className, final long loadNanos, final long constructionNanos) {
+        final long index = ListenerTimings.RECORDED.getAndIncrement();
+        ListenerTimings.TIMINGS.set((int) (index % ListenerTimings.CAPACITY), new Timing(index, mod, className, loadNanos, constructionNanos));
+    }
+
+    /**
+     * Retrieves the timings currently held by the buffer. Each timing holds
+     * the sequence number of its recording, and a slot is only read if it
+     * holds the timing of the expected sequence number, so timings whose
+     * recording has not yet completed, or that are overwritten while the
+     * buffer is read, are omitted rather than read out of order
+     * @return An immutable list of the timings, from oldest to most recent
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static List<Timing> getTimings() {
+        final long recorded = ListenerTimings.RECORDED.get();
+        final long first = Math.max(0L, recorded - ListenerTimings.CAPACITY);
+        final List<Timing> timings = new ArrayList<>((int) (recorded - first));
+
+        for (long index = first; index < recorded; ++index) {
+            final Timing timing = ListenerTimings.TIMINGS.get((int) (index % ListenerTimings.CAPACITY));
+            if (timing != null && timing.sequence == index) {
+                timings.add(timing);
+            }
+        }
+
+        return Collections.unmodifiableList(timings);
+    }
+
+    /**
+     * The number of timings recorded since startup, including those that
+     * have since been overwritten
+     * @since 0.4.0
+     */
+    public static long getRecordedCount() {
+        return ListenerTimings.RECORDED.get();
+    }
+
+    /**
+     * The maximum number of timings held by the buffer
+     * @since 0.4.0
+     */
+    public static int getCapacity() {
+        return ListenerTimings.CAPACITY;
+    }
+
+    /**
+     * The load and construction time of a single listener
+     * @since 0.4.0
+     */
+    public static final class Timing {
+        private final long sequence;
+        private final String mod;
+        private final String className;
+        private final long loadNanos;
+        private final long constructionNanos;
+
+        private Timing(final long sequence, final String mod, final String className, final long loadNanos, final long constructionNanos) {
+            this.sequence = sequence;
+            this.mod = Objects.requireNonNull(mod, "mod");
+            this.className = Objects.requireNonNull(className, "className");
+            this.loadNanos = loadNanos;
+            this.constructionNanos = constructionNanos;
+        }
+
+        /**
+         * The identifier of the Mod owning the listener
+         * @since 0.4.0
+         */
+        @Nonnull
+        public String getMod() {
+            return this.mod;
+        }
+
+        /**
+         * The binary name of the listener class
+         * @since 0.4.0
+         */
+        @Nonnull
+        public String getClassName() {
+            return this.className;
+        }
+
+        /**
+         * The time taken to load, link and initialize the listener class, in nanoseconds
+         * @since 0.4.0
+         */
+        public long getLoadNanos() {
+            return this.loadNanos;
+        }
+
+        /**
+         * The time taken to invoke the constructor of the listener, in nanoseconds
+         * @since 0.4.0
+         */
+        public long getConstructionNanos() {
+            return this.constructionNanos;
+        }
+
+        /**
+         * The time taken to load and construct the listener, in nanoseconds
+         * @since 0.4.0
+         */
+        public long getTotalNanos() {
+            return this.loadNanos + this.constructionNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Timing['%s', '%s', %d ns load, %d ns construction]", this.mod, this.className, this.loadNanos, this.constructionNanos);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The order in which a set of Mods is loaded, such that every Mod is loaded
+ * after its dependencies and the Mods it is declared to load after, and before
+ * the Mods it is declared to load before. Mods that are not ordered relative
+ * to each other are loaded in order of their identifiers, so the order is
+ * stable across launches. The order of the jars in a mods directory can be
+ * saved, and reused by the loader until any jar of the directory changes
+ * @author InsomniaKitten
+ * @see ModDescriptor#getDependencies()
+ * @since 0.4.0
+ */
+public final class LoadOrder {
+    private static final int FORMAT = 1;
+    private static final String FORMAT_KEY = "format";
+    private static final String JARS = "jars";
+    private static final String ORDER = "order";
+
+    private final List<String> order;
+    private final List<String> errors;
+
+    private LoadOrder(final List<String> order, final List<String> errors) {
+        this.order = Collections.unmodifiableList(order);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Computes the load order of the given Mods. Duplicate identifiers,
+     * missing dependencies and cycles are reported as errors, and the Mods
+     * involved in a cycle, or ordered after one, are left out of the order
+     * @param mods The descriptors of every Mod to be loaded
+     * @return The load order of the Mods
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static LoadOrder resolve(final Collection<ModDescriptor> mods) {
+        final List<String> errors = new ArrayList<>();
+        final Map<String, ModDescriptor> byId = new TreeMap<>();
+
+        for (final ModDescriptor mod : mods) {
+            if (byId.putIfAbsent(mod.getId(), mod) != null) {
+                errors.add("Duplicate mod '" + mod.getId() + "'");
+            }
+        }
+
+        // The mods that must be loaded before each mod
+        final Map<String, Set<String>> predecessors = new HashMap<>();
+        final Map<String, Set<String>> successors = new HashMap<>();
+
+        for (final String id : byId.keySet()) {
+            predecessors.put(id, new TreeSet<>());
+            successors.put(id, new TreeSet<>());
+        }
+
+        for (final ModDescriptor mod : byId.values()) {
+            for (final String dependency : mod.getDependencies()) {
+                if (byId.containsKey(dependency)) {
+                    LoadOrder.addEdge(dependency, mod.getId(), predecessors, successors);
+                } else {
+                    errors.add("Mod '" + mod.getId() + "' requires missing mod '" + dependency + "'");
+                }
+            }
+            for (final String after : mod.getLoadAfter()) {
+                if (byId.containsKey(after)) {
+                    LoadOrder.addEdge(after, mod.getId(), predecessors, successors);
+                }
+            }
+            for (final String before : mod.getLoadBefore()) {
+                if (byId.containsKey(before)) {
+                    LoadOrder.addEdge(mod.getId(), before, predecessors, successors);
+                }
+            }
+        }
+
+        final List<String> order = new ArrayList<>(byId.size());
+        final Set<String> remaining = new TreeSet<>(byId.keySet());
+
+        LoadOrder.sort(remaining, predecessors, successors, order);
+
+        while (!remaining.isEmpty()) {
+            final List<String> cycle = LoadOrder.findCycle(remaining, predecessors);
+            errors.add("Cyclic load order between mods " + String.join(" -> ", cycle) + " -> " + cycle.get(0));
+            remaining.removeAll(cycle);
+            // Drop the mods only blocked by the cycle, as their order is undefined
+            LoadOrder.sort(remaining, predecessors, successors, new ArrayList<>());
+        }
+
+        return new LoadOrder(order, errors);
+    }
+
+    private static void addEdge(final String before, final String after, final Map<String, Set<String>> predecessors, final Map<String, Set<String>> successors) {
+        if (!before.equals(after)) {
+            predecessors.get(after).add(before);
+            successors.get(before).add(after);
+        }
+    }
+
+    /**
+     * Moves every remaining mod whose predecessors have all been sorted into
+     * the given order, preferring the lowest identifier whenever several mods
+     * are ready
+     */
+    private static void sort(final Set<String> remaining, final Map<String, Set<String>> predecessors, final Map<String, Set<String>> successors, final List<String> order) {
+        final Map<String, Integer> pending = new HashMap<>();
+        final TreeSet<String> ready = new TreeSet<>();
+
+        for (final String id : remaining) {
+            int count = 0;
+            for (final String predecessor : predecessors.get(id)) {
+                if (remaining.contains(predecessor)) {
+                    ++count;
+                }
+            }
+            pending.put(id, count);
+            if (count == 0) {
+                ready.add(id);
+            }
+        }
+
+        while (!ready.isEmpty()) {
+            final String id = ready.pollFirst();
+            remaining.remove(id);
+            order.add(id);
+            for (final String successor : successors.get(id)) {
+                final Integer count = pending.get(successor);
+                if (count != null && pending.put(successor, count - 1) == 1) {
+                    ready.add(successor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds a cycle among the remaining mods, every one of which has at least
+     * one remaining predecessor, by walking predecessors until a mod repeats
+     * @return The mods of the cycle, in load order
+     */
+    private static List<String> findCycle(final Set<String> remaining, final Map<String, Set<String>> predecessors) {
+        final Set<String> path = new LinkedHashSet<>();
+        String id = remaining.iterator().next();
+
+        while (path.add(id)) {
+            for (final String predecessor : predecessors.get(id)) {
+                if (remaining.contains(predecessor)) {
+                    id = predecessor;
+                    break;
+                }
+            }
+        }
+
+        final List<String> cycle = new ArrayList<>();
+        boolean within = false;
+        for (final String visited : path) {
+            within |= visited.equals(id);
+            if (within) {
+                cycle.add(visited);
+            }
+        }
+        Collections.reverse(cycle);
+        return cycle;
+    }
+
+    /**
+     * Loads the order of the Mods in the given directory, reusing the order
+     * saved in the given file if no jar of the directory has changed since,
+     * and otherwise computing the order from the descriptors of the jars and
+     * saving it if it has no errors
+     * @param directory The mods directory
+     * @param file The file the order is saved to
+     * @return The load order of the Mods in the directory
+     * @throws IOException If the directory or its jars cannot be read, or the
+     *         order cannot be saved
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static LoadOrder load(final Path directory, final Path file) throws IOException {
+        final JarSet jars = JarSet.scan(directory);
+        final LoadOrder saved = LoadOrder.read(file, jars);
+
+        if (saved != null) {
+            return saved;
+        }
+
+        final List<ModDescriptor> mods = new ArrayList<>();
+        for (final JarSet.Jar jar : jars.getJars()) {
+            mods.addAll(DescriptorReader.readJarAll(jar.getPath()));
+        }
+
+        final LoadOrder order = LoadOrder.resolve(mods);
+        if (!order.hasErrors()) {
+            order.save(file, jars);
+        }
+        return order;
+    }
+
+    /**
+     * Reads the order saved in the given file, if it was computed from the
+     * given jars
+     * @param file The file the order was saved to
+     * @param jars The current jars of the mods directory
+     * @return The saved order, or null if the file is missing, unreadable,
+     *         or was saved for different jars
+     * @since 0.4.0
+     */
+    @Nullable
+    public static LoadOrder read(final Path file, final JarSet jars) {
+        JarSet savedJars = null;
+        final List<String> order = new ArrayList<>();
+
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final JsonReader json = new JsonReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case LoadOrder.FORMAT_KEY:
+                        if (json.nextInt() != LoadOrder.FORMAT) {
+                            return null;
+                        }
+                        break;
+                    case LoadOrder.JARS:
+                        savedJars = JarSet.read(json);
+                        break;
+                    case LoadOrder.ORDER:
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            order.add(json.nextString());
+                        }
+                        json.endArray();
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            // A missing or malformed file is recomputed and replaced
+            return null;
+        }
+
+        return savedJars != null && jars.matches(savedJars) ? new LoadOrder(order, Collections.emptyList()) : null;
+    }
+
+    /**
+     * Saves this order to the given file, to be reused while the given jars
+     * are unchanged
+     * @param file The file to save the order to
+     * @param jars The jars the order was computed from
+     * @throws IOException If the file cannot be written
+     * @throws IllegalStateException If this order has errors
+     * @since 0.4.0
+     */
+    public void save(final Path file, final JarSet jars) throws IOException {
+        if (this.hasErrors()) {
+            throw new IllegalStateException("Cannot save a load order with errors");
+        }
+
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            final JsonWriter json = new JsonWriter(writer);
+            json.setIndent("  ");
+            json.beginObject();
+            json.name(LoadOrder.FORMAT_KEY).value(LoadOrder.FORMAT);
+            json.name(LoadOrder.JARS);
+            jars.write(json);
+            json.name(LoadOrder.ORDER).beginArray();
+            for (final String id : this.order) {
+                json.value(id);
+            }
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The identifiers of the Mods, in the order they are to be loaded
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getOrder() {
+        return this.order;
+    }
+
+    /**
+     * The errors found while computing the order, such as missing
+     * dependencies and cycles
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getErrors() {
+        return this.errors;
+    }
+
+    public boolean hasErrors() {
+        return !this.errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LoadOrder[%d mods, %d errors]", this.order.size(), this.errors.size());
+    }
+}
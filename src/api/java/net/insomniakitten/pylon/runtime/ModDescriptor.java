@@ -0,0 +1,176 @@
+package net.insomniakitten.pylon.runtime;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable description of a Mod, as read from a `riftmod.json` descriptor
+ * @author InsomniaKitten
+ * @see DescriptorReader
+ * @since 0.4.0
+ */
+public final class ModDescriptor {
+    private final String id;
+    private final String name;
+    private final String version;
+    private final Side side;
+    private final List<String> authors;
+    private final List<ListenerDescriptor> listeners;
+    @Nullable
+    private final String bootstrap;
+    private final List<String> mixins;
+    private final List<String> dependencies;
+    private final List<String> loadAfter;
+    private final List<String> loadBefore;
+
+    public ModDescriptor(final String id, final String name, final String version, final Side side, final List<String> authors, final List<ListenerDescriptor> listeners, @Nullable final String bootstrap) {
+        this(id, name, version, side, authors, listeners, bootstrap, Collections.emptyList());
+    }
+
+    public ModDescriptor(final String id, final String name, final String version, final Side side, final List<String> authors, final List<ListenerDescriptor> listeners, @Nullable final String bootstrap, final List<String> mixins) {
+        this(id, name, version, side, authors, listeners, bootstrap, mixins, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    public ModDescriptor(final String id, final String name, final String version, final Side side, final List<String> authors, final List<ListenerDescriptor> listeners, @Nullable final String bootstrap, final List<String> mixins, final List<String> dependencies, final List<String> loadAfter, final List<String> loadBefore) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.name = Objects.requireNonNull(name, "name");
+        this.version = Objects.requireNonNull(version, "version");
+        this.side = Objects.requireNonNull(side, "side");
+        this.authors = Collections.unmodifiableList(authors);
+        this.listeners = Collections.unmodifiableList(listeners);
+        this.bootstrap = bootstrap;
+        this.mixins = Collections.unmodifiableList(mixins);
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.loadAfter = Collections.unmodifiableList(loadAfter);
+        this.loadBefore = Collections.unmodifiableList(loadBefore);
+    }
+
+    /**
+     * The unique identifier of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * The friendly name of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * The semantic version of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * The physical side the Mod should be loaded on
+     * @since 0.4.0
+     */
+    @Nonnull
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The authors of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getAuthors() {
+        return this.authors;
+    }
+
+    /**
+     * The listeners of the Mod, in order of their loading priority
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<ListenerDescriptor> getListeners() {
+        return this.listeners;
+    }
+
+    /**
+     * The binary name of the generated {@link ListenerBootstrap} of the Mod
+     * @since 0.4.0
+     */
+    @Nullable
+    public String getBootstrap() {
+        return this.bootstrap;
+    }
+
+    /**
+     * The paths of the mixin configs of the Mod
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getMixins() {
+        return this.mixins;
+    }
+
+    /**
+     * The identifiers of the Mods required by the Mod, which are loaded before it
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * The identifiers of the Mods the Mod is loaded after, if present
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getLoadAfter() {
+        return this.loadAfter;
+    }
+
+    /**
+     * The identifiers of the Mods the Mod is loaded before, if present
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getLoadBefore() {
+        return this.loadBefore;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ModDescriptor)) {
+            return false;
+        }
+        final ModDescriptor other = (ModDescriptor) obj;
+        return this.id.equals(other.id) && this.name.equals(other.name) && this.version.equals(other.version)
+            && this.side == other.side && this.authors.equals(other.authors) && this.listeners.equals(other.listeners)
+            && Objects.equals(this.bootstrap, other.bootstrap) && this.mixins.equals(other.mixins)
+            && this.dependencies.equals(other.dependencies) && this.loadAfter.equals(other.loadAfter) && this.loadBefore.equals(other.loadBefore);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id, this.name, this.version, this.side, this.authors, this.listeners, this.bootstrap, this.mixins, this.dependencies, this.loadAfter, this.loadBefore);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModDescriptor['%s', '%s', %d listeners]", this.id, this.version, this.listeners.size());
+    }
+}
@@ -0,0 +1,444 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A single index of every Mod in a mods directory, linked ahead of launch so
+ * that the loader reads one file rather than the descriptor of every jar. The
+ * index holds the descriptors of the Mods in their {@link LoadOrder}, and the
+ * listeners of every Mod merged into a single order per physical side, sorted
+ * by priority, then by the load order of their Mods, then by their order within
+ * their Mod. The index is saved with the content hashes of the jars it was
+ * linked from, and is linked again once any jar is added, removed or modified
+ * @author InsomniaKitten
+ * @see LoadOrder
+ * @since 0.4.0
+ */
+public final class ModpackIndex {
+    private static final int FORMAT = 1;
+    private static final String FORMAT_KEY = "format";
+    private static final String JARS = "jars";
+    private static final String MODS = "mods";
+    private static final String LISTENERS = "listeners";
+    private static final String MOD = "mod";
+    private static final String LISTENER = "listener";
+
+    private static final Side[] SIDES = { Side.CLIENT, Side.SERVER };
+
+    private final List<ModDescriptor> mods;
+    private final Map<Side, List<IndexedListener>> listeners;
+    private final List<String> errors;
+    @Nullable
+    private final JarSet jars;
+
+    private ModpackIndex(final List<ModDescriptor> mods, final Map<Side, List<IndexedListener>> listeners, final List<String> errors, @Nullable final JarSet jars) {
+        this.mods = Collections.unmodifiableList(mods);
+        this.listeners = listeners;
+        this.errors = Collections.unmodifiableList(errors);
+        this.jars = jars;
+    }
+
+    /**
+     * Links the given Mods into an index, ordering them by their declared
+     * dependencies and merging their listeners per physical side. A Mod or
+     * listener is included in the order of each side it is equivalent to
+     * @param mods The descriptors of every Mod to be loaded
+     * @return The linked index, holding the errors of the load order if any
+     * @see Side#isEquivalentTo(Side)
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static ModpackIndex link(final Collection<ModDescriptor> mods) {
+        final LoadOrder order = LoadOrder.resolve(mods);
+        final Map<String, ModDescriptor> byId = new HashMap<>();
+
+        for (final ModDescriptor mod : mods) {
+            byId.putIfAbsent(mod.getId(), mod);
+        }
+
+        final List<ModDescriptor> ordered = new ArrayList<>(order.getOrder().size());
+        for (final String id : order.getOrder()) {
+            ordered.add(byId.get(id));
+        }
+
+        return new ModpackIndex(ordered, ModpackIndex.merge(ordered), order.getErrors(), null);
+    }
+
+    /**
+     * Merges the listeners of the given Mods per physical side. The sort is
+     * stable, so listeners of equal priority keep the load order of their
+     * Mods and their order within each Mod
+     */
+    private static Map<Side, List<IndexedListener>> merge(final List<ModDescriptor> mods) {
+        final Map<Side, List<IndexedListener>> listeners = new HashMap<>();
+
+        for (final Side side : ModpackIndex.SIDES) {
+            final List<IndexedListener> merged = new ArrayList<>();
+            for (final ModDescriptor mod : mods) {
+                if (!mod.getSide().isEquivalentTo(side)) {
+                    continue;
+                }
+                final List<ListenerDescriptor> modListeners = mod.getListeners();
+                for (int position = 0; position < modListeners.size(); ++position) {
+                    if (modListeners.get(position).getSide().isEquivalentTo(side)) {
+                        merged.add(new IndexedListener(mod, position));
+                    }
+                }
+            }
+            merged.sort(Comparator.comparingInt(listener -> listener.getListener().getPriority()));
+            listeners.put(side, Collections.unmodifiableList(merged));
+        }
+
+        return listeners;
+    }
+
+    /**
+     * Loads the index of the Mods in the given directory, reusing the index
+     * saved in the given file if the content of the jars of the directory is
+     * unchanged since, and otherwise linking the descriptors of the jars and
+     * saving the index if it has no errors
+     * @param directory The mods directory
+     * @param file The file the index is saved to
+     * @return The index of the Mods in the directory
+     * @throws IOException If the directory or its jars cannot be read, or the
+     *         index cannot be saved
+     * @since 0.4.0
+     */
+    @Nonnull
+    public static ModpackIndex load(final Path directory, final Path file) throws IOException {
+        final JarSet jars = JarSet.scan(directory);
+        final ModpackIndex saved = ModpackIndex.read(file, jars);
+
+        if (saved != null) {
+            // Jars touched without changing are saved with their new times, so they are not hashed again
+            if (saved.jars != null && !jars.matches(saved.jars)) {
+                saved.save(file, jars.withHashes(saved.jars));
+            }
+            return saved;
+        }
+
+        final List<ModDescriptor> mods = new ArrayList<>();
+        for (final JarSet.Jar jar : jars.getJars()) {
+            mods.addAll(DescriptorReader.readJarAll(jar.getPath()));
+        }
+
+        final ModpackIndex index = ModpackIndex.link(mods);
+        if (!index.hasErrors()) {
+            index.save(file, jars.withHashes(ModpackIndex.readJars(file)));
+        }
+        return index;
+    }
+
+    /**
+     * Reads the jars saved in the given file, without reading the remainder
+     * of the index, so that the hashes of unchanged jars can be reused when
+     * the index is linked again
+     * @return The saved jars, or null if the file is missing or unreadable
+     */
+    @Nullable
+    private static JarSet readJars(final Path file) {
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final JsonReader json = new JsonReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                final String name = json.nextName();
+                if (ModpackIndex.FORMAT_KEY.equals(name)) {
+                    if (json.nextInt() != ModpackIndex.FORMAT) {
+                        return null;
+                    }
+                } else if (ModpackIndex.JARS.equals(name)) {
+                    return JarSet.read(json);
+                } else {
+                    json.skipValue();
+                }
+            }
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the index saved in the given file, if it was linked from jars of
+     * the same content as the given jars
+     * @param file The file the index was saved to
+     * @param jars The current jars of the mods directory
+     * @return The saved index, or null if the file is missing, unreadable,
+     *         or was saved for different jars
+     * @since 0.4.0
+     */
+    @Nullable
+    public static ModpackIndex read(final Path file, final JarSet jars) {
+        JarSet savedJars = null;
+        final List<ModDescriptor> mods = new ArrayList<>();
+        final Map<Side, List<int[]>> positions = new HashMap<>();
+
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final JsonReader json = new JsonReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case ModpackIndex.FORMAT_KEY:
+                        if (json.nextInt() != ModpackIndex.FORMAT) {
+                            return null;
+                        }
+                        break;
+                    case ModpackIndex.JARS:
+                        savedJars = JarSet.read(json);
+                        // Skip the remainder of a stale index
+                        if (!jars.matchesContent(savedJars)) {
+                            return null;
+                        }
+                        break;
+                    case ModpackIndex.MODS:
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            mods.add(DescriptorReader.read(json));
+                        }
+                        json.endArray();
+                        break;
+                    case ModpackIndex.LISTENERS:
+                        ModpackIndex.readPositions(json, positions);
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+        } catch (final IOException | IllegalStateException | NumberFormatException e) {
+            // A missing or malformed file, or an unreadable jar, is linked again
+            return null;
+        }
+
+        if (savedJars == null) {
+            return null;
+        }
+
+        final Map<Side, List<IndexedListener>> listeners = new HashMap<>();
+        for (final Side side : ModpackIndex.SIDES) {
+            final List<int[]> sidePositions = positions.getOrDefault(side, Collections.emptyList());
+            final List<IndexedListener> sideListeners = new ArrayList<>(sidePositions.size());
+            for (final int[] position : sidePositions) {
+                if (position[0] < 0 || position[0] >= mods.size()) {
+                    return null;
+                }
+                final ModDescriptor mod = mods.get(position[0]);
+                if (position[1] < 0 || position[1] >= mod.getListeners().size()) {
+                    return null;
+                }
+                sideListeners.add(new IndexedListener(mod, position[1]));
+            }
+            listeners.put(side, Collections.unmodifiableList(sideListeners));
+        }
+
+        return new ModpackIndex(mods, listeners, Collections.emptyList(), savedJars);
+    }
+
+    /**
+     * Reads the listener order of each side, as pairs of the index of a Mod
+     * and the index of a listener within it
+     */
+    private static void readPositions(final JsonReader json, final Map<Side, List<int[]>> positions) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            final Side side = ModpackIndex.toSide(json.nextName());
+            if (side == null) {
+                json.skipValue();
+                continue;
+            }
+            final List<int[]> sidePositions = new ArrayList<>();
+            json.beginArray();
+            while (json.hasNext()) {
+                int mod = -1;
+                int listener = -1;
+                json.beginObject();
+                while (json.hasNext()) {
+                    switch (json.nextName()) {
+                        case ModpackIndex.MOD:
+                            mod = json.nextInt();
+                            break;
+                        case ModpackIndex.LISTENER:
+                            listener = json.nextInt();
+                            break;
+                        default:
+                            json.skipValue();
+                            break;
+                    }
+                }
+                json.endObject();
+                sidePositions.add(new int[] { mod, listener });
+            }
+            json.endArray();
+            positions.put(side, sidePositions);
+        }
+        json.endObject();
+    }
+
+    @Nullable
+    private static Side toSide(final String name) {
+        for (final Side side : ModpackIndex.SIDES) {
+            if (side.getName().equals(name)) {
+                return side;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Saves this index to the given file, to be reused while the content of
+     * the given jars is unchanged
+     * @param file The file to save the index to
+     * @param jars The jars the index was linked from, as returned by
+     *        {@link JarSet#withHashes()}
+     * @throws IOException If the file cannot be written
+     * @throws IllegalStateException If this index has errors
+     * @since 0.4.0
+     */
+    public void save(final Path file, final JarSet jars) throws IOException {
+        if (this.hasErrors()) {
+            throw new IllegalStateException("Cannot save a modpack index with errors");
+        }
+
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Map<ModDescriptor, Integer> modIndices = new HashMap<>();
+        for (int index = 0; index < this.mods.size(); ++index) {
+            modIndices.put(this.mods.get(index), index);
+        }
+
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            final JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name(ModpackIndex.FORMAT_KEY).value(ModpackIndex.FORMAT);
+            json.name(ModpackIndex.JARS);
+            jars.write(json);
+            json.name(ModpackIndex.MODS).beginArray();
+            for (final ModDescriptor mod : this.mods) {
+                DescriptorReader.write(mod, json);
+            }
+            json.endArray();
+            json.name(ModpackIndex.LISTENERS).beginObject();
+            for (final Side side : ModpackIndex.SIDES) {
+                json.name(side.getName()).beginArray();
+                for (final IndexedListener listener : this.listeners.get(side)) {
+                    json.beginObject();
+                    json.name(ModpackIndex.MOD).value(modIndices.get(listener.mod));
+                    json.name(ModpackIndex.LISTENER).value(listener.position);
+                    json.endObject();
+                }
+                json.endArray();
+            }
+            json.endObject();
+            json.endObject();
+            json.flush();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The descriptors of the Mods, in the order they are to be loaded
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<ModDescriptor> getMods() {
+        return this.mods;
+    }
+
+    /**
+     * The listeners to be loaded on the given physical side, in the order
+     * they are to be loaded across every Mod
+     * @param side The physical side, where {@link Side#EITHER} is unsupported
+     * @return The merged listeners of the side
+     * @throws IllegalArgumentException If the side is ambiguous
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<IndexedListener> getListeners(final Side side) {
+        if (side.isAmbiguous()) {
+            throw new IllegalArgumentException("Listeners are indexed per physical side");
+        }
+        return this.listeners.get(side);
+    }
+
+    /**
+     * The errors found while linking the index, such as missing dependencies
+     * and cycles
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<String> getErrors() {
+        return this.errors;
+    }
+
+    public boolean hasErrors() {
+        return !this.errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModpackIndex[%d mods, %d client listeners, %d server listeners]", this.mods.size(),
+            this.listeners.get(Side.CLIENT).size(), this.listeners.get(Side.SERVER).size());
+    }
+
+    /**
+     * A listener of the merged order of a side, and the Mod it belongs to
+     * @since 0.4.0
+     */
+    public static final class IndexedListener {
+        private final ModDescriptor mod;
+        private final int position;
+
+        private IndexedListener(final ModDescriptor mod, final int position) {
+            this.mod = Objects.requireNonNull(mod, "mod");
+            this.position = position;
+        }
+
+        /**
+         * The descriptor of the Mod owning the listener
+         * @since 0.4.0
+         */
+        @Nonnull
+        public ModDescriptor getMod() {
+            return this.mod;
+        }
+
+        /**
+         * The descriptor of the listener
+         * @since 0.4.0
+         */
+        @Nonnull
+        public ListenerDescriptor getListener() {
+            return this.mod.getListeners().get(this.position);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("IndexedListener['%s', '%s', %d]", this.mod.getId(), this.getListener().getClassName(), this.getListener().getPriority());
+        }
+    }
+}
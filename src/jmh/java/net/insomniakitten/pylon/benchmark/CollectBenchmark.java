@@ -0,0 +1,91 @@
+package net.insomniakitten.pylon.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.annotation.rift.Listener;
+import net.insomniakitten.pylon.processor.IncrementalType;
+import net.insomniakitten.pylon.processor.PylonAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.processing.RoundEnvironment;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures collection of discovered elements by the processor base class,
+ * with and without a sorter, relative to a processing pass that collects
+ * nothing. The difference between the two is the cost of collection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectBenchmark {
+    @Param({ "1000", "10000" })
+    public int listeners;
+
+    @Param({ "none", "unsorted", "sorted" })
+    public String collection;
+
+    private InMemoryCompilation compilation;
+
+    @Setup
+    public void setup() {
+        this.compilation = InMemoryCompilation.ofSyntheticMod(this.listeners);
+    }
+
+    @Benchmark
+    public long collect() {
+        return this.compilation.process(new CollectingProcessor(this.collection));
+    }
+
+    private static final class CollectingProcessor extends PylonAnnotationProcessor {
+        private static final Comparator<javax.lang.model.element.Element> PRIORITY = Comparator.comparingInt(
+            element -> element.getAnnotation(Listener.class).priority()
+        );
+
+        private final String collection;
+
+        private CollectingProcessor(final String collection) {
+            this.collection = collection;
+        }
+
+        @Override
+        protected String getProcessorName() {
+            return "pylon.benchmark";
+        }
+
+        @Override
+        protected void getSupportedAnnotations(final ImmutableSet.Builder<String> builder) {
+            builder.add("net.insomniakitten.pylon.annotation.rift.*");
+        }
+
+        @Override
+        protected IncrementalType getIncrementalType() {
+            return IncrementalType.AGGREGATING;
+        }
+
+        @Override
+        protected boolean onProcessAnnotations(final RoundEnvironment environment) {
+            switch (this.collection) {
+                case "unsorted":
+                    return !this.collectAnnotationsFor(Listener.class, element -> true).isEmpty();
+                case "sorted":
+                    return !this.collectAnnotationsFor(Listener.class, element -> true, CollectingProcessor.PRIORITY).isEmpty();
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package net.insomniakitten.pylon.benchmark;
+
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs annotation processors over sources held in memory, capturing every
+ * generated file in memory, so that benchmarks measure processing rather
+ * than disk access
+ */
+public final class InMemoryCompilation {
+    private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+
+    private final List<JavaFileObject> sources;
+    private final Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+
+    private InMemoryCompilation(final List<JavaFileObject> sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * Generates a synthetic mod with the given number of listeners, half of
+     * which are declared as nested static types of their neighbours
+     * @param listeners The number of listener types to generate
+     * @return A compilation of the generated sources
+     */
+    public static InMemoryCompilation ofSyntheticMod(final int listeners) {
+        final List<JavaFileObject> sources = new ArrayList<>(listeners + 1);
+
+        sources.add(InMemoryCompilation.source("bench.BenchMod",
+            "package bench;\n"
+                + "@net.insomniakitten.pylon.annotation.rift.Mod(id = \"bench\", version = \"1.0.0\", authors = \"Pylon\")\n"
+                + "public final class BenchMod {}\n"
+        ));
+
+        for (int index = 0; index < listeners; index += 2) {
+            final String pkg = "bench.l" + (index % 64);
+            final StringBuilder source = new StringBuilder();
+            source.append("package ").append(pkg).append(";\n");
+            InMemoryCompilation.appendListener(source, "public", "Listener" + index, index);
+            if (index + 1 < listeners) {
+                InMemoryCompilation.appendListener(source, "public static", "Nested", index + 1);
+                source.append("}\n");
+            }
+            source.append("}\n");
+            sources.add(InMemoryCompilation.source(pkg + ".Listener" + index, source.toString()));
+        }
+
+        return new InMemoryCompilation(sources);
+    }
+
+    private static void appendListener(final StringBuilder source, final String modifiers, final String name, final int index) {
+        source.append("@net.insomniakitten.pylon.annotation.rift.Listener(priority = ").append(index % 7);
+        if (index % 5 == 0) {
+            source.append(", side = net.insomniakitten.pylon.ref.Side.CLIENT");
+        }
+        source.append(")\n");
+        source.append(modifiers).append(" class ").append(name).append(" implements java.lang.Runnable {\n");
+        source.append("public void run() {}\n");
+    }
+
+    private static JavaFileObject source(final String name, final String content) {
+        final URI uri = URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    /**
+     * Runs the given processors over the sources, without generating classes
+     * @param processors The processors to be run
+     * @return The total number of bytes written to generated files
+     */
+    public long process(final Processor... processors) {
+        return this.process(Collections.emptyList(), processors);
+    }
+
+    /**
+     * Runs the given processors over the sources, without generating classes
+     * @param options The additional compiler options, such as processor options
+     * @param processors The processors to be run
+     * @return The total number of bytes written to generated files
+     */
+    public long process(final List<String> options, final Processor... processors) {
+        this.outputs.clear();
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (final StandardJavaFileManager standard = InMemoryCompilation.COMPILER.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaFileManager manager = new ForwardingJavaFileManager<JavaFileManager>(standard) {
+                @Override
+                public FileObject getFileForOutput(final Location location, final String packageName, final String relativeName, final FileObject sibling) {
+                    final String path = packageName.isEmpty() ? relativeName : packageName.replace('.', '/') + "/" + relativeName;
+                    return InMemoryCompilation.this.output(path, JavaFileObject.Kind.OTHER);
+                }
+
+                @Override
+                public JavaFileObject getJavaFileForOutput(final Location location, final String className, final JavaFileObject.Kind kind, final FileObject sibling) {
+                    return InMemoryCompilation.this.output(className.replace('.', '/') + kind.extension, kind);
+                }
+            };
+
+            final List<String> arguments = new ArrayList<>(Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")));
+            arguments.addAll(options);
+            final JavaCompiler.CompilationTask task = InMemoryCompilation.COMPILER.getTask(null, manager, diagnostics, arguments, null, this.sources);
+
+            task.setProcessors(Arrays.asList(processors));
+
+            if (!task.call()) {
+                throw new IllegalStateException("Compilation failed: " + diagnostics.getDiagnostics());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return this.outputs.values().stream().mapToLong(ByteArrayOutputStream::size).sum();
+    }
+
+    /**
+     * @return The generated files, by path, from the last run
+     */
+    public Map<String, ByteArrayOutputStream> getOutputs() {
+        return Collections.unmodifiableMap(this.outputs);
+    }
+
+    private JavaFileObject output(final String path, final JavaFileObject.Kind kind) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + path), kind) {
+            @Override
+            public OutputStream openOutputStream() {
+                final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                InMemoryCompilation.this.outputs.put(path, stream);
+                return stream;
+            }
+
+            @Override
+            public InputStream openInputStream() throws FileNotFoundException {
+                final ByteArrayOutputStream stream = InMemoryCompilation.this.outputs.get(path);
+                if (stream == null) {
+                    throw new FileNotFoundException(path);
+                }
+                return new ByteArrayInputStream(stream.toByteArray());
+            }
+
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) throws FileNotFoundException {
+                final ByteArrayOutputStream stream = InMemoryCompilation.this.outputs.get(path);
+                if (stream == null) {
+                    throw new FileNotFoundException(path);
+                }
+                return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public Writer openWriter() {
+                return new OutputStreamWriter(this.openOutputStream(), StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package net.insomniakitten.pylon.benchmark;
+
+import net.insomniakitten.pylon.logging.PylonLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the formatting and dispatch of messages by {@link PylonLogger},
+ * against a messager that only consumes the formatted messages
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoggerBenchmark {
+    private PylonLogger logger;
+    private PylonLogger bufferedLogger;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        this.blackhole = blackhole;
+        final Messager messager = new ConsumingMessager();
+        this.logger = PylonLogger.of("pylon.benchmark", () -> messager);
+        this.bufferedLogger = PylonLogger.buffered("pylon.benchmark", () -> messager, () -> PylonLogger.Level.WARN, 8);
+    }
+
+    @Benchmark
+    public void note() {
+        this.logger.note("@Listener does not implement any interfaces");
+    }
+
+    @Benchmark
+    public void warn() {
+        this.logger.warn("@Listener does not implement any interfaces");
+    }
+
+    @Benchmark
+    public void empty() {
+        this.logger.note(null);
+    }
+
+    @Benchmark
+    public void bufferedFilteredNote() {
+        this.bufferedLogger.note("@Listener does not implement any interfaces");
+    }
+
+    @Benchmark
+    public void bufferedDuplicateWarn() {
+        this.bufferedLogger.warn("@Listener does not implement any interfaces");
+        this.bufferedLogger.flush();
+    }
+
+    private final class ConsumingMessager implements Messager {
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence msg) {
+            LoggerBenchmark.this.blackhole.consume(msg);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e) {
+            LoggerBenchmark.this.blackhole.consume(msg);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e, final AnnotationMirror a) {
+            LoggerBenchmark.this.blackhole.consume(msg);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e, final AnnotationMirror a, final AnnotationValue v) {
+            LoggerBenchmark.this.blackhole.consume(msg);
+        }
+    }
+}
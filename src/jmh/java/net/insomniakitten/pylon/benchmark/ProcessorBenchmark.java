@@ -0,0 +1,43 @@
+package net.insomniakitten.pylon.benchmark;
+
+import net.insomniakitten.pylon.processor.RiftAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an end-to-end pass of the {@link RiftAnnotationProcessor} over
+ * synthetic mods of increasing size, compiled in memory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProcessorBenchmark {
+    @Param({ "10", "1000", "10000" })
+    public int listeners;
+
+    private InMemoryCompilation compilation;
+
+    @Setup
+    public void setup() {
+        this.compilation = InMemoryCompilation.ofSyntheticMod(this.listeners);
+    }
+
+    @Benchmark
+    public long process() {
+        return this.compilation.process(new RiftAnnotationProcessor());
+    }
+}
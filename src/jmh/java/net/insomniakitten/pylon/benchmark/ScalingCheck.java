@@ -0,0 +1,318 @@
+package net.insomniakitten.pylon.benchmark;
+
+import com.google.common.base.Splitter;
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.processor.RiftAnnotationProcessor;
+import net.insomniakitten.pylon.runtime.DescriptorReader;
+import net.insomniakitten.pylon.runtime.ListenerDescriptor;
+import net.insomniakitten.pylon.runtime.ModDescriptor;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the {@link RiftAnnotationProcessor} over synthetic mods of increasing
+ * size, checking that every run produces a correct descriptor, and that the
+ * time spent in the processor and the bytes it allocates grow linearly with
+ * the number of annotated elements. Growth is measured as the slope of a
+ * log-log fit over the larger sizes, where a slope of 1 is linear, and the
+ * check fails when either slope exceeds the threshold
+ * <pre>
+ * ScalingCheck [--sizes 100,1000,...] [--fit-from 1000] [--repetitions 3] [--threshold 1.25] [--report file]
+ * </pre>
+ */
+public final class ScalingCheck {
+    private static final String MOD_ID = "bench";
+    private static final String BOOTSTRAP = "bench.PylonListenerBootstrap";
+
+    private ScalingCheck() {}
+
+    public static void main(final String[] args) throws IOException {
+        List<Integer> sizes = Collections.unmodifiableList(Arrays.asList(100, 1000, 5000, 10000, 50000));
+        int fitFrom = 1000;
+        int repetitions = 3;
+        double threshold = 1.25;
+        Path report = null;
+
+        for (int index = 0; index < args.length; index += 2) {
+            if (index + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of argument '" + args[index] + "'");
+            }
+            final String value = args[index + 1];
+            switch (args[index]) {
+                case "--sizes":
+                    sizes = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(value).stream()
+                        .map(Integer::parseInt).sorted().collect(Collectors.toList());
+                    break;
+                case "--fit-from":
+                    fitFrom = Integer.parseInt(value);
+                    break;
+                case "--repetitions":
+                    repetitions = Integer.parseInt(value);
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(value);
+                    break;
+                case "--report":
+                    report = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument '" + args[index] + "'");
+            }
+        }
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final boolean allocation = threads instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+
+        if (allocation) {
+            ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+        } else {
+            System.out.println("Thread allocation measurement is not supported, checking time only");
+        }
+
+        // Warm up the compiler and processor on a mid-sized mod first
+        final InMemoryCompilation warmup = InMemoryCompilation.ofSyntheticMod(Math.min(1000, sizes.get(sizes.size() - 1)));
+        for (int run = 0; run < 3; ++run) {
+            ScalingCheck.measure(warmup, allocation);
+        }
+
+        final List<Sample> samples = new ArrayList<>();
+
+        for (final int size : sizes) {
+            final InMemoryCompilation compilation = InMemoryCompilation.ofSyntheticMod(size);
+            long nanos = Long.MAX_VALUE;
+            long bytes = Long.MAX_VALUE;
+
+            for (int run = 0; run < repetitions; ++run) {
+                final MeasuringProcessor processor = ScalingCheck.measure(compilation, allocation);
+                ScalingCheck.verify(compilation, size);
+                nanos = Math.min(nanos, processor.nanos);
+                bytes = Math.min(bytes, processor.bytes);
+            }
+
+            final Sample sample = new Sample(size, nanos, bytes);
+            samples.add(sample);
+            System.out.printf("%8d elements: %10.2f ms, %14d bytes%n", size, nanos / 1.0E6, bytes);
+        }
+
+        final int minimum = fitFrom;
+        final List<Sample> fitted = samples.stream().filter(sample -> sample.size >= minimum).collect(Collectors.toList());
+
+        if (fitted.size() < 2) {
+            throw new IllegalArgumentException("At least two sizes of at least " + minimum + " are required");
+        }
+
+        final double timeSlope = ScalingCheck.slope(fitted, sample -> sample.nanos);
+        final double allocationSlope = allocation ? ScalingCheck.slope(fitted, sample -> sample.bytes) : Double.NaN;
+
+        System.out.printf("Scaling factor of time: %.3f, of allocation: %.3f, threshold: %.3f%n", timeSlope, allocationSlope, threshold);
+
+        if (report != null) {
+            ScalingCheck.writeReport(report, samples, timeSlope, allocationSlope, threshold);
+        }
+
+        // Thrown rather than exiting, so that the samples and report above are kept with the failure
+        if (timeSlope > threshold || (allocation && allocationSlope > threshold)) {
+            throw new IllegalStateException(String.format("Processor scaling regressed beyond the threshold of %.3f, "
+                + "with a scaling factor of time of %.3f and of allocation of %.3f", threshold, timeSlope, allocationSlope));
+        }
+    }
+
+    private static MeasuringProcessor measure(final InMemoryCompilation compilation, final boolean allocation) {
+        final MeasuringProcessor processor = new MeasuringProcessor(new RiftAnnotationProcessor(), allocation);
+        // A single thread, so that every allocation of the processor is on the measured thread
+        compilation.process(Collections.singletonList("-Apylon.parallelism=1"), processor);
+        return processor;
+    }
+
+    /**
+     * Checks that the descriptor holds every listener in order of priority,
+     * and that the listener bootstrap was generated
+     */
+    private static void verify(final InMemoryCompilation compilation, final int size) throws IOException {
+        final Map<String, ByteArrayOutputStream> outputs = compilation.getOutputs();
+        final ByteArrayOutputStream json = ScalingCheck.find(outputs, DescriptorReader.FILE);
+        final ModDescriptor descriptor = DescriptorReader.read(new StringReader(new String(json.toByteArray(), StandardCharsets.UTF_8)));
+
+        ScalingCheck.require(MOD_ID.equals(descriptor.getId()), "Unexpected mod id '" + descriptor.getId() + "'");
+        ScalingCheck.require(descriptor.getListeners().size() == size, "Expected " + size + " listeners, found " + descriptor.getListeners().size());
+        ScalingCheck.require(BOOTSTRAP.equals(descriptor.getBootstrap()), "Missing listener bootstrap in descriptor");
+        ScalingCheck.find(outputs, BOOTSTRAP.replace('.', '/') + ".java");
+
+        final Set<String> names = descriptor.getListeners().stream().map(ListenerDescriptor::getClassName).collect(Collectors.toSet());
+        ScalingCheck.require(names.size() == size, "Duplicate listeners in descriptor");
+
+        ListenerDescriptor previous = null;
+        for (final ListenerDescriptor listener : descriptor.getListeners()) {
+            if (previous != null) {
+                final int order = Integer.compare(previous.getPriority(), listener.getPriority());
+                ScalingCheck.require(order < 0 || (order == 0 && previous.getClassName().compareTo(listener.getClassName()) < 0),
+                    "Listener '" + listener.getClassName() + "' is out of order");
+            }
+            previous = listener;
+        }
+    }
+
+    private static ByteArrayOutputStream find(final Map<String, ByteArrayOutputStream> outputs, final String path) {
+        return outputs.entrySet().stream()
+            .filter(entry -> entry.getKey().equals(path) || entry.getKey().endsWith("/" + path))
+            .map(Map.Entry::getValue).findFirst()
+            .orElseThrow(() -> new IllegalStateException("Missing generated file '" + path + "'"));
+    }
+
+    private static void require(final boolean condition, final String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * @return The least-squares slope of the logarithm of the value over the
+     *         logarithm of the size
+     */
+    private static double slope(final List<Sample> samples, final ToLongFunction<Sample> value) {
+        final double count = samples.size();
+        double x = 0, y = 0, xx = 0, xy = 0;
+
+        for (final Sample sample : samples) {
+            final double logSize = Math.log(sample.size);
+            final double logValue = Math.log(Math.max(1L, value.applyAsLong(sample)));
+            x += logSize;
+            y += logValue;
+            xx += logSize * logSize;
+            xy += logSize * logValue;
+        }
+
+        return (count * xy - x * y) / (count * xx - x * x);
+    }
+
+    private static void writeReport(final Path file, final List<Sample> samples, final double timeSlope, final double allocationSlope, final double threshold) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            final JsonWriter json = new JsonWriter(writer);
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("threshold").value(threshold);
+            json.name("time_slope").value(timeSlope);
+            if (!Double.isNaN(allocationSlope)) {
+                json.name("allocation_slope").value(allocationSlope);
+            }
+            json.name("samples").beginArray();
+            for (final Sample sample : samples) {
+                json.beginObject();
+                json.name("elements").value(sample.size);
+                json.name("nanos").value(sample.nanos);
+                json.name("allocated_bytes").value(sample.bytes);
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+    }
+
+    private static final class Sample {
+        private final int size;
+        private final long nanos;
+        private final long bytes;
+
+        private Sample(final int size, final long nanos, final long bytes) {
+            this.size = size;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Delegates to a processor, summing the time spent in and the bytes
+     * allocated by it on the calling thread, excluding the compiler itself
+     */
+    private static final class MeasuringProcessor implements Processor {
+        private final Processor delegate;
+        private final boolean allocation;
+        private long nanos;
+        private long bytes;
+
+        private MeasuringProcessor(final Processor delegate, final boolean allocation) {
+            this.delegate = delegate;
+            this.allocation = allocation;
+        }
+
+        @Override
+        public Set<String> getSupportedOptions() {
+            return this.delegate.getSupportedOptions();
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return this.delegate.getSupportedAnnotationTypes();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return this.delegate.getSupportedSourceVersion();
+        }
+
+        @Override
+        public void init(final ProcessingEnvironment environment) {
+            final long start = System.nanoTime();
+            final long allocated = this.allocated();
+            this.delegate.init(environment);
+            this.bytes += this.allocated() - allocated;
+            this.nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment environment) {
+            final long start = System.nanoTime();
+            final long allocated = this.allocated();
+            final boolean claimed = this.delegate.process(annotations, environment);
+            this.bytes += this.allocated() - allocated;
+            this.nanos += System.nanoTime() - start;
+            return claimed;
+        }
+
+        @Override
+        public Iterable<? extends Completion> getCompletions(final Element element, final AnnotationMirror annotation, final ExecutableElement member, final String userText) {
+            return this.delegate.getCompletions(element, annotation, member, userText);
+        }
+
+        private long allocated() {
+            if (!this.allocation) {
+                return 0L;
+            }
+            final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.insomniakitten.pylon.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.processor.IncrementalType;
+import net.insomniakitten.pylon.processor.JsonAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.processing.RoundEnvironment;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization through {@link JsonAnnotationProcessor}, writing a
+ * listener array of the given size within a minimal processing pass
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({ "10", "1000", "10000" })
+    public int entries;
+
+    private InMemoryCompilation compilation;
+
+    @Setup
+    public void setup() {
+        this.compilation = InMemoryCompilation.ofSyntheticMod(0);
+    }
+
+    @Benchmark
+    public long serialize() {
+        return this.compilation.process(new SerializingProcessor(this.entries));
+    }
+
+    private static final class SerializingProcessor extends JsonAnnotationProcessor {
+        private final int entries;
+
+        private SerializingProcessor(final int entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        protected String getProcessorName() {
+            return "pylon.benchmark";
+        }
+
+        @Override
+        protected void getSupportedAnnotations(final ImmutableSet.Builder<String> builder) {
+            builder.add("net.insomniakitten.pylon.annotation.rift.*");
+        }
+
+        @Override
+        protected IncrementalType getIncrementalType() {
+            return IncrementalType.AGGREGATING;
+        }
+
+        @Override
+        protected boolean onProcessAnnotations(final RoundEnvironment environment) {
+            try {
+                this.openJsonWriter("benchmark.json", json -> {
+                    json.beginObject();
+                    json.name("listeners").beginArray();
+                    for (int index = 0; index < this.entries; ++index) {
+                        json.beginObject();
+                        json.name("class").value("bench.l" + (index % 64) + ".Listener" + index);
+                        json.name("side").value("both");
+                        json.name("priority").value(index % 7);
+                        json.endObject();
+                    }
+                    json.endArray();
+                    json.endObject();
+                });
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+    }
+}
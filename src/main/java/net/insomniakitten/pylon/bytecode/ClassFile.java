@@ -0,0 +1,553 @@
+package net.insomniakitten.pylon.bytecode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A minimal reader of class files, which reads the constant pool and only
+ * the parts of a class needed to index it: its name, supertypes, nesting and
+ * runtime-visible annotations. Fields, methods and every other attribute are
+ * skipped, and strings of the constant pool are only decoded when read, so a
+ * class is read without being loaded and without decoding the bulk of it.
+ * The classes referenced by a class can also be read, for the reachability
+ * of classes within a jar
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ClassFile {
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_INTERFACE = 0x0200;
+    public static final int ACC_ABSTRACT = 0x0400;
+    public static final int ACC_ANNOTATION = 0x2000;
+
+    private final String name;
+    @Nullable
+    private final String superName;
+    private final List<String> interfaces;
+    private final int access;
+    private final int nestedAccess;
+    private final Map<String, Map<String, Object>> annotations;
+    private final Set<String> references;
+
+    private ClassFile(final String name, @Nullable final String superName, final List<String> interfaces, final int access, final int nestedAccess, final Map<String, Map<String, Object>> annotations, final Set<String> references) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.access = access;
+        this.nestedAccess = nestedAccess;
+        this.annotations = annotations;
+        this.references = references;
+    }
+
+    /**
+     * Reads the class file held by the given buffer
+     * @param buffer The content of the class file, which is left unmodified
+     * @return The class file
+     * @throws IOException If the buffer does not hold a supported class file
+     * @since 0.4.0
+     */
+    public static ClassFile read(final ByteBuffer buffer) throws IOException {
+        return ClassFile.read(buffer, false);
+    }
+
+    /**
+     * Reads the class file held by the given buffer
+     * @param buffer The content of the class file, which is left unmodified
+     * @param references Whether to read the classes referenced by the class,
+     *        which requires every class name and descriptor to be decoded
+     * @return The class file
+     * @throws IOException If the buffer does not hold a supported class file
+     * @see #getReferences()
+     * @since 0.4.0
+     */
+    public static ClassFile read(final ByteBuffer buffer, final boolean references) throws IOException {
+        try {
+            return new Reader(buffer.duplicate().order(ByteOrder.BIG_ENDIAN), references).read();
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed class file", e);
+        }
+    }
+
+    /**
+     * The binary name of the class, as loaded at runtime
+     * @since 0.4.0
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * The qualified name of the package of the class, which is empty for the
+     * unnamed package
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        final int index = this.name.lastIndexOf('.');
+        return index < 0 ? "" : this.name.substring(0, index);
+    }
+
+    /**
+     * The binary name of the superclass, or null for {@link Object} and modules
+     * @since 0.4.0
+     */
+    @Nullable
+    public String getSuperName() {
+        return this.superName;
+    }
+
+    /**
+     * The binary names of the interfaces directly implemented by the class,
+     * in order of declaration
+     * @since 0.4.0
+     */
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * The access flags of the class
+     * @since 0.4.0
+     */
+    public int getAccess() {
+        return this.access;
+    }
+
+    /**
+     * @return True if the class is an interface or annotation type
+     * @since 0.4.0
+     */
+    public boolean isInterface() {
+        return (this.access & ClassFile.ACC_INTERFACE) != 0;
+    }
+
+    /**
+     * @return True if the class is nested within another class, but was not
+     *         declared static, and so requires an enclosing instance
+     * @since 0.4.0
+     */
+    public boolean isInnerClass() {
+        return this.nestedAccess >= 0 && (this.nestedAccess & ClassFile.ACC_STATIC) == 0 && !this.isInterface();
+    }
+
+    /**
+     * The values of the runtime-visible annotations of the class, keyed by
+     * the binary name of the annotation type. Only the values present in the
+     * class file are held, and default values are never written to it
+     * @since 0.4.0
+     */
+    public Map<String, Map<String, Object>> getAnnotations() {
+        return this.annotations;
+    }
+
+    /**
+     * Retrieves the values of the given annotation. Values are held as an
+     * {@link Integer}, {@link Long}, {@link Float}, {@link Double},
+     * {@link Character}, {@link Boolean} or {@link String} for constants, as
+     * the name of the constant for enums, as the descriptor of the type for
+     * classes, as a {@link Map} for nested annotations and as a {@link List}
+     * for arrays
+     * @param annotation The binary name of the annotation type
+     * @return The values of the annotation, or null if the class is not annotated
+     * @since 0.4.0
+     */
+    @Nullable
+    public Map<String, Object> getAnnotation(final String annotation) {
+        return this.annotations.get(annotation);
+    }
+
+    /**
+     * The binary names of the classes referenced by the class, other than the
+     * class itself. These are the classes of its constant pool, the classes
+     * within the descriptors of its fields and methods and of the members it
+     * refers to, and the types of its runtime-visible annotations. Classes
+     * only named by strings, such as those passed to {@link Class#forName},
+     * are not included. Array types are reduced to their element types, and
+     * primitive types are never included
+     * @return The referenced classes, or an empty set if the class file was
+     *         read without references
+     * @since 0.4.0
+     */
+    public Set<String> getReferences() {
+        return this.references;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClassFile['%s', %d annotations]", this.name, this.annotations.size());
+    }
+
+    /**
+     * Converts an internal name, such as {@code a/b/C$D}, to a binary name
+     */
+    private static String toBinaryName(final String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    /**
+     * Converts a field descriptor of an object type to a binary name
+     */
+    private static String descriptorToBinaryName(final String descriptor) {
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || descriptor.charAt(descriptor.length() - 1) != ';') {
+            throw new IllegalArgumentException("Not an object descriptor: " + descriptor);
+        }
+        return ClassFile.toBinaryName(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    /**
+     * Adds the classes within the given field or method descriptor, or array
+     * type name, to the given set
+     */
+    private static void addDescriptorTypes(final String descriptor, final Set<String> types) {
+        for (int index = descriptor.indexOf('L'); index >= 0; index = descriptor.indexOf('L', index)) {
+            final int end = descriptor.indexOf(';', index);
+            if (end < 0) {
+                throw new IllegalArgumentException("Malformed descriptor: " + descriptor);
+            }
+            types.add(ClassFile.toBinaryName(descriptor.substring(index + 1, end)));
+            index = end + 1;
+        }
+    }
+
+    /**
+     * Reads a single class file. Offsets of the constant pool entries are
+     * recorded up front, and entries are only decoded when referenced
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        @Nullable
+        private final Set<String> references;
+        private int[] offsets = new int[0];
+        private byte[] tags = new byte[0];
+        private String[] strings = new String[0];
+
+        private Reader(final ByteBuffer buffer, final boolean references) {
+            this.buffer = buffer;
+            this.references = references ? new LinkedHashSet<>() : null;
+        }
+
+        private ClassFile read() throws IOException {
+            if (this.buffer.getInt() != Constants.MAGIC) {
+                throw new IOException("Not a class file");
+            }
+
+            this.skip(4);
+            this.readConstantPool();
+
+            final int access = this.u2();
+            final String name = ClassFile.toBinaryName(this.className(this.u2()));
+            final int superIndex = this.u2();
+            final String superName = superIndex != 0 ? ClassFile.toBinaryName(this.className(superIndex)) : null;
+            final int interfaceCount = this.u2();
+            final ImmutableList.Builder<String> interfaces = ImmutableList.builder();
+
+            for (int index = 0; index < interfaceCount; ++index) {
+                interfaces.add(ClassFile.toBinaryName(this.className(this.u2())));
+            }
+
+            this.readMembers();
+            this.readMembers();
+
+            int nestedAccess = -1;
+            Map<String, Map<String, Object>> annotations = ImmutableMap.of();
+            final int attributeCount = this.u2();
+
+            for (int index = 0; index < attributeCount; ++index) {
+                final String attribute = this.utf8(this.u2());
+                final int length = this.buffer.getInt();
+                final int end = this.buffer.position() + length;
+
+                if (Constants.RUNTIME_VISIBLE_ANNOTATIONS.equals(attribute)) {
+                    annotations = this.readAnnotations();
+                } else if (Constants.INNER_CLASSES.equals(attribute)) {
+                    nestedAccess = this.readNestedAccess(name, nestedAccess);
+                }
+
+                this.buffer.position(end);
+            }
+
+            final Set<String> references;
+
+            if (this.references != null) {
+                this.readReferences();
+                this.references.addAll(annotations.keySet());
+                this.references.remove(name);
+                references = ImmutableSet.copyOf(this.references);
+            } else {
+                references = ImmutableSet.of();
+            }
+
+            return new ClassFile(name, superName, interfaces.build(), access, nestedAccess, annotations, references);
+        }
+
+        /**
+         * Collects the classes and descriptors of the constant pool, where a
+         * class constant may name an array type by its descriptor
+         */
+        private void readReferences() throws IOException {
+            for (int index = 1; index < this.tags.length; ++index) {
+                switch (this.tags[index]) {
+                    case Constants.CLASS:
+                        final String type = this.className(index);
+                        if (type.startsWith("[")) {
+                            ClassFile.addDescriptorTypes(type, this.references);
+                        } else {
+                            this.references.add(ClassFile.toBinaryName(type));
+                        }
+                        break;
+                    case Constants.NAME_AND_TYPE:
+                        ClassFile.addDescriptorTypes(this.utf8(this.buffer.getShort(this.offsets[index] + 2) & 0xFFFF), this.references);
+                        break;
+                    case Constants.METHOD_TYPE:
+                        ClassFile.addDescriptorTypes(this.utf8(this.buffer.getShort(this.offsets[index]) & 0xFFFF), this.references);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void readConstantPool() throws IOException {
+            final int count = this.u2();
+
+            this.offsets = new int[count];
+            this.tags = new byte[count];
+            this.strings = new String[count];
+
+            for (int index = 1; index < count; ++index) {
+                final byte tag = this.buffer.get();
+                this.tags[index] = tag;
+                this.offsets[index] = this.buffer.position();
+
+                switch (tag) {
+                    case Constants.UTF8:
+                        this.skip(this.u2());
+                        break;
+                    case Constants.INTEGER:
+                    case Constants.FLOAT:
+                    case Constants.FIELD_REF:
+                    case Constants.METHOD_REF:
+                    case Constants.INTERFACE_METHOD_REF:
+                    case Constants.NAME_AND_TYPE:
+                    case Constants.DYNAMIC:
+                    case Constants.INVOKE_DYNAMIC:
+                        this.skip(4);
+                        break;
+                    case Constants.LONG:
+                    case Constants.DOUBLE:
+                        this.skip(8);
+                        ++index;
+                        break;
+                    case Constants.CLASS:
+                    case Constants.STRING:
+                    case Constants.METHOD_TYPE:
+                    case Constants.MODULE:
+                    case Constants.PACKAGE:
+                        this.skip(2);
+                        break;
+                    case Constants.METHOD_HANDLE:
+                        this.skip(3);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag + " at index " + index);
+                }
+            }
+        }
+
+        /**
+         * Skips the fields or methods of the class, only reading their
+         * descriptors if references are read
+         */
+        private void readMembers() throws IOException {
+            final int count = this.u2();
+            for (int member = 0; member < count; ++member) {
+                this.skip(4);
+                final int descriptor = this.u2();
+                if (this.references != null) {
+                    ClassFile.addDescriptorTypes(this.utf8(descriptor), this.references);
+                }
+                final int attributes = this.u2();
+                for (int attribute = 0; attribute < attributes; ++attribute) {
+                    this.skip(2);
+                    this.skip(this.buffer.getInt());
+                }
+            }
+        }
+
+        /**
+         * Finds the entry of the InnerClasses attribute describing the class
+         * itself, if it is nested within another class
+         */
+        private int readNestedAccess(final String name, final int fallback) throws IOException {
+            final int count = this.u2();
+            int nestedAccess = fallback;
+
+            for (int index = 0; index < count; ++index) {
+                final int inner = this.u2();
+                final int outer = this.u2();
+                this.u2();
+                final int access = this.u2();
+
+                if (outer != 0 && name.equals(ClassFile.toBinaryName(this.className(inner)))) {
+                    nestedAccess = access;
+                }
+            }
+
+            return nestedAccess;
+        }
+
+        private Map<String, Map<String, Object>> readAnnotations() throws IOException {
+            final int count = this.u2();
+            final ImmutableMap.Builder<String, Map<String, Object>> annotations = ImmutableMap.builder();
+
+            for (int index = 0; index < count; ++index) {
+                final String type = ClassFile.descriptorToBinaryName(this.utf8(this.u2()));
+                annotations.put(type, this.readAnnotationValues());
+            }
+
+            return annotations.build();
+        }
+
+        private Map<String, Object> readAnnotationValues() throws IOException {
+            final int count = this.u2();
+            final ImmutableMap.Builder<String, Object> values = ImmutableMap.builder();
+
+            for (int index = 0; index < count; ++index) {
+                final String name = this.utf8(this.u2());
+                values.put(name, this.readElementValue());
+            }
+
+            return values.build();
+        }
+
+        private Object readElementValue() throws IOException {
+            final char tag = (char) this.buffer.get();
+
+            switch (tag) {
+                case 'B':
+                case 'S':
+                case 'I':
+                    return this.buffer.getInt(this.offset(this.u2(), Constants.INTEGER));
+                case 'C':
+                    return (char) this.buffer.getInt(this.offset(this.u2(), Constants.INTEGER));
+                case 'Z':
+                    return this.buffer.getInt(this.offset(this.u2(), Constants.INTEGER)) != 0;
+                case 'J':
+                    return this.buffer.getLong(this.offset(this.u2(), Constants.LONG));
+                case 'F':
+                    return this.buffer.getFloat(this.offset(this.u2(), Constants.FLOAT));
+                case 'D':
+                    return this.buffer.getDouble(this.offset(this.u2(), Constants.DOUBLE));
+                case 's':
+                case 'c':
+                    return this.utf8(this.u2());
+                case 'e':
+                    this.u2();
+                    return this.utf8(this.u2());
+                case '@':
+                    this.u2();
+                    return this.readAnnotationValues();
+                case '[':
+                    final int count = this.u2();
+                    final ImmutableList.Builder<Object> values = ImmutableList.builder();
+                    for (int index = 0; index < count; ++index) {
+                        values.add(this.readElementValue());
+                    }
+                    return values.build();
+                default:
+                    throw new IOException("Unknown element value tag '" + tag + "'");
+            }
+        }
+
+        private String className(final int index) throws IOException {
+            return this.utf8(this.buffer.getShort(this.offset(index, Constants.CLASS)) & 0xFFFF);
+        }
+
+        /**
+         * Decodes the modified UTF-8 string at the given index of the pool
+         */
+        private String utf8(final int index) throws IOException {
+            final String cached = index < this.strings.length ? this.strings[index] : null;
+
+            if (cached != null) {
+                return cached;
+            }
+
+            final int offset = this.offset(index, Constants.UTF8);
+            final int length = this.buffer.getShort(offset) & 0xFFFF;
+            final char[] chars = new char[length];
+            int count = 0;
+
+            for (int position = offset + 2, end = position + length; position < end; ) {
+                final int a = this.buffer.get(position++) & 0xFF;
+                if (a < 0x80) {
+                    chars[count++] = (char) a;
+                } else if ((a & 0xE0) == 0xC0) {
+                    final int b = this.buffer.get(position++) & 0x3F;
+                    chars[count++] = (char) (((a & 0x1F) << 6) | b);
+                } else if ((a & 0xF0) == 0xE0) {
+                    final int b = this.buffer.get(position++) & 0x3F;
+                    final int c = this.buffer.get(position++) & 0x3F;
+                    chars[count++] = (char) (((a & 0x0F) << 12) | (b << 6) | c);
+                } else {
+                    throw new IOException("Malformed string at index " + index);
+                }
+            }
+
+            final String string = new String(chars, 0, count);
+            this.strings[index] = string;
+            return string;
+        }
+
+        private int offset(final int index, final byte tag) throws IOException {
+            if (index <= 0 || index >= this.tags.length || this.tags[index] != tag) {
+                throw new IOException("Invalid constant pool reference " + index);
+            }
+            return this.offsets[index];
+        }
+
+        private int u2() {
+            return this.buffer.getShort() & 0xFFFF;
+        }
+
+        private void skip(final int length) {
+            this.buffer.position(this.buffer.position() + length);
+        }
+    }
+
+    private static final class Constants {
+        private static final int MAGIC = 0xCAFEBABE;
+
+        private static final byte UTF8 = 1;
+        private static final byte INTEGER = 3;
+        private static final byte FLOAT = 4;
+        private static final byte LONG = 5;
+        private static final byte DOUBLE = 6;
+        private static final byte CLASS = 7;
+        private static final byte STRING = 8;
+        private static final byte FIELD_REF = 9;
+        private static final byte METHOD_REF = 10;
+        private static final byte INTERFACE_METHOD_REF = 11;
+        private static final byte NAME_AND_TYPE = 12;
+        private static final byte METHOD_HANDLE = 15;
+        private static final byte METHOD_TYPE = 16;
+        private static final byte DYNAMIC = 17;
+        private static final byte INVOKE_DYNAMIC = 18;
+        private static final byte MODULE = 19;
+        private static final byte PACKAGE = 20;
+
+        private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+        private static final String INNER_CLASSES = "InnerClasses";
+    }
+}
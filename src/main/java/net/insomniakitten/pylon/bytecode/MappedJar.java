@@ -0,0 +1,285 @@
+package net.insomniakitten.pylon.bytecode;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A jar read through a memory mapping of the whole file. The central
+ * directory is parsed once when the jar is opened, and entries are then read
+ * straight from the mapping, so that stored entries are never copied and
+ * entries can be read by many threads at once. Shaded jars often contain
+ * several entries of the same name, of which only the first is read, as by
+ * {@link java.util.zip.ZipFile}. Jars of more than 2 GiB, and ZIP64 or
+ * encrypted entries, are not supported
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class MappedJar implements Closeable {
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+    private final Set<String> duplicates;
+
+    private MappedJar(final Path path, final FileChannel channel, final ByteBuffer buffer, final Map<String, Entry> entries, final Set<String> duplicates) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.entries = entries;
+        this.duplicates = duplicates;
+    }
+
+    /**
+     * Maps the given jar and reads its central directory
+     * @param path The path of the jar
+     * @return The mapped jar, which must be closed
+     * @throws IOException If the jar cannot be read, or is not supported
+     * @since 0.4.0
+     */
+    public static MappedJar open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Jar exceeds 2 GiB: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            final Set<String> duplicates = new LinkedHashSet<>();
+            final Map<String, Entry> entries = MappedJar.readCentralDirectory(path, buffer, duplicates);
+            return new MappedJar(path, channel, buffer, entries, Collections.unmodifiableSet(duplicates));
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The names of every entry in the jar, in the order of its central directory
+     * @since 0.4.0
+     */
+    public Set<String> getNames() {
+        return this.entries.keySet();
+    }
+
+    /**
+     * The names of the entries that occur more than once in the central
+     * directory, of which only the first entry is read
+     * @since 0.4.0
+     */
+    public Set<String> getDuplicates() {
+        return this.duplicates;
+    }
+
+    /**
+     * @param name The name of an entry
+     * @return True if the jar contains an entry of the given name
+     * @since 0.4.0
+     */
+    public boolean contains(final String name) {
+        return this.entries.containsKey(name);
+    }
+
+    /**
+     * Reads the content of the given entry. Stored entries are returned as a
+     * view of the mapping, and deflated entries are inflated onto the heap.
+     * This method is thread-safe
+     * @param name The name of the entry
+     * @return The content of the entry, or null if the jar does not contain it
+     * @throws IOException If the entry is malformed or not supported
+     * @since 0.4.0
+     */
+    @Nullable
+    public ByteBuffer read(final String name) throws IOException {
+        final Entry entry = this.entries.get(name);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (this.buffer.getInt(entry.offset) != Constants.LOCAL_HEADER) {
+            throw new IOException("Malformed local header of '" + name + "' in " + this.path);
+        }
+
+        final int start = entry.offset + 30 + MappedJar.getUnsignedShort(this.buffer, entry.offset + 26)
+            + MappedJar.getUnsignedShort(this.buffer, entry.offset + 28);
+        final ByteBuffer data = MappedJar.slice(this.buffer, start, entry.compressedSize);
+
+        switch (entry.method) {
+            case Constants.STORED:
+                return data;
+            case Constants.DEFLATED:
+                return ByteBuffer.wrap(MappedJar.inflate(name, data, entry.size));
+            default:
+                throw new IOException("Unsupported compression method " + entry.method + " of '" + name + "' in " + this.path);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedJar['%s', %d entries]", this.path, this.entries.size());
+    }
+
+    /**
+     * Reads the entries of the central directory, keeping the first entry of
+     * each name and adding the names of later entries to the given set
+     */
+    private static Map<String, Entry> readCentralDirectory(final Path path, final ByteBuffer buffer, final Set<String> duplicates) throws IOException {
+        final int end = MappedJar.findEndOfCentralDirectory(buffer);
+
+        if (end < 0) {
+            throw new IOException("Missing end of central directory in " + path);
+        }
+
+        final int count = MappedJar.getUnsignedShort(buffer, end + 10);
+        final long offset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+
+        if (count == 0xFFFF || offset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 jars are not supported: " + path);
+        }
+
+        final Map<String, Entry> entries = new LinkedHashMap<>(count);
+        int position = (int) offset;
+
+        for (int index = 0; index < count; ++index) {
+            if (position + 46 > buffer.limit() || buffer.getInt(position) != Constants.CENTRAL_HEADER) {
+                throw new IOException("Malformed central directory in " + path);
+            }
+
+            final int flags = MappedJar.getUnsignedShort(buffer, position + 8);
+            final int method = MappedJar.getUnsignedShort(buffer, position + 10);
+            final long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+            final long size = Integer.toUnsignedLong(buffer.getInt(position + 24));
+            final int nameLength = MappedJar.getUnsignedShort(buffer, position + 28);
+            final int extraLength = MappedJar.getUnsignedShort(buffer, position + 30);
+            final int commentLength = MappedJar.getUnsignedShort(buffer, position + 32);
+            final long local = Integer.toUnsignedLong(buffer.getInt(position + 42));
+            final byte[] name = new byte[nameLength];
+
+            MappedJar.slice(buffer, position + 46, nameLength).get(name);
+            position += 46 + nameLength + extraLength + commentLength;
+
+            if ((flags & 1) != 0) {
+                throw new IOException("Encrypted entries are not supported: " + path);
+            }
+
+            if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || local == 0xFFFFFFFFL) {
+                throw new IOException("ZIP64 entries are not supported: " + path);
+            }
+
+            if (local + 30 > buffer.limit() || compressedSize > buffer.limit() || size > Integer.MAX_VALUE) {
+                throw new IOException("Malformed central directory in " + path);
+            }
+
+            final String key = new String(name, StandardCharsets.UTF_8);
+
+            if (entries.putIfAbsent(key, new Entry(method, (int) compressedSize, (int) size, (int) local)) != null) {
+                duplicates.add(key);
+            }
+        }
+
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Searches backwards for the end of central directory record, which is
+     * followed by a comment of at most 65535 bytes
+     * @return The offset of the record, or -1 if none is present
+     */
+    private static int findEndOfCentralDirectory(final ByteBuffer buffer) {
+        final int last = buffer.limit() - 22;
+        final int first = Math.max(0, last - 0xFFFF);
+
+        for (int position = last; position >= first; --position) {
+            if (buffer.getInt(position) == Constants.END_HEADER && position + 22 + MappedJar.getUnsignedShort(buffer, position + 20) == buffer.limit()) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    private static byte[] inflate(final String name, final ByteBuffer data, final int size) throws IOException {
+        final byte[] input = new byte[data.remaining()];
+        final byte[] output = new byte[size];
+        final Inflater inflater = new Inflater(true);
+
+        data.get(input);
+
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < size && !inflater.finished()) {
+                final int inflated = inflater.inflate(output, length, size - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != size) {
+                throw new IOException("Truncated entry '" + name + "'");
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Malformed entry '" + name + "'", e);
+        } finally {
+            inflater.end();
+        }
+
+        return output;
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int start, final int length) throws IOException {
+        if (start < 0 || length < 0 || start + length > buffer.limit()) {
+            throw new IOException("Entry exceeds the bounds of the jar");
+        }
+        final ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.limit(start + length);
+        return view.slice();
+    }
+
+    private static int getUnsignedShort(final ByteBuffer buffer, final int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    private static final class Entry {
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final int offset;
+
+        private Entry(final int method, final int compressedSize, final int size, final int offset) {
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.offset = offset;
+        }
+    }
+
+    private static final class Constants {
+        private static final int LOCAL_HEADER = 0x04034B50;
+        private static final int CENTRAL_HEADER = 0x02014B50;
+        private static final int END_HEADER = 0x06054B50;
+        private static final int STORED = 0;
+        private static final int DEFLATED = 8;
+    }
+}
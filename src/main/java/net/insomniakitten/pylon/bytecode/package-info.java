@@ -0,0 +1,4 @@
+@NonNullByDefault
+package net.insomniakitten.pylon.bytecode;
+
+import net.insomniakitten.pylon.util.NonNullByDefault;
@@ -0,0 +1,144 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.collect.ImmutableList;
+import net.insomniakitten.pylon.processor.model.Report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The command line interface of the {@link JarIndexer}. The descriptors of
+ * each jar are written to a directory of the output directory named after the
+ * jar, and messages are printed to standard error. The process exits with a
+ * status of 1 if any jar reported an error or could not be read, and with a
+ * status of 2 if the arguments are invalid
+ * <pre>
+ * java net.insomniakitten.pylon.indexer.IndexerCli [--output dir] [--threads n] [-Aoption[=value]...] jar...
+ * </pre>
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class IndexerCli {
+    private IndexerCli() {}
+
+    public static void main(final String[] args) {
+        System.exit(IndexerCli.run(args, System.err));
+    }
+
+    /**
+     * Runs the indexer over the jars named by the given arguments
+     * @param args The command line arguments
+     * @param out The stream to print messages to
+     * @return The exit status
+     * @since 0.4.0
+     */
+    public static int run(final String[] args, final PrintStream out) {
+        Path output = Paths.get(Constants.DEFAULT_OUTPUT);
+        int threads = Runtime.getRuntime().availableProcessors();
+        final Map<String, String> options = new LinkedHashMap<>();
+        final ImmutableList.Builder<Path> jars = ImmutableList.builder();
+
+        try {
+            for (int index = 0; index < args.length; ++index) {
+                final String arg = args[index];
+                if (Constants.OUTPUT.equals(arg)) {
+                    output = Paths.get(IndexerCli.next(args, ++index, arg));
+                } else if (Constants.THREADS.equals(arg)) {
+                    threads = Integer.parseInt(IndexerCli.next(args, ++index, arg));
+                } else if (arg.startsWith(Constants.OPTION) && arg.length() > Constants.OPTION.length()) {
+                    final int separator = arg.indexOf('=');
+                    if (separator < 0) {
+                        options.put(arg.substring(Constants.OPTION.length()), null);
+                    } else {
+                        options.put(arg.substring(Constants.OPTION.length(), separator), arg.substring(separator + 1));
+                    }
+                } else if (arg.startsWith("-")) {
+                    throw new IllegalArgumentException("Unknown argument '" + arg + "'");
+                } else {
+                    jars.add(Paths.get(arg));
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(Constants.USAGE);
+            return 2;
+        }
+
+        final List<Path> paths = jars.build();
+
+        if (paths.isEmpty() || threads < 1) {
+            out.println(Constants.USAGE);
+            return 2;
+        }
+
+        int status = 0;
+
+        try (final JarIndexer indexer = JarIndexer.create(threads, options)) {
+            for (final Path jar : paths) {
+                try {
+                    final JarIndexer.Result result = indexer.index(jar);
+                    for (final Report report : result.getReports()) {
+                        IndexerCli.print(out, jar, report);
+                    }
+                    if (result.hasErrors()) {
+                        status = 1;
+                        continue;
+                    }
+                    IndexerCli.write(output.resolve(IndexerCli.getDirectoryName(jar)), result.getFiles());
+                } catch (final IOException e) {
+                    out.println(jar + ": error: " + e.getMessage());
+                    status = 1;
+                }
+            }
+        }
+
+        return status;
+    }
+
+    private static String next(final String[] args, final int index, final String arg) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value of argument '" + arg + "'");
+        }
+        return args[index];
+    }
+
+    private static void print(final PrintStream out, final Path jar, final Report report) {
+        final String level = report.getLevel().name().toLowerCase(Locale.ROOT);
+        final String message = jar + ": " + level + ": " + report.getMessage();
+        out.println(report.getPosition() != null ? message + " (" + report.getPosition() + ")" : message);
+    }
+
+    private static void write(final Path directory, final Map<String, byte[]> files) throws IOException {
+        for (final Map.Entry<String, byte[]> file : files.entrySet()) {
+            final Path path = directory.resolve(file.getKey()).normalize();
+            if (!path.startsWith(directory.normalize())) {
+                throw new IOException("File '" + file.getKey() + "' is outside of " + directory);
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, file.getValue());
+        }
+    }
+
+    /**
+     * @return The file name of the given jar without its extension
+     */
+    private static String getDirectoryName(final Path jar) {
+        final String name = String.valueOf(jar.getFileName());
+        return name.toLowerCase(Locale.ROOT).endsWith(".jar") ? name.substring(0, name.length() - 4) : name;
+    }
+
+    private static final class Constants {
+        private static final String DEFAULT_OUTPUT = "pylon-index";
+        private static final String OUTPUT = "--output";
+        private static final String THREADS = "--threads";
+        private static final String OPTION = "-A";
+        private static final String USAGE = "Usage: IndexerCli [--output <dir>] [--threads <n>] [-A<option>[=<value>]...] <jar>...";
+    }
+}
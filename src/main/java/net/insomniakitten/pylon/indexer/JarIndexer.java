@@ -0,0 +1,590 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.annotation.rift.Listener;
+import net.insomniakitten.pylon.annotation.rift.MixinConfig;
+import net.insomniakitten.pylon.annotation.rift.Mod;
+import net.insomniakitten.pylon.bytecode.ClassFile;
+import net.insomniakitten.pylon.bytecode.MappedJar;
+import net.insomniakitten.pylon.processor.ModScopes;
+import net.insomniakitten.pylon.processor.ProcessorMetrics;
+import net.insomniakitten.pylon.processor.emit.BufferedEmitterContext;
+import net.insomniakitten.pylon.processor.emit.DescriptorEmitter;
+import net.insomniakitten.pylon.processor.model.ListenerModel;
+import net.insomniakitten.pylon.processor.model.ListenerSnapshot;
+import net.insomniakitten.pylon.processor.model.MixinModel;
+import net.insomniakitten.pylon.processor.model.MixinSnapshot;
+import net.insomniakitten.pylon.processor.model.ModModel;
+import net.insomniakitten.pylon.processor.model.ModSnapshot;
+import net.insomniakitten.pylon.processor.model.ModuleSnapshot;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.processor.model.SnapshotValidator;
+import net.insomniakitten.pylon.processor.model.SourcePosition;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Indexes prebuilt jars, writing the same descriptors as the annotation
+ * processor would have written had the jar been compiled with it. As both
+ * {@link Mod} and {@link Listener} are retained at runtime, their values are
+ * read from the class files of the jar, which is memory-mapped and scanned
+ * in parallel without loading any of its classes. The mods and listeners
+ * found are captured into a {@link ModuleSnapshot}, which is then validated
+ * and emitted exactly as the processor does
+ * <p>
+ * Unlike the processor, the indexer only sees the classes within the jar,
+ * so interfaces inherited from supertypes outside the jar are not resolved,
+ * and Rift is assumed to be present when any listener implements one of its
+ * listener interfaces
+ * @author InsomniaKitten
+ * @see IndexerCli
+ * @since 0.4.0
+ */
+public final class JarIndexer implements AutoCloseable {
+    private final Map<String, String> options;
+    private final List<DescriptorEmitter> emitters;
+    private final ProcessorMetrics metrics = new ProcessorMetrics("JarIndexer");
+    @Nullable
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism The number of threads scanning class files
+     * @param options The processor options passed to the emitters, where
+     *                options passed without a value map to null
+     * @param emitters The emitters to be run over every jar
+     * @since 0.4.0
+     */
+    public JarIndexer(final int parallelism, final Map<String, String> options, final List<DescriptorEmitter> emitters) {
+        this.options = Collections.unmodifiableMap(new HashMap<>(options));
+        this.emitters = ImmutableList.copyOf(emitters);
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Creates an indexer running every emitter available to the class loader
+     * of the indexer, as selected by the {@code pylon.emitters} option
+     * @param parallelism The number of threads scanning class files
+     * @param options The processor options passed to the emitters
+     * @return The indexer, which must be closed
+     * @since 0.4.0
+     */
+    public static JarIndexer create(final int parallelism, final Map<String, String> options) {
+        return new JarIndexer(parallelism, options, DescriptorEmitter.loadAll(JarIndexer.class.getClassLoader()));
+    }
+
+    /**
+     * Indexes the given jar. Files are only produced if no errors are reported
+     * @param jar The path of the jar to be indexed
+     * @return The messages and files produced for the jar
+     * @throws IOException If the jar or one of its class files cannot be read
+     * @since 0.4.0
+     */
+    public Result index(final Path jar) throws IOException {
+        final ImmutableList.Builder<Report> reports = ImmutableList.builder();
+        final Map<String, ClassFile> classes;
+
+        try (final MappedJar mapped = MappedJar.open(jar)) {
+            JarIndexer.reportDuplicates(mapped, reports);
+
+            final ProcessorMetrics.Timer discovery = this.metrics.time(ProcessorMetrics.DISCOVERY);
+            try {
+                classes = this.readClasses(mapped);
+            } finally {
+                discovery.stop();
+            }
+
+            final ModuleSnapshot snapshot;
+
+            final ProcessorMetrics.Timer collection = this.metrics.time(ProcessorMetrics.COLLECTION);
+            try {
+                snapshot = this.collect(mapped, classes, reports);
+            } finally {
+                collection.stop();
+            }
+
+            if (snapshot == null) {
+                return new Result(jar, reports.build(), null, ImmutableMap.of());
+            }
+
+            final ProcessorMetrics.Timer validation = this.metrics.time(ProcessorMetrics.VALIDATION);
+            try {
+                reports.addAll(SnapshotValidator.validateIds(snapshot));
+                for (final ModSnapshot mod : snapshot.getMods()) {
+                    reports.addAll(SnapshotValidator.validateMod(mod));
+                }
+            } finally {
+                validation.stop();
+            }
+
+            final Map<String, byte[]> files = reports.build().stream().anyMatch(Report::isError)
+                ? ImmutableMap.of() : this.emit(snapshot, reports);
+            return new Result(jar, reports.build(), snapshot, files);
+        }
+    }
+
+    /**
+     * The metrics of every jar indexed so far
+     * @since 0.4.0
+     */
+    public ProcessorMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads every class file of the given jar in parallel, skipping those of
+     * {@code META-INF}, such as the versioned classes of multi-release jars
+     * @return The class files, keyed by binary name in the order of the jar
+     */
+    private Map<String, ClassFile> readClasses(final MappedJar jar) throws IOException {
+        final List<String> names = jar.getNames().stream()
+            .filter(name -> name.endsWith(Constants.CLASS_SUFFIX))
+            .filter(name -> !name.startsWith(Constants.META_INF) && !name.endsWith(Constants.MODULE_INFO))
+            .collect(ImmutableList.toImmutableList());
+
+        final Function<String, ClassFile> reader = name -> {
+            try {
+                final ByteBuffer content = jar.read(name);
+                if (content == null) {
+                    throw new IOException("Missing entry '" + name + "'");
+                }
+                return ClassFile.read(content);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(new IOException("Cannot read class file '" + name + "'", e));
+            }
+        };
+
+        final List<ClassFile> classes;
+
+        try {
+            if (this.pool == null || names.size() < 2) {
+                classes = names.stream().map(reader).collect(ImmutableList.toImmutableList());
+            } else {
+                classes = this.pool.submit(() ->
+                    names.parallelStream().map(reader).collect(ImmutableList.toImmutableList())
+                ).join();
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        this.metrics.count(Constants.CLASSES_READ, classes.size());
+
+        final Map<String, ClassFile> byName = new LinkedHashMap<>();
+        for (final ClassFile type : classes) {
+            byName.putIfAbsent(type.getName(), type);
+        }
+        return byName;
+    }
+
+    /**
+     * Captures the mods and listeners of the jar, mirroring the checks made by
+     * the processor when collecting them from the sources
+     * @return The snapshot, or null if the jar declares no mods
+     */
+    @Nullable
+    private ModuleSnapshot collect(final MappedJar jar, final Map<String, ClassFile> classes, final ImmutableList.Builder<Report> reports) {
+        final List<ClassFile> mods = new ArrayList<>();
+        final List<ClassFile> listeners = new ArrayList<>();
+        final List<MixinSnapshot> mixins = new ArrayList<>();
+
+        for (final ClassFile type : classes.values()) {
+            if (type.getAnnotation(Constants.MOD) != null) {
+                if (type.isInnerClass()) {
+                    reports.add(Report.error("@Mod applied to non-static type element", JarIndexer.getPosition(type, Constants.MOD)));
+                } else {
+                    mods.add(type);
+                }
+            }
+            if (type.getAnnotation(Constants.LISTENER) != null) {
+                if (type.isInnerClass()) {
+                    reports.add(Report.error("@Listener is not top-level or static", JarIndexer.getPosition(type, Constants.LISTENER)));
+                } else {
+                    listeners.add(type);
+                }
+            }
+            if (type.getAnnotation(Constants.MIXIN_CONFIG) != null) {
+                final SourcePosition position = JarIndexer.getPosition(type, Constants.MIXIN_CONFIG);
+                if (type.isInnerClass()) {
+                    reports.add(Report.error("@MixinConfig is not top-level or static", position));
+                } else {
+                    mixins.add(new MixinSnapshot(type.getName(), JarIndexer.getSide(type, Constants.MIXIN_CONFIG, MixinConfig.class, MixinModel.SIDE), position));
+                }
+            }
+        }
+
+        if (mods.isEmpty()) {
+            final String message = "No @Mod annotation discovered in jar";
+            reports.add(listeners.isEmpty() && mixins.isEmpty() ? Report.note(message, null) : Report.warn(message, null));
+            return null;
+        }
+
+        mods.sort(Comparator.comparing(ClassFile::getPackage));
+
+        final Map<String, ClassFile> packages = new HashMap<>();
+        for (final ClassFile mod : mods) {
+            final ClassFile existing = packages.putIfAbsent(mod.getPackage(), mod);
+            if (existing != null) {
+                final String message = "@Mod declared in the same package as @Mod '" + JarIndexer.getString(existing, Constants.MOD, Mod.class, ModModel.ID) + "'";
+                reports.add(Report.error(message, JarIndexer.getPosition(mod, Constants.MOD)));
+            }
+        }
+
+        if (listeners.isEmpty()) {
+            reports.add(Report.note("No @Listener annotations discovered in jar", null));
+        }
+
+        final Map<String, Set<String>> cache = new HashMap<>();
+        final Map<ClassFile, Set<String>> interfaces = new HashMap<>();
+        boolean riftPresent = false;
+
+        for (final ClassFile listener : listeners) {
+            final Set<String> resolved = JarIndexer.getInterfaces(listener.getName(), classes, cache);
+            interfaces.put(listener, resolved);
+            riftPresent |= resolved.stream().anyMatch(JarIndexer::isRiftInterface);
+        }
+
+        final ImmutableList.Builder<ListenerSnapshot> snapshots = ImmutableList.builder();
+
+        for (final ClassFile listener : listeners) {
+            final Set<String> resolved = interfaces.get(listener);
+            final boolean rift = riftPresent;
+            final List<String> listenerInterfaces = resolved.stream()
+                .filter(type -> !rift || JarIndexer.isRiftInterface(type))
+                .collect(ImmutableList.toImmutableList());
+
+            if (resolved.isEmpty()) {
+                reports.add(Report.warn("@Listener does not implement any interfaces", JarIndexer.getPosition(listener, Constants.LISTENER)));
+            } else if (listenerInterfaces.isEmpty()) {
+                reports.add(Report.warn("@Listener does not implement any Rift listener interfaces", JarIndexer.getPosition(listener, Constants.LISTENER)));
+            }
+
+            snapshots.add(new ListenerSnapshot(
+                listener.getName(),
+                JarIndexer.getInt(listener, Constants.LISTENER, Listener.class, ListenerModel.PRIORITY),
+                JarIndexer.getSide(listener, Constants.LISTENER, Listener.class, ListenerModel.SIDE),
+                listenerInterfaces,
+                JarIndexer.getPosition(listener, Constants.LISTENER)
+            ));
+        }
+
+        final List<ListenerSnapshot> sorted = snapshots.build().stream().sorted(ListenerSnapshot.ORDER).collect(ImmutableList.toImmutableList());
+        final Map<ClassFile, List<ListenerSnapshot>> scopes = ModScopes.assign(mods, ClassFile::getPackage, sorted, listener -> {
+            final int index = listener.getBinaryName().lastIndexOf('.');
+            return index < 0 ? "" : listener.getBinaryName().substring(0, index);
+        }, listener -> reports.add(Report.warn("@Listener is not within the package of any @Mod", listener.getPosition())));
+
+        mixins.sort(MixinSnapshot.ORDER);
+
+        final Map<ClassFile, List<MixinSnapshot>> mixinScopes = ModScopes.assign(mods, ClassFile::getPackage, mixins, MixinSnapshot::getPackage, mixin ->
+            reports.add(Report.warn("@MixinConfig is not within the package of any @Mod", mixin.getPosition()))
+        );
+
+        final ImmutableList.Builder<ModSnapshot> modSnapshots = ImmutableList.builder();
+
+        for (final Entry<ClassFile, List<ListenerSnapshot>> scope : scopes.entrySet()) {
+            final ClassFile mod = scope.getKey();
+            final String pkg = mod.getPackage();
+            final String bootstrap = pkg.isEmpty() ? Constants.BOOTSTRAP_CLASS : pkg + "." + Constants.BOOTSTRAP_CLASS;
+            final boolean bootstrapped = jar.contains(bootstrap.replace('.', '/') + Constants.CLASS_SUFFIX);
+
+            modSnapshots.add(new ModSnapshot(
+                JarIndexer.getString(mod, Constants.MOD, Mod.class, ModModel.ID),
+                JarIndexer.getString(mod, Constants.MOD, Mod.class, ModModel.NAME),
+                JarIndexer.getString(mod, Constants.MOD, Mod.class, ModModel.VERSION),
+                JarIndexer.getSide(mod, Constants.MOD, Mod.class, ModModel.SIDE),
+                JarIndexer.getStrings(mod, Constants.MOD, Mod.class, ModModel.AUTHORS),
+                JarIndexer.getStrings(mod, Constants.MOD, Mod.class, ModModel.DEPENDENCIES),
+                JarIndexer.getStrings(mod, Constants.MOD, Mod.class, ModModel.LOAD_AFTER),
+                JarIndexer.getStrings(mod, Constants.MOD, Mod.class, ModModel.LOAD_BEFORE),
+                pkg,
+                scope.getValue(),
+                mixinScopes.get(mod),
+                bootstrapped && !scope.getValue().isEmpty() ? bootstrap : null,
+                JarIndexer.getPosition(mod, Constants.MOD)
+            ));
+        }
+
+        return new ModuleSnapshot(modSnapshots.build());
+    }
+
+    /**
+     * Runs the selected emitters over the given snapshot, in the same way
+     * as the processor, and collects the files they write
+     */
+    private Map<String, byte[]> emit(final ModuleSnapshot snapshot, final ImmutableList.Builder<Report> reports) throws IOException {
+        final Map<String, byte[]> files = new LinkedHashMap<>();
+        final Map<String, String> owners = new HashMap<>();
+
+        for (final DescriptorEmitter emitter : this.getEmitters(reports)) {
+            final BufferedEmitterContext context = new BufferedEmitterContext(this.options, this.metrics);
+            emitter.emit(snapshot, context);
+            for (final Entry<String, byte[]> file : context.getFiles().entrySet()) {
+                final String owner = owners.putIfAbsent(file.getKey(), emitter.getName());
+                if (owner != null) {
+                    reports.add(Report.error("Emitter '" + emitter.getName() + "' wrote '" + file.getKey() + "', already written by emitter '" + owner + "'", null));
+                    continue;
+                }
+                files.put(file.getKey(), file.getValue());
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * The emitters to be run, being those named by the {@code pylon.emitters}
+     * option, or every emitter if the option is not passed
+     */
+    private List<DescriptorEmitter> getEmitters(final ImmutableList.Builder<Report> reports) {
+        final String option = this.options.get(Constants.EMITTERS_OPTION);
+
+        if (option == null) {
+            return this.emitters;
+        }
+
+        final Set<String> names = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(option));
+
+        for (final String name : names) {
+            if (this.emitters.stream().noneMatch(emitter -> emitter.getName().equals(name))) {
+                reports.add(Report.warn("Unknown emitter '" + name + "' in option " + Constants.EMITTERS_OPTION, null));
+            }
+        }
+
+        return this.emitters.stream().filter(emitter -> names.contains(emitter.getName())).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Resolves the interfaces of the given type through its supertypes within
+     * the jar, in the same order as the processor resolves them
+     */
+    private static Set<String> getInterfaces(final String name, final Map<String, ClassFile> classes, final Map<String, Set<String>> cache) {
+        final Set<String> cached = cache.get(name);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final ClassFile type = classes.get(name);
+
+        if (type == null) {
+            return ImmutableSet.of();
+        }
+
+        cache.put(name, ImmutableSet.of());
+
+        final Set<String> direct = new LinkedHashSet<>(type.getInterfaces());
+        final Set<String> inherited = new LinkedHashSet<>();
+
+        if (type.getSuperName() != null) {
+            inherited.addAll(JarIndexer.getInterfaces(type.getSuperName(), classes, cache));
+        }
+
+        for (final String supertype : type.getInterfaces()) {
+            inherited.addAll(JarIndexer.getInterfaces(supertype, classes, cache));
+        }
+
+        final Set<String> resolved = ImmutableSet.<String>builder().addAll(direct).addAll(inherited).build();
+        cache.put(name, resolved);
+        return resolved;
+    }
+
+    private static boolean isRiftInterface(final String type) {
+        final int index = type.lastIndexOf('.');
+        return index >= 0 && ModScopes.isWithin(type.substring(0, index), Constants.RIFT_LISTENER_PACKAGE);
+    }
+
+    /**
+     * Warns of the entries of the given jar that occur more than once, of
+     * which only the first is read
+     * @param jar The jar to be checked
+     * @param reports The builder to add the warning to
+     */
+    static void reportDuplicates(final MappedJar jar, final ImmutableList.Builder<Report> reports) {
+        final Set<String> duplicates = jar.getDuplicates();
+        if (!duplicates.isEmpty()) {
+            reports.add(Report.warn(duplicates.size() + " duplicate entries in jar, such as '"
+                + duplicates.iterator().next() + "', reading only the first of each", null));
+        }
+    }
+
+    private static boolean isPackageInfo(final ClassFile type) {
+        return type.getName().equals(Constants.PACKAGE_INFO) || type.getName().endsWith("." + Constants.PACKAGE_INFO);
+    }
+
+    private static SourcePosition getPosition(final ClassFile type, final String annotation) {
+        if (JarIndexer.isPackageInfo(type)) {
+            return SourcePosition.forPackage(type.getPackage(), annotation);
+        }
+        return SourcePosition.forType(type.getName(), annotation);
+    }
+
+    /**
+     * Retrieves the given value of an annotation, falling back to the default
+     * declared by the annotation type, as defaults are never written to the
+     * class file
+     * @return The value, or null if the member is required but absent
+     */
+    @Nullable
+    private static Object getValue(final ClassFile type, final String annotation, final Class<? extends Annotation> annotationType, final String member) {
+        final Map<String, Object> values = type.getAnnotation(annotation);
+        final Object value = values != null ? values.get(member) : null;
+
+        if (value != null) {
+            return value;
+        }
+
+        final Object fallback;
+        try {
+            fallback = annotationType.getMethod(member).getDefaultValue();
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException("Unknown member '" + member + "' of " + annotationType, e);
+        }
+
+        if (fallback instanceof Enum) {
+            return ((Enum<?>) fallback).name();
+        }
+
+        if (fallback instanceof String[]) {
+            return ImmutableList.copyOf((String[]) fallback);
+        }
+
+        return fallback;
+    }
+
+    private static String getString(final ClassFile type, final String annotation, final Class<? extends Annotation> annotationType, final String member) {
+        final Object value = JarIndexer.getValue(type, annotation, annotationType, member);
+        return value instanceof String ? (String) value : "";
+    }
+
+    private static int getInt(final ClassFile type, final String annotation, final Class<? extends Annotation> annotationType, final String member) {
+        final Object value = JarIndexer.getValue(type, annotation, annotationType, member);
+        return value instanceof Integer ? (Integer) value : 0;
+    }
+
+    private static Side getSide(final ClassFile type, final String annotation, final Class<? extends Annotation> annotationType, final String member) {
+        final Object value = JarIndexer.getValue(type, annotation, annotationType, member);
+        try {
+            return value instanceof String ? Side.valueOf((String) value) : Side.EITHER;
+        } catch (final IllegalArgumentException e) {
+            return Side.EITHER;
+        }
+    }
+
+    private static List<String> getStrings(final ClassFile type, final String annotation, final Class<? extends Annotation> annotationType, final String member) {
+        final Object value = JarIndexer.getValue(type, annotation, annotationType, member);
+        if (!(value instanceof Collection)) {
+            return ImmutableList.of();
+        }
+        return ((Collection<?>) value).stream().map(String::valueOf).collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JarIndexer[%d emitters]", this.emitters.size());
+    }
+
+    /**
+     * The outcome of indexing a single jar
+     * @since 0.4.0
+     */
+    public static final class Result {
+        private final Path jar;
+        private final List<Report> reports;
+        @Nullable
+        private final ModuleSnapshot snapshot;
+        private final Map<String, byte[]> files;
+
+        private Result(final Path jar, final List<Report> reports, @Nullable final ModuleSnapshot snapshot, final Map<String, byte[]> files) {
+            this.jar = jar;
+            this.reports = reports;
+            this.snapshot = snapshot;
+            this.files = ImmutableMap.copyOf(files);
+        }
+
+        public Path getJar() {
+            return this.jar;
+        }
+
+        /**
+         * The messages concerning the jar, in the order they were reported
+         * @since 0.4.0
+         */
+        public List<Report> getReports() {
+            return this.reports;
+        }
+
+        /**
+         * The snapshot of the mods of the jar, or null if it declares none
+         * @since 0.4.0
+         */
+        @Nullable
+        public ModuleSnapshot getSnapshot() {
+            return this.snapshot;
+        }
+
+        /**
+         * The files written by the emitters, keyed by path, which is empty if
+         * any errors were reported
+         * @since 0.4.0
+         */
+        public Map<String, byte[]> getFiles() {
+            return this.files;
+        }
+
+        /**
+         * @return True if any errors were reported for the jar
+         * @since 0.4.0
+         */
+        public boolean hasErrors() {
+            return this.reports.stream().anyMatch(Report::isError);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result['%s', %d reports, %d files]", this.jar, this.reports.size(), this.files.size());
+        }
+    }
+
+    private static final class Constants {
+        private static final String MOD = Mod.class.getName();
+        private static final String LISTENER = Listener.class.getName();
+        private static final String MIXIN_CONFIG = MixinConfig.class.getName();
+        private static final String CLASS_SUFFIX = ".class";
+        private static final String META_INF = "META-INF/";
+        private static final String MODULE_INFO = "module-info.class";
+        private static final String PACKAGE_INFO = "package-info";
+        private static final String BOOTSTRAP_CLASS = "PylonListenerBootstrap";
+        private static final String EMITTERS_OPTION = "pylon.emitters";
+        private static final String RIFT_LISTENER_PACKAGE = "org.dimdev.rift.listener";
+        private static final String CLASSES_READ = "classes.read";
+    }
+}
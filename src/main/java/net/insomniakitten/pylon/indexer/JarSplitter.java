@@ -0,0 +1,436 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.stream.JsonReader;
+import net.insomniakitten.pylon.annotation.rift.Mod;
+import net.insomniakitten.pylon.bytecode.ClassFile;
+import net.insomniakitten.pylon.bytecode.MappedJar;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.DescriptorReader;
+import net.insomniakitten.pylon.runtime.ListenerDescriptor;
+import net.insomniakitten.pylon.runtime.ModDescriptor;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Splits a jar built with Pylon into a client jar and a server jar, each of
+ * which leaves out the classes that are never loaded on its physical side. The
+ * listeners and mixins declared by the descriptors of the jar are left out of
+ * every side they are not equivalent to, or whose Mod is not equivalent to it,
+ * along with every class of the jar only reachable through them. A class is
+ * reachable through the classes it references by its constant pool, the
+ * descriptors of its members and its annotations, starting from every other
+ * class of the jar, so classes used by both sides are always kept
+ * <p>
+ * Classes only referenced by name, such as those loaded through
+ * {@link Class#forName(String)}, are not followed, and are left out if they
+ * are otherwise only reachable through a class left out of the side. Every
+ * resource other than a class left out is copied unchanged, including the
+ * descriptors, which already name the side of each listener and mixin
+ * @author InsomniaKitten
+ * @see JarSplitterCli
+ * @since 0.4.0
+ */
+public final class JarSplitter {
+    private static final Side[] SIDES = { Side.CLIENT, Side.SERVER };
+
+    private JarSplitter() {}
+
+    /**
+     * Determines the classes of the given jar to be left out of each side
+     * @param jar The path of the jar to be split
+     * @return The classes to be left out of each side, and any messages
+     * @throws IOException If the jar, its class files or its descriptors cannot
+     *         be read
+     * @since 0.4.0
+     */
+    public static Result split(final Path jar) throws IOException {
+        final ImmutableList.Builder<Report> reports = ImmutableList.builder();
+        final List<ModDescriptor> mods = DescriptorReader.readJarAll(jar);
+
+        if (mods.isEmpty()) {
+            reports.add(Report.error("No Pylon descriptor discovered in jar", null));
+            return new Result(jar, reports.build(), ImmutableMap.of());
+        }
+
+        final Map<String, ClassFile> classes = new LinkedHashMap<>();
+        final Map<String, Side> restricted = new HashMap<>();
+        final Set<String> roots = new HashSet<>();
+
+        try (final MappedJar mapped = MappedJar.open(jar)) {
+            JarIndexer.reportDuplicates(mapped, reports);
+
+            for (final String name : mapped.getNames()) {
+                if (!name.endsWith(Constants.CLASS_SUFFIX) || name.startsWith(Constants.META_INF) || name.endsWith(Constants.MODULE_INFO)) {
+                    continue;
+                }
+                final ByteBuffer content = mapped.read(name);
+                if (content == null) {
+                    throw new IOException("Missing entry '" + name + "'");
+                }
+                try {
+                    final ClassFile type = ClassFile.read(content, true);
+                    classes.putIfAbsent(type.getName(), type);
+                } catch (final IOException e) {
+                    throw new IOException("Cannot read class file '" + name + "'", e);
+                }
+            }
+
+            for (final ModDescriptor mod : mods) {
+                for (final ListenerDescriptor listener : mod.getListeners()) {
+                    JarSplitter.restrict(restricted, listener.getClassName(), mod.getSide(), listener.getSide());
+                }
+                for (final String config : mod.getMixins()) {
+                    JarSplitter.readMixins(mapped, config, mod.getSide(), restricted);
+                }
+                if (mod.getBootstrap() != null) {
+                    roots.add(mod.getBootstrap());
+                }
+            }
+        }
+
+        for (final ClassFile type : classes.values()) {
+            if (type.getAnnotation(Constants.MOD) != null) {
+                roots.add(type.getName());
+            }
+        }
+
+        final Map<Side, Set<String>> removed = new HashMap<>();
+
+        for (final Side side : JarSplitter.SIDES) {
+            final Set<String> dropped = new HashSet<>();
+            for (final Map.Entry<String, Side> entry : restricted.entrySet()) {
+                if (!entry.getValue().isEquivalentTo(side) && classes.containsKey(entry.getKey())) {
+                    dropped.add(entry.getKey());
+                }
+            }
+
+            final Set<String> through = JarSplitter.reach(dropped, classes, new HashSet<>());
+            final Set<String> start = new HashSet<>();
+            for (final String name : classes.keySet()) {
+                if (!through.contains(name) || (roots.contains(name) && !dropped.contains(name))) {
+                    start.add(name);
+                }
+            }
+            for (final String name : restricted.keySet()) {
+                if (!dropped.contains(name) && classes.containsKey(name)) {
+                    start.add(name);
+                }
+            }
+
+            final Set<String> kept = JarSplitter.reach(start, classes, dropped);
+            final Set<String> sideRemoved = new TreeSet<>(classes.keySet());
+            sideRemoved.removeAll(kept);
+            removed.put(side, ImmutableSet.copyOf(sideRemoved));
+
+            JarSplitter.reportDangling(side, kept, dropped, classes, mods, reports);
+        }
+
+        return new Result(jar, reports.build(), removed);
+    }
+
+    /**
+     * Records the side a class is restricted to, being the side of its Mod if
+     * the Mod is restricted to a side, and its own side otherwise. A class
+     * declared by several Mods is only restricted if every declaration agrees
+     */
+    private static void restrict(final Map<String, Side> restricted, final String name, final Side modSide, final Side side) {
+        final Side effective = modSide.isAmbiguous() ? side : modSide;
+        final Side existing = restricted.putIfAbsent(name, effective);
+
+        if (existing != null && existing != effective) {
+            restricted.put(name, Side.EITHER);
+        }
+    }
+
+    /**
+     * Reads the mixins of the given mixin config, being those of its client
+     * and server lists, and those of its common list if the Mod is restricted
+     * to a side
+     */
+    private static void readMixins(final MappedJar jar, final String config, final Side modSide, final Map<String, Side> restricted) throws IOException {
+        final ByteBuffer content = jar.read(config);
+
+        if (content == null) {
+            throw new IOException("Missing mixin config '" + config + "'");
+        }
+
+        final byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+
+        String pkg = "";
+        final Map<String, Side> mixins = new LinkedHashMap<>();
+
+        try (final JsonReader json = new JsonReader(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                final String name = json.nextName();
+                final Side side = Constants.MIXINS.equals(name) ? Side.EITHER
+                    : Side.CLIENT.getName().equals(name) ? Side.CLIENT
+                    : Side.SERVER.getName().equals(name) ? Side.SERVER : null;
+                if (Constants.PACKAGE.equals(name)) {
+                    pkg = json.nextString();
+                } else if (side != null) {
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        mixins.put(json.nextString(), side);
+                    }
+                    json.endArray();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+        } catch (final IllegalStateException e) {
+            throw new IOException("Malformed mixin config '" + config + "'", e);
+        }
+
+        for (final Map.Entry<String, Side> mixin : mixins.entrySet()) {
+            final String name = pkg.isEmpty() ? mixin.getKey() : pkg + "." + mixin.getKey();
+            JarSplitter.restrict(restricted, name, modSide, mixin.getValue());
+        }
+    }
+
+    /**
+     * Finds every class of the jar reachable from the given classes, without
+     * passing through any of the excluded classes
+     */
+    private static Set<String> reach(final Set<String> start, final Map<String, ClassFile> classes, final Set<String> excluded) {
+        final Set<String> reached = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+
+        for (final String name : start) {
+            if (!excluded.contains(name) && reached.add(name)) {
+                queue.add(name);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final ClassFile type = classes.get(queue.poll());
+            for (final String reference : type.getReferences()) {
+                if (classes.containsKey(reference) && !excluded.contains(reference) && reached.add(reference)) {
+                    queue.add(reference);
+                }
+            }
+        }
+
+        return reached;
+    }
+
+    /**
+     * Warns of kept classes referencing a class left out of the side, which
+     * will fail if such a reference is resolved on that side. The generated
+     * bootstraps guard every listener by its side, and are not reported
+     */
+    private static void reportDangling(final Side side, final Set<String> kept, final Set<String> dropped, final Map<String, ClassFile> classes, final List<ModDescriptor> mods, final ImmutableList.Builder<Report> reports) {
+        final Set<String> bootstraps = new HashSet<>();
+        for (final ModDescriptor mod : mods) {
+            if (mod.getBootstrap() != null) {
+                bootstraps.add(mod.getBootstrap());
+            }
+        }
+
+        for (final String name : new TreeSet<>(kept)) {
+            final int nested = name.indexOf('$');
+            if (bootstraps.contains(nested < 0 ? name : name.substring(0, nested))) {
+                continue;
+            }
+            for (final String reference : classes.get(name).getReferences()) {
+                if (dropped.contains(reference) && !reference.startsWith(name + "$") && !name.startsWith(reference + "$")) {
+                    reports.add(Report.warn("Class '" + name + "' of the " + side.getName() + " jar references '" + reference + "', which is left out of it", null));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The binary name of the class held by the given entry, including
+     *         the versioned classes of multi-release jars, or null if the entry
+     *         is not a class file
+     */
+    @Nullable
+    private static String getClassName(final String entry) {
+        if (!entry.endsWith(Constants.CLASS_SUFFIX)) {
+            return null;
+        }
+
+        String path = entry.substring(0, entry.length() - Constants.CLASS_SUFFIX.length());
+
+        if (path.startsWith(Constants.VERSIONS)) {
+            final int separator = path.indexOf('/', Constants.VERSIONS.length());
+            if (separator < 0) {
+                return null;
+            }
+            path = path.substring(separator + 1);
+        } else if (path.startsWith(Constants.META_INF)) {
+            return null;
+        }
+
+        return path.replace('/', '.');
+    }
+
+    @Override
+    public String toString() {
+        return "JarSplitter";
+    }
+
+    /**
+     * The classes of a jar to be left out of each physical side
+     * @since 0.4.0
+     */
+    public static final class Result {
+        private final Path jar;
+        private final List<Report> reports;
+        private final Map<Side, Set<String>> removed;
+
+        private Result(final Path jar, final List<Report> reports, final Map<Side, Set<String>> removed) {
+            this.jar = jar;
+            this.reports = reports;
+            this.removed = ImmutableMap.copyOf(removed);
+        }
+
+        public Path getJar() {
+            return this.jar;
+        }
+
+        /**
+         * The messages concerning the jar, in the order they were reported
+         * @since 0.4.0
+         */
+        public List<Report> getReports() {
+            return this.reports;
+        }
+
+        /**
+         * The binary names of the classes to be left out of the given side
+         * @param side The physical side
+         * @return The classes, in order of name, or an empty set if the jar
+         *         could not be split
+         * @since 0.4.0
+         */
+        public Set<String> getRemoved(final Side side) {
+            return this.removed.getOrDefault(side, ImmutableSet.of());
+        }
+
+        /**
+         * @return True if any errors were reported for the jar
+         * @since 0.4.0
+         */
+        public boolean hasErrors() {
+            return this.reports.stream().anyMatch(Report::isError);
+        }
+
+        /**
+         * Writes the jar of the given side, copying every entry of the jar
+         * other than the classes left out of the side. Entries keep their
+         * order, modification times and compression methods
+         * @param side The physical side to write the jar of
+         * @param output The path of the jar to write, which is replaced
+         * @throws IOException If the jar cannot be read or written
+         * @throws IllegalStateException If errors were reported for the jar
+         * @since 0.4.0
+         */
+        public void write(final Side side, final Path output) throws IOException {
+            if (this.hasErrors()) {
+                throw new IllegalStateException("Cannot split a jar with errors");
+            }
+
+            final Set<String> removed = this.getRemoved(side);
+            final Path parent = output.toAbsolutePath().getParent();
+
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            final Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+
+            try (final ZipFile zip = new ZipFile(this.jar.toFile());
+                 final ZipOutputStream stream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                final byte[] buffer = new byte[8192];
+                final Set<String> written = new HashSet<>();
+                for (final Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                    final ZipEntry entry = entries.nextElement();
+                    final String name = JarSplitter.getClassName(entry.getName());
+                    // Only the first of duplicate entries is copied, as a zip cannot be written with duplicates
+                    if ((name != null && removed.contains(name)) || !written.add(entry.getName())) {
+                        continue;
+                    }
+                    stream.putNextEntry(Result.copyEntry(entry));
+                    try (final InputStream input = zip.getInputStream(entry)) {
+                        Result.transfer(input, stream, buffer);
+                    }
+                    stream.closeEntry();
+                }
+            }
+
+            Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        /**
+         * Copies the metadata of the given entry, leaving the compressed size
+         * to be computed for deflated entries
+         */
+        private static ZipEntry copyEntry(final ZipEntry entry) {
+            final ZipEntry copy = new ZipEntry(entry.getName());
+            copy.setTime(entry.getTime());
+            copy.setComment(entry.getComment());
+            if (entry.getMethod() == ZipEntry.STORED) {
+                copy.setMethod(ZipEntry.STORED);
+                copy.setSize(entry.getSize());
+                copy.setCompressedSize(entry.getSize());
+                copy.setCrc(entry.getCrc());
+            }
+            return copy;
+        }
+
+        private static void transfer(final InputStream input, final OutputStream output, final byte[] buffer) throws IOException {
+            for (int read; (read = input.read(buffer)) != -1; ) {
+                output.write(buffer, 0, read);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result['%s', %d client classes removed, %d server classes removed]", this.jar,
+                this.getRemoved(Side.CLIENT).size(), this.getRemoved(Side.SERVER).size());
+        }
+    }
+
+    private static final class Constants {
+        private static final String MOD = Mod.class.getName();
+        private static final String CLASS_SUFFIX = ".class";
+        private static final String META_INF = "META-INF/";
+        private static final String VERSIONS = "META-INF/versions/";
+        private static final String MODULE_INFO = "module-info.class";
+        private static final String MIXINS = "mixins";
+        private static final String PACKAGE = "package";
+    }
+}
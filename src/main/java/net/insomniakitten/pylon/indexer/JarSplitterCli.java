@@ -0,0 +1,105 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.collect.ImmutableList;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.ref.Side;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The command line interface of the {@link JarSplitter}. The client and server
+ * jars of each jar are written to the output directory, named after the jar
+ * with a suffix of their side, and the number of classes left out of each is
+ * printed to standard error along with any messages. The process exits with a
+ * status of 1 if any jar reported an error or could not be read, and with a
+ * status of 2 if the arguments are invalid
+ * <pre>
+ * java net.insomniakitten.pylon.indexer.JarSplitterCli [--output dir] jar...
+ * </pre>
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class JarSplitterCli {
+    private JarSplitterCli() {}
+
+    public static void main(final String[] args) {
+        System.exit(JarSplitterCli.run(args, System.err));
+    }
+
+    /**
+     * Splits the jars named by the given arguments
+     * @param args The command line arguments
+     * @param out The stream to print messages to
+     * @return The exit status
+     * @since 0.4.0
+     */
+    public static int run(final String[] args, final PrintStream out) {
+        Path output = Paths.get(Constants.DEFAULT_OUTPUT);
+        final ImmutableList.Builder<Path> jars = ImmutableList.builder();
+
+        for (int index = 0; index < args.length; ++index) {
+            final String arg = args[index];
+            if (Constants.OUTPUT.equals(arg) && index + 1 < args.length) {
+                output = Paths.get(args[++index]);
+            } else if (!arg.startsWith("-")) {
+                jars.add(Paths.get(arg));
+            } else {
+                out.println(Constants.USAGE);
+                return 2;
+            }
+        }
+
+        final List<Path> paths = jars.build();
+
+        if (paths.isEmpty()) {
+            out.println(Constants.USAGE);
+            return 2;
+        }
+
+        int status = 0;
+
+        for (final Path jar : paths) {
+            try {
+                final JarSplitter.Result result = JarSplitter.split(jar);
+                for (final Report report : result.getReports()) {
+                    out.println(jar + ": " + report.getLevel().name().toLowerCase(Locale.ROOT) + ": " + report.getMessage());
+                }
+                if (result.hasErrors()) {
+                    status = 1;
+                    continue;
+                }
+                final String name = JarSplitterCli.getBaseName(jar);
+                for (final Side side : Constants.SIDES) {
+                    result.write(side, output.resolve(name + "-" + side.getName() + Constants.JAR_SUFFIX));
+                    out.println(jar + ": " + result.getRemoved(side).size() + " classes left out of the " + side.getName() + " jar");
+                }
+            } catch (final IOException e) {
+                out.println(jar + ": error: " + e.getMessage());
+                status = 1;
+            }
+        }
+
+        return status;
+    }
+
+    /**
+     * @return The file name of the given jar without its extension
+     */
+    private static String getBaseName(final Path jar) {
+        final String name = String.valueOf(jar.getFileName());
+        return name.toLowerCase(Locale.ROOT).endsWith(Constants.JAR_SUFFIX) ? name.substring(0, name.length() - 4) : name;
+    }
+
+    private static final class Constants {
+        private static final String DEFAULT_OUTPUT = "pylon-split";
+        private static final String OUTPUT = "--output";
+        private static final String JAR_SUFFIX = ".jar";
+        private static final String USAGE = "Usage: JarSplitterCli [--output <dir>] <jar>...";
+        private static final Side[] SIDES = { Side.CLIENT, Side.SERVER };
+    }
+}
@@ -0,0 +1,87 @@
+package net.insomniakitten.pylon.indexer;
+
+import net.insomniakitten.pylon.runtime.LoadOrder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The command line interface of {@link LoadOrder}, which computes the load
+ * order of the Mods in a mods directory from the dependencies declared in
+ * their descriptors, and saves it for the loader to reuse until any jar of
+ * the directory changes. The order is printed to the given stream one Mod per
+ * line, and errors such as missing dependencies and cycles are printed in its
+ * place. The process exits with a status of 1 if the order has errors or the
+ * directory cannot be read, and with a status of 2 if the arguments are invalid
+ * <pre>
+ * java net.insomniakitten.pylon.indexer.LoadOrderCli [--output file] directory
+ * </pre>
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class LoadOrderCli {
+    private LoadOrderCli() {}
+
+    public static void main(final String[] args) {
+        System.exit(LoadOrderCli.run(args, System.err));
+    }
+
+    /**
+     * Computes the load order of the mods directory named by the given arguments
+     * @param args The command line arguments
+     * @param out The stream to print the order and messages to
+     * @return The exit status
+     * @since 0.4.0
+     */
+    public static int run(final String[] args, final PrintStream out) {
+        Path output = null;
+        Path directory = null;
+
+        for (int index = 0; index < args.length; ++index) {
+            final String arg = args[index];
+            if (Constants.OUTPUT.equals(arg) && index + 1 < args.length) {
+                output = Paths.get(args[++index]);
+            } else if (!arg.startsWith("-") && directory == null) {
+                directory = Paths.get(arg);
+            } else {
+                out.println(Constants.USAGE);
+                return 2;
+            }
+        }
+
+        if (directory == null) {
+            out.println(Constants.USAGE);
+            return 2;
+        }
+
+        final LoadOrder order;
+
+        try {
+            order = LoadOrder.load(directory, output != null ? output : directory.resolve(Constants.DEFAULT_OUTPUT));
+        } catch (final IOException e) {
+            out.println(directory + ": error: " + e.getMessage());
+            return 1;
+        }
+
+        if (order.hasErrors()) {
+            for (final String error : order.getErrors()) {
+                out.println(directory + ": error: " + error);
+            }
+            return 1;
+        }
+
+        for (final String id : order.getOrder()) {
+            out.println(id);
+        }
+
+        return 0;
+    }
+
+    private static final class Constants {
+        private static final String DEFAULT_OUTPUT = "pylon-load-order.json";
+        private static final String OUTPUT = "--output";
+        private static final String USAGE = "Usage: LoadOrderCli [--output <file>] <directory>";
+    }
+}
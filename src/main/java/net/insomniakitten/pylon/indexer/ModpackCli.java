@@ -0,0 +1,89 @@
+package net.insomniakitten.pylon.indexer;
+
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.ModpackIndex;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The command line interface of {@link ModpackIndex}, which links the
+ * descriptors of every jar in a mods directory into a single index, holding
+ * the Mods in load order and their listeners merged per physical side, for the
+ * loader to read in place of the jars until any jar of the directory changes.
+ * The number of Mods and listeners of each side is printed to the given stream,
+ * and errors such as missing dependencies and cycles are printed in its place.
+ * The process exits with a status of 1 if the index has errors or the directory
+ * cannot be read, and with a status of 2 if the arguments are invalid
+ * <pre>
+ * java net.insomniakitten.pylon.indexer.ModpackCli [--output file] directory
+ * </pre>
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ModpackCli {
+    private ModpackCli() {}
+
+    public static void main(final String[] args) {
+        System.exit(ModpackCli.run(args, System.err));
+    }
+
+    /**
+     * Links the index of the mods directory named by the given arguments
+     * @param args The command line arguments
+     * @param out The stream to print the summary and messages to
+     * @return The exit status
+     * @since 0.4.0
+     */
+    public static int run(final String[] args, final PrintStream out) {
+        Path output = null;
+        Path directory = null;
+
+        for (int index = 0; index < args.length; ++index) {
+            final String arg = args[index];
+            if (Constants.OUTPUT.equals(arg) && index + 1 < args.length) {
+                output = Paths.get(args[++index]);
+            } else if (!arg.startsWith("-") && directory == null) {
+                directory = Paths.get(arg);
+            } else {
+                out.println(Constants.USAGE);
+                return 2;
+            }
+        }
+
+        if (directory == null) {
+            out.println(Constants.USAGE);
+            return 2;
+        }
+
+        final ModpackIndex index;
+
+        try {
+            index = ModpackIndex.load(directory, output != null ? output : directory.resolve(Constants.DEFAULT_OUTPUT));
+        } catch (final IOException e) {
+            out.println(directory + ": error: " + e.getMessage());
+            return 1;
+        }
+
+        if (index.hasErrors()) {
+            for (final String error : index.getErrors()) {
+                out.println(directory + ": error: " + error);
+            }
+            return 1;
+        }
+
+        out.println(index.getMods().size() + " mods");
+        out.println(index.getListeners(Side.CLIENT).size() + " client listeners");
+        out.println(index.getListeners(Side.SERVER).size() + " server listeners");
+
+        return 0;
+    }
+
+    private static final class Constants {
+        private static final String DEFAULT_OUTPUT = "pylon-modpack.json";
+        private static final String OUTPUT = "--output";
+        private static final String USAGE = "Usage: ModpackCli [--output <file>] <directory>";
+    }
+}
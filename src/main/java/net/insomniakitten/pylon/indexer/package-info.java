@@ -0,0 +1,4 @@
+@NonNullByDefault
+package net.insomniakitten.pylon.indexer;
+
+import net.insomniakitten.pylon.util.NonNullByDefault;
@@ -0,0 +1,60 @@
+package net.insomniakitten.pylon.io;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The formatting shared by every JSON file Pylon writes, so that descriptors
+ * are byte-for-byte identical whether they are written by the annotation
+ * processor or by the offline tools
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class JsonFormat {
+    private static final String INDENT = "  ";
+
+    private JsonFormat() {}
+
+    /**
+     * Creates a new {@link JsonWriter} for the given {@link Writer}
+     * @param delegate The writer to be delegated to
+     * @return A preconfigured Json writer instance
+     * @since 0.4.0
+     */
+    public static JsonWriter newWriter(final Writer delegate) {
+        final BufferedWriter bufferedWriter;
+
+        if (delegate instanceof BufferedWriter) {
+            bufferedWriter = (BufferedWriter) delegate;
+        } else {
+            bufferedWriter = new BufferedWriter(delegate);
+        }
+
+        final JsonWriter writer = new JsonWriter(bufferedWriter);
+
+        writer.setIndent(JsonFormat.INDENT);
+        writer.setHtmlSafe(true);
+        return writer;
+    }
+
+    /**
+     * Feeds a new {@link JsonWriter} over an in-memory buffer to the given
+     * {@link IOConsumer}, returning the serialized UTF-8 bytes
+     * @param consumer The consumer to accept the writer
+     * @return The serialized bytes
+     * @throws IOException If the consumer fails to write
+     * @since 0.4.0
+     */
+    public static byte[] serialize(final IOConsumer<JsonWriter> consumer) throws IOException {
+        final StringWriter buffer = new StringWriter();
+        try (final JsonWriter writer = JsonFormat.newWriter(buffer)) {
+            consumer.accept(writer);
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
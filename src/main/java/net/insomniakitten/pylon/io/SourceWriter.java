@@ -0,0 +1,93 @@
+package net.insomniakitten.pylon.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A minimal writer for generated Java source, managing indentation of
+ * nested blocks. Lines are always terminated with {@code '\n'}, so that
+ * generated sources are identical across platforms
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class SourceWriter implements Closeable {
+    private static final String INDENT = "    ";
+
+    private final Writer delegate;
+    private int depth;
+
+    public SourceWriter(final Writer delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Writes a single line at the current indentation
+     * @param line The content of the line
+     * @return This writer
+     * @throws IOException If the line cannot be written
+     */
+    public SourceWriter line(final String line) throws IOException {
+        for (int i = 0; i < this.depth; ++i) {
+            this.delegate.write(SourceWriter.INDENT);
+        }
+        this.delegate.write(line);
+        this.delegate.write('\n');
+        return this;
+    }
+
+    /**
+     * Writes an empty line
+     * @return This writer
+     * @throws IOException If the line cannot be written
+     */
+    public SourceWriter line() throws IOException {
+        this.delegate.write('\n');
+        return this;
+    }
+
+    /**
+     * Opens a new block with the given header, indenting following lines
+     * @param header The content preceding the opening brace
+     * @return This writer
+     * @throws IOException If the header cannot be written
+     */
+    public SourceWriter begin(final String header) throws IOException {
+        this.line(header + " {");
+        ++this.depth;
+        return this;
+    }
+
+    /**
+     * Closes the current block
+     * @return This writer
+     * @throws IOException If the closing brace cannot be written
+     */
+    public SourceWriter end() throws IOException {
+        if (this.depth == 0) {
+            throw new IllegalStateException("No open block");
+        }
+        --this.depth;
+        return this.line("}");
+    }
+
+    /**
+     * Closes the current block and opens a new block continuing it on the
+     * same line, such as the {@code else} of an {@code if} block
+     * @param header The content between the closing and opening braces
+     * @return This writer
+     * @throws IOException If the braces cannot be written
+     */
+    public SourceWriter next(final String header) throws IOException {
+        if (this.depth == 0) {
+            throw new IllegalStateException("No open block");
+        }
+        --this.depth;
+        return this.begin("} " + header);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.delegate.close();
+    }
+}
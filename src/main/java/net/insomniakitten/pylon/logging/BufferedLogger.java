@@ -0,0 +1,269 @@
+package net.insomniakitten.pylon.logging;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+final class BufferedLogger implements PylonLogger {
+    private final String topic;
+    private final Supplier<Messager> messagerSupplier;
+    private final Supplier<Level> levelSupplier;
+    private final int elementLimit;
+
+    private final Object lock = new Object();
+    private final List<Message> pending = new ArrayList<>();
+    private final Map<Message, Message> reported = new HashMap<>();
+    private final Map<Element, Integer> elementCounts = new HashMap<>();
+
+    @Nullable
+    private volatile Level level;
+
+    BufferedLogger(final String topic, final Supplier<Messager> messagerSupplier, final Supplier<Level> levelSupplier, final int elementLimit) {
+        Preconditions.checkArgument(elementLimit > 0, "Element limit must be positive");
+        this.topic = topic;
+        this.messagerSupplier = messagerSupplier;
+        this.levelSupplier = levelSupplier;
+        this.elementLimit = elementLimit;
+    }
+
+    @Override
+    public String getTopic() {
+        return this.topic;
+    }
+
+    @Override
+    public void note(@Nullable final CharSequence message) {
+        this.log(Level.NOTE, message, null, null, null);
+    }
+
+    @Override
+    public void warn(@Nullable final CharSequence message) {
+        this.log(Level.WARN, message, null, null, null);
+    }
+
+    @Override
+    public void error(@Nullable final CharSequence message) {
+        this.log(Level.ERROR, message, null, null, null);
+    }
+
+    @Override
+    public void note(@Nullable final CharSequence message, final Element element) {
+        this.log(Level.NOTE, message, element, null, null);
+    }
+
+    @Override
+    public void warn(@Nullable final CharSequence message, final Element element) {
+        this.log(Level.WARN, message, element, null, null);
+    }
+
+    @Override
+    public void error(@Nullable final CharSequence message, final Element element) {
+        this.log(Level.ERROR, message, element, null, null);
+    }
+
+    @Override
+    public void note(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror) {
+        this.log(Level.NOTE, message, element, mirror, null);
+    }
+
+    @Override
+    public void warn(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror) {
+        this.log(Level.WARN, message, element, mirror, null);
+    }
+
+    @Override
+    public void error(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror) {
+        this.log(Level.ERROR, message, element, mirror, null);
+    }
+
+    @Override
+    public void note(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror, final AnnotationValue value) {
+        this.log(Level.NOTE, message, element, mirror, value);
+    }
+
+    @Override
+    public void warn(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror, final AnnotationValue value) {
+        this.log(Level.WARN, message, element, mirror, value);
+    }
+
+    @Override
+    public void error(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror, final AnnotationValue value) {
+        this.log(Level.ERROR, message, element, mirror, value);
+    }
+
+    /**
+     * Prints every buffered message to the messager, in the order they were logged
+     */
+    @Override
+    public void flush() {
+        synchronized (this.lock) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+
+            final Messager messager = Preconditions.checkNotNull(this.messagerSupplier.get());
+
+            for (final Message message : this.pending) {
+                message.printTo(messager);
+            }
+
+            this.pending.clear();
+        }
+    }
+
+    /**
+     * Prints every buffered message, and forgets every message and element
+     * logged so far, so that no element is retained beyond processing
+     */
+    @Override
+    public void reset() {
+        synchronized (this.lock) {
+            this.flush();
+            this.reported.clear();
+            this.elementCounts.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferedLogger['%s', %s, %d]", this.topic, this.level, this.elementLimit);
+    }
+
+    /**
+     * Buffers the given message, unless its level is below the minimum level,
+     * a message of the same level and content was already logged, or the
+     * element has reached its limit of messages. Repeated notes and warnings
+     * are only counted, whatever their element, and the count is printed with
+     * the message. Errors are only collapsed when repeated at the same
+     * position, so that every offending element is reported, and are never
+     * dropped by the element limit, as a dropped error would allow
+     * compilation to succeed
+     */
+    private void log(final Level level, @Nullable final CharSequence message, @Nullable final Element element, @Nullable final AnnotationMirror mirror, @Nullable final AnnotationValue value) {
+        if (level.compareTo(this.getLevel()) < 0) {
+            return;
+        }
+
+        final Message entry = new Message(level, this.format(message), element, mirror, value);
+
+        synchronized (this.lock) {
+            final Message existing = this.reported.get(entry);
+
+            if (existing != null) {
+                // Repeats of a printed message are buffered again, to be printed as a count
+                if (existing.repeats++ == 0 && existing.printed) {
+                    this.pending.add(existing);
+                }
+                return;
+            }
+
+            if (element != null) {
+                final int count = this.elementCounts.merge(element, 1, Integer::sum);
+                if (count > this.elementLimit && level != Level.ERROR) {
+                    return;
+                }
+            }
+
+            this.reported.put(entry, entry);
+            this.pending.add(entry);
+        }
+    }
+
+    private Level getLevel() {
+        Level level = this.level;
+        if (level == null) {
+            level = Preconditions.checkNotNull(this.levelSupplier.get());
+            this.level = level;
+        }
+        return level;
+    }
+
+    private String format(@Nullable final CharSequence message) {
+        final String content = message == null || message.length() == 0 ? "null" : message.toString();
+        return "[" + this.topic + "] " + content;
+    }
+
+    private static final class Message {
+        private final Level level;
+        private final String message;
+        @Nullable
+        private final Element element;
+        @Nullable
+        private final AnnotationMirror mirror;
+        @Nullable
+        private final AnnotationValue value;
+        private int repeats;
+        private boolean printed;
+
+        private Message(final Level level, final String message, @Nullable final Element element, @Nullable final AnnotationMirror mirror, @Nullable final AnnotationValue value) {
+            this.level = level;
+            this.message = message;
+            this.element = element;
+            this.mirror = mirror;
+            this.value = value;
+        }
+
+        /**
+         * Prints this message at its position, along with the number of times
+         * it was logged, or only the number of repeats if already printed
+         */
+        private void printTo(final Messager messager) {
+            final Diagnostic.Kind kind = this.level.getKind();
+            final int repeats = this.repeats;
+
+            this.repeats = 0;
+
+            if (this.printed) {
+                messager.printMessage(kind, this.message + " (repeated " + repeats + " more times)");
+                return;
+            }
+
+            final String message = repeats > 0 ? this.message + " (logged " + (repeats + 1) + " times)" : this.message;
+
+            this.printed = true;
+
+            if (this.element == null) {
+                messager.printMessage(kind, message);
+            } else if (this.mirror == null) {
+                messager.printMessage(kind, message, this.element);
+            } else if (this.value == null) {
+                messager.printMessage(kind, message, this.element, this.mirror);
+            } else {
+                messager.printMessage(kind, message, this.element, this.mirror, this.value);
+            }
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Message)) {
+                return false;
+            }
+            final Message other = (Message) obj;
+            if (this.level != other.level || !this.message.equals(other.message)) {
+                return false;
+            }
+            return this.level != Level.ERROR || (Objects.equals(this.element, other.element)
+                && Objects.equals(this.mirror, other.mirror) && Objects.equals(this.value, other.value));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.level != Level.ERROR ? Objects.hash(this.level, this.message)
+                : Objects.hash(this.level, this.message, this.element, this.mirror, this.value);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import javax.annotation.processing.Messager;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
 import java.util.function.Supplier;
 
 /**
@@ -21,6 +22,24 @@ public interface PylonLogger {
         return new SimpleLogger(topic, messager);
     }
 
+    /**
+     * Creates a thread-safe logger that buffers messages until flushed.
+     * Messages below the minimum level are dropped before being formatted,
+     * notes and warnings of the same content are printed once with the number
+     * of times they were logged, and each element is limited to a number of
+     * messages. Errors are printed for every distinct position, and are exempt
+     * from the element limit
+     * @param topic The topic of the logger, used as an output prefix
+     * @param messager The supplier of the messager to print to
+     * @param level The supplier of the minimum level of printed messages
+     * @param elementLimit The maximum number of messages printed per element
+     * @since 0.4.0
+     */
+    @Nonnull
+    static PylonLogger buffered(final String topic, final Supplier<Messager> messager, final Supplier<Level> level, final int elementLimit) {
+        return new BufferedLogger(topic, messager, level, elementLimit);
+    }
+
     /**
      * The topic of this logger, used as an output prefix
      */
@@ -115,4 +134,43 @@ public interface PylonLogger {
      * @param value The value to provide a position hint for
      */
     void error(@Nullable final CharSequence message, final Element element, final AnnotationMirror mirror, final AnnotationValue value);
+
+    /**
+     * Prints any messages buffered by this logger
+     * @since 0.4.0
+     */
+    default void flush() {}
+
+    /**
+     * Prints any messages buffered by this logger, and forgets the messages
+     * and elements it has logged, at the end of processing
+     * @since 0.4.0
+     */
+    default void reset() {
+        this.flush();
+    }
+
+    /**
+     * The levels of messages printed by a logger, in ascending severity
+     * @since 0.4.0
+     */
+    enum Level {
+        NOTE(Diagnostic.Kind.NOTE),
+        WARN(Diagnostic.Kind.WARNING),
+        ERROR(Diagnostic.Kind.ERROR);
+
+        private final Diagnostic.Kind kind;
+
+        Level(final Diagnostic.Kind kind) {
+            this.kind = kind;
+        }
+
+        /**
+         * The kind of diagnostic that messages of this level are printed as
+         * @since 0.4.0
+         */
+        public final Diagnostic.Kind getKind() {
+            return this.kind;
+        }
+    }
 }
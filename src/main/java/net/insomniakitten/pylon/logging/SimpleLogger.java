@@ -9,7 +9,6 @@ import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.tools.Diagnostic;
-import java.text.MessageFormat;
 import java.util.function.Supplier;
 
 final class SimpleLogger implements PylonLogger {
@@ -17,7 +16,7 @@ final class SimpleLogger implements PylonLogger {
     private final Supplier<Messager> messagerSupplier;
 
     @Nullable
-    private Messager messager;
+    private volatile Messager messager;
 
     SimpleLogger(final String topic, final Supplier<Messager> messagerSupplier) {
         this.topic = topic;
@@ -97,15 +96,17 @@ final class SimpleLogger implements PylonLogger {
     @Nonnull
     private CharSequence format(@Nullable final CharSequence message) {
         if (message == null || message.length() == 0) {
-            return MessageFormat.format("[{0}] null", this.getTopic());
+            return "[" + this.getTopic() + "] null";
         }
-        return MessageFormat.format("[{0}] {1}", this.getTopic(), message);
+        return "[" + this.getTopic() + "] " + message;
     }
 
     private Messager getMessager() {
-        if (this.messager == null) {
-            this.messager = this.messagerSupplier.get();
+        Messager messager = this.messager;
+        if (messager == null) {
+            messager = Preconditions.checkNotNull(this.messagerSupplier.get());
+            this.messager = messager;
         }
-        return Preconditions.checkNotNull(this.messager);
+        return messager;
     }
 }
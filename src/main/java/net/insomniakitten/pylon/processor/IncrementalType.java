@@ -0,0 +1,37 @@
+package net.insomniakitten.pylon.processor;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+
+/**
+ * Categories of incremental annotation processing supported by Gradle. Pylon
+ * processors are registered as dynamic processors, and declare their category
+ * at runtime through {@link PylonAnnotationProcessor#getIncrementalType()}
+ * @author InsomniaKitten
+ * @see <a href=https://docs.gradle.org/current/userguide/java_plugin.html#sec:incremental_annotation_processing>
+ * Gradle User Manual: Incremental annotation processing</a>
+ * @since 0.4.0
+ */
+public enum IncrementalType {
+    /**
+     * Represents a processor that generates each file from a single
+     * originating element, and reads no information from other elements
+     */
+    ISOLATING,
+
+    /**
+     * Represents a processor that aggregates many elements into one or
+     * more files, such as a single metadata resource
+     */
+    AGGREGATING;
+
+    /**
+     * The processor option that Gradle expects a dynamic processor to
+     * include in its supported options to declare this category
+     * @since 0.4.0
+     */
+    @Nonnull
+    public final String getOption() {
+        return "org.gradle.annotation.processing." + this.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,14 +1,20 @@
 package net.insomniakitten.pylon.processor;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.gson.stream.JsonWriter;
 import net.insomniakitten.pylon.io.IOConsumer;
+import net.insomniakitten.pylon.io.JsonFormat;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
 import javax.tools.FileObject;
 import javax.tools.StandardLocation;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public abstract class JsonAnnotationProcessor extends PylonAnnotationProcessor {
     /**
@@ -19,43 +25,110 @@ public abstract class JsonAnnotationProcessor extends PylonAnnotationProcessor {
      * @since 0.3.0
      */
     protected final void openJsonWriter(final String file, final IOConsumer<JsonWriter> consumer) throws IOException {
-        try (final JsonWriter jsonWriter = this.createJsonWriter(this.createFileAtRoot(file).openWriter())) {
-            consumer.accept(jsonWriter);
-        }
+        this.openJsonWriter(file, new Element[0], consumer);
     }
 
     /**
-     * Generates a new {@link FileObject} for the given file in the root
-     * @param file The name of the file to be created
-     * @return A reference to the newly created file
-     * @throws IOException If the file could not be created
-     * @since 0.3.0
+     * Opens an {@link JsonWriter} and feeds to the given {@link IOConsumer}.
+     * The output is buffered in memory, and is only written to the file if
+     * it differs from the existing contents of the file
+     * @param file The name of the file to write to
+     * @param originatingElements The elements the file is generated from
+     * @param consumer The consumer to accept the writer
+     * @throws IOException If the file cannot be written to
+     * @see #writeResource(String, byte[], Element...)
+     * @since 0.4.0
      */
-    @Nonnull
-    private FileObject createFileAtRoot(final String file) throws IOException {
-        return this.getEnvironment().getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", file);
+    protected final void openJsonWriter(final String file, final Element[] originatingElements, final IOConsumer<JsonWriter> consumer) throws IOException {
+        this.writeResource(file, this.serializeJson(consumer), originatingElements);
     }
 
     /**
-     * Creates a new {@link JsonWriter} for the given {@link Writer}
-     * @param delegate The writer to be delegated to
-     * @return A preconfigured Json writer instance
-     * @since 0.1.0
+     * Opens a {@link JsonWriter} over an in-memory buffer and feeds it to the
+     * given {@link IOConsumer}, returning the serialized UTF-8 bytes. As this
+     * does not access the compiler, it can be invoked from any thread
+     * @param consumer The consumer to accept the writer
+     * @return The serialized bytes, to be written with {@link #writeResource(String, byte[], Element...)}
+     * @throws IOException If the consumer fails to write
+     * @since 0.4.0
      */
     @Nonnull
-    private JsonWriter createJsonWriter(final Writer delegate) {
-        final BufferedWriter bufferedWriter;
+    protected final byte[] serializeJson(final IOConsumer<JsonWriter> consumer) throws IOException {
+        final ProcessorMetrics.Timer serialization = this.getMetrics().time(ProcessorMetrics.SERIALIZATION);
+        try {
+            return JsonFormat.serialize(consumer);
+        } finally {
+            serialization.stop();
+        }
+    }
 
-        if (delegate instanceof BufferedWriter) {
-            bufferedWriter = (BufferedWriter) delegate;
-        } else {
-            bufferedWriter = new BufferedWriter(delegate);
+    /**
+     * Writes the given content to the file in the root, unless the file
+     * already exists with identical content. The file is always created
+     * through the filer, so that it is registered with its originating
+     * elements and reserved against later rounds, and only writing its bytes
+     * is skipped, which preserves the timestamp of the file so that tasks
+     * consuming it stay up to date
+     * @param file The name of the file to write to
+     * @param content The content to be written
+     * @param originatingElements The elements the file is generated from
+     * @return True if the file was written, false if it was unchanged
+     * @throws IOException If the file cannot be written to
+     * @since 0.4.0
+     */
+    protected final boolean writeResource(final String file, final byte[] content, final Element... originatingElements) throws IOException {
+        final ProcessorMetrics.Timer output = this.getMetrics().time(ProcessorMetrics.OUTPUT);
+        try {
+            // The existing file is read before it is created, as the filer forbids reopening created files
+            final boolean unchanged = Hashing.sha256().hashBytes(content).equals(this.hashExistingResource(file));
+            final FileObject resource = this.createFileAtRoot(file, originatingElements);
+
+            if (unchanged) {
+                this.getMetrics().increment(ProcessorMetrics.FILES_UNCHANGED);
+                return false;
+            }
+
+            try (final OutputStream stream = resource.openOutputStream()) {
+                stream.write(content);
+            }
+
+            this.getMetrics().increment(ProcessorMetrics.FILES_WRITTEN);
+            this.getMetrics().count(ProcessorMetrics.BYTES_WRITTEN, content.length);
+            return true;
+        } finally {
+            output.stop();
         }
+    }
 
-        final JsonWriter writer = new JsonWriter(bufferedWriter);
+    /**
+     * Computes a hash of the existing contents of the given file in the root
+     * @param file The name of the file to be hashed
+     * @return The hash of the file, or null if the file could not be read
+     * @since 0.4.0
+     */
+    @Nullable
+    private HashCode hashExistingResource(final String file) {
+        try {
+            final FileObject resource = this.getEnvironment().getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", file);
+            try (final InputStream stream = resource.openInputStream()) {
+                return Hashing.sha256().hashBytes(ByteStreams.toByteArray(stream));
+            }
+        } catch (final IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        writer.setIndent("  ");
-        writer.setHtmlSafe(true);
-        return writer;
+    /**
+     * Generates a new {@link FileObject} for the given file in the root
+     * @param file The name of the file to be created
+     * @param originatingElements The elements the file is generated from, used
+     *                            by incremental build tools to track the file
+     * @return A reference to the newly created file
+     * @throws IOException If the file could not be created
+     * @since 0.3.0
+     */
+    @Nonnull
+    private FileObject createFileAtRoot(final String file, final Element... originatingElements) throws IOException {
+        return this.getEnvironment().getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", file, originatingElements);
     }
 }
@@ -0,0 +1,470 @@
+package net.insomniakitten.pylon.processor;
+
+import net.insomniakitten.pylon.io.SourceWriter;
+import net.insomniakitten.pylon.processor.model.ListenerModel;
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.ListenerBootstrap;
+import net.insomniakitten.pylon.runtime.ListenerTimings;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Writes the source of a {@link ListenerBootstrap} implementation for a set of
+ * listeners. Each listener is held by its own nested holder class, so that it
+ * is constructed lazily on first use and shared between the list returned by
+ * {@link ListenerBootstrap#createListeners(Side)} and every invoker. Invokers
+ * are generated for each eligible listener interface, calling the implementing
+ * listeners directly through their concrete types in order of priority. Each
+ * invoker only calls the listeners loaded on the sides it is created for, so
+ * that calls are dispatched without checking the side. When
+ * timing is enabled, each holder also records the time taken to load and
+ * construct its listener to {@link ListenerTimings}. Methods of an interface
+ * are declared with the types they have as members of that interface, so the
+ * type arguments of generic superinterfaces are substituted
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+final class ListenerBootstrapWriter {
+    private static final String SIDE = Side.class.getCanonicalName();
+
+    private static final String TIMINGS = ListenerTimings.class.getCanonicalName();
+
+    private final Elements elements;
+    private final Types types;
+    @Nullable
+    private final String timedMod;
+
+    /**
+     * @param elements The element utilities of the compiler
+     * @param types The type utilities of the compiler
+     * @param timedMod The identifier of the mod to record the timings of
+     *        listeners under, or null to write no timing code at all
+     */
+    ListenerBootstrapWriter(final Elements elements, final Types types, @Nullable final String timedMod) {
+        this.elements = elements;
+        this.types = types;
+        this.timedMod = timedMod;
+    }
+
+    /**
+     * Determines if the given type can be constructed from any package,
+     * requiring the type and its enclosing types to be public, and a public
+     * constructor without parameters to be present
+     * @param element The type element to be checked
+     * @return True if the type can be constructed directly
+     */
+    static boolean isDirectlyConstructible(final TypeElement element) {
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        if (!ListenerBootstrapWriter.isAccessible(element)) {
+            return false;
+        }
+
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param element The type element to be checked
+     * @return True if the type and its enclosing types are public
+     */
+    private static boolean isAccessible(final TypeElement element) {
+        for (Element type = element; type instanceof TypeElement; type = type.getEnclosingElement()) {
+            if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the bootstrap class to the given writer
+     * @param source The writer to write to
+     * @param pkg The name of the package of the bootstrap, or an empty string
+     * @param name The simple name of the bootstrap
+     * @param header A comment to be written before the bootstrap
+     * @param listeners The listeners to be bootstrapped, in order of priority
+     * @throws IOException If the source cannot be written
+     */
+    void write(final SourceWriter source, final String pkg, final String name, final String header, final List<ListenerModel> listeners) throws IOException {
+        final Map<TypeElement, Map<List<Integer>, List<Side>>> invokers = this.collectInvokers(listeners);
+
+        if (!pkg.isEmpty()) {
+            source.line("package " + pkg + ";").line();
+        }
+
+        source.line("// " + header);
+        source.begin("public final class " + name + " implements " + ListenerBootstrap.class.getCanonicalName());
+
+        source.line("@java.lang.Override");
+        source.begin("public java.util.List<java.lang.Object> createListeners(final " + ListenerBootstrapWriter.SIDE + " side)");
+        source.line("final java.util.List<java.lang.Object> listeners = new java.util.ArrayList<>(" + listeners.size() + ");");
+        for (int index = 0; index < listeners.size(); ++index) {
+            this.writeSideGuarded(source, listeners.get(index), "side", "listeners.add(Listener" + index + ".INSTANCE);");
+        }
+        source.line("return listeners;");
+        source.end();
+
+        source.line();
+        source.line("@java.lang.Override");
+        source.begin("public <T> T createInvoker(final java.lang.Class<T> type, final " + ListenerBootstrapWriter.SIDE + " side)");
+        int invokerIndex = 0;
+        for (final Entry<TypeElement, Map<List<Integer>, List<Side>>> entry : invokers.entrySet()) {
+            source.begin("if (type == " + entry.getKey().getQualifiedName() + ".class)");
+            for (final List<Side> sides : entry.getValue().values()) {
+                final String statement = "return type.cast(new Invoker" + invokerIndex++ + "());";
+                // The invoker of ambiguous listeners alone is created for any other side
+                if (sides.contains(Side.EITHER)) {
+                    source.line(statement);
+                    continue;
+                }
+                final List<String> conditions = new ArrayList<>(sides.size());
+                for (final Side side : sides) {
+                    conditions.add("side == " + ListenerBootstrapWriter.SIDE + "." + side.name());
+                }
+                source.begin("if (" + String.join(" || ", conditions) + ")");
+                source.line(statement);
+                source.end();
+            }
+            source.end();
+        }
+        source.line("return null;");
+        source.end();
+
+        for (int index = 0; index < listeners.size(); ++index) {
+            source.line();
+            this.writeHolder(source, "Listener" + index, listeners.get(index).getElement());
+        }
+
+        invokerIndex = 0;
+        for (final Entry<TypeElement, Map<List<Integer>, List<Side>>> entry : invokers.entrySet()) {
+            for (final List<Integer> implementors : entry.getValue().keySet()) {
+                source.line();
+                this.writeInvoker(source, "Invoker" + invokerIndex++, entry.getKey(), implementors);
+            }
+        }
+
+        source.end();
+    }
+
+    /**
+     * Collects the interfaces of the given listeners that an invoker can be
+     * generated for, including inherited interfaces. Each interface is mapped
+     * to the indices of the implementing listeners loaded on each side, with
+     * sides sharing the same listeners grouped under a single invoker
+     * @param listeners The listeners, in order of priority
+     * @return The eligible interfaces, in order of first implementation, mapped
+     *         to the implementing listeners of each group of sides, with the
+     *         group of {@link Side#EITHER} last
+     */
+    private Map<TypeElement, Map<List<Integer>, List<Side>>> collectInvokers(final List<ListenerModel> listeners) {
+        final Map<TypeElement, List<Integer>> implementors = new LinkedHashMap<>();
+
+        for (int index = 0; index < listeners.size(); ++index) {
+            for (final TypeElement type : listeners.get(index).getInterfaces()) {
+                if (this.isInvokable(type)) {
+                    implementors.computeIfAbsent(type, k -> new ArrayList<>()).add(index);
+                }
+            }
+        }
+
+        final Map<TypeElement, Map<List<Integer>, List<Side>>> invokers = new LinkedHashMap<>();
+
+        for (final Entry<TypeElement, List<Integer>> entry : implementors.entrySet()) {
+            final Map<List<Integer>, List<Side>> groups = new LinkedHashMap<>();
+            List<Integer> fallback = null;
+            for (final Side side : Side.values()) {
+                final List<Integer> eligible = new ArrayList<>(entry.getValue().size());
+                for (final int index : entry.getValue()) {
+                    if (listeners.get(index).getSide().isEquivalentTo(side)) {
+                        eligible.add(index);
+                    }
+                }
+                groups.computeIfAbsent(eligible, k -> new ArrayList<>()).add(side);
+                if (side.isAmbiguous()) {
+                    fallback = eligible;
+                }
+            }
+            // Reinserted so that the group of the ambiguous side is written last
+            groups.put(fallback, groups.remove(fallback));
+            invokers.put(entry.getKey(), groups);
+        }
+
+        return invokers;
+    }
+
+    /**
+     * Determines if an invoker can be generated for the given interface,
+     * requiring it to be public and non-generic, with every abstract method
+     * being non-generic and returning void, and every parameter and thrown
+     * type being expressible in source once resolved against the interface
+     * @param type The interface to be checked
+     * @return True if the interface can be invoked by a generated invoker
+     */
+    private boolean isInvokable(final TypeElement type) {
+        if (!type.getTypeParameters().isEmpty() || !ListenerBootstrapWriter.isAccessible(type)) {
+            return false;
+        }
+
+        for (final Entry<ExecutableElement, ExecutableType> method : this.getAbstractMethods(type).entrySet()) {
+            final ExecutableType resolved = method.getValue();
+            if (resolved.getReturnType().getKind() != TypeKind.VOID || !method.getKey().getTypeParameters().isEmpty()) {
+                return false;
+            }
+            for (final TypeMirror parameter : resolved.getParameterTypes()) {
+                if (ListenerBootstrapWriter.toSource(parameter) == null) {
+                    return false;
+                }
+            }
+            for (final TypeMirror thrown : resolved.getThrownTypes()) {
+                if (ListenerBootstrapWriter.toSource(thrown) == null) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Resolves every abstract method of the given interface, including
+     * inherited methods, as a member of the interface. Inherited methods that
+     * resolve to the same signature as an earlier method are only kept once
+     * @param type The interface to be inspected
+     * @return The abstract methods of the interface, mapped to their types
+     *         as members of the interface
+     */
+    private Map<ExecutableElement, ExecutableType> getAbstractMethods(final TypeElement type) {
+        final DeclaredType declared = (DeclaredType) type.asType();
+        final Map<ExecutableElement, ExecutableType> methods = new LinkedHashMap<>();
+        final List<String> signatures = new ArrayList<>();
+
+        for (final ExecutableElement method : ElementFilter.methodsIn(this.elements.getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            final ExecutableType resolved = (ExecutableType) this.types.asMemberOf(declared, method);
+            final StringBuilder signature = new StringBuilder(method.getSimpleName());
+            for (final TypeMirror parameter : resolved.getParameterTypes()) {
+                signature.append(',').append(this.types.erasure(parameter));
+            }
+            if (!signatures.contains(signature.toString())) {
+                signatures.add(signature.toString());
+                methods.put(method, resolved);
+            }
+        }
+
+        return methods;
+    }
+
+    /**
+     * Renders the given type as it would be written in source, without any
+     * type-use annotations, which {@link TypeMirror#toString()} would include
+     * @param type The type to be rendered
+     * @return The source of the type, or null if it cannot be written in
+     *         source, such as a type variable or an intersection type
+     */
+    @Nullable
+    private static String toSource(final TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+
+        switch (type.getKind()) {
+            case ARRAY:
+                final String component = ListenerBootstrapWriter.toSource(((ArrayType) type).getComponentType());
+                return component != null ? component + "[]" : null;
+            case DECLARED:
+                return ListenerBootstrapWriter.toSource((DeclaredType) type);
+            case WILDCARD:
+                final WildcardType wildcard = (WildcardType) type;
+                final TypeMirror bound = wildcard.getExtendsBound() != null ? wildcard.getExtendsBound() : wildcard.getSuperBound();
+                if (bound == null) {
+                    return "?";
+                }
+                final String boundSource = ListenerBootstrapWriter.toSource(bound);
+                return boundSource != null ? (wildcard.getExtendsBound() != null ? "? extends " : "? super ") + boundSource : null;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static String toSource(final DeclaredType type) {
+        final TypeElement element = (TypeElement) type.asElement();
+        final TypeMirror enclosing = type.getEnclosingType();
+        final StringBuilder source = new StringBuilder();
+
+        // An inner class of a parameterized type is qualified by that type
+        if (enclosing.getKind() == TypeKind.DECLARED && !((DeclaredType) enclosing).getTypeArguments().isEmpty()) {
+            final String outer = ListenerBootstrapWriter.toSource((DeclaredType) enclosing);
+            if (outer == null) {
+                return null;
+            }
+            source.append(outer).append('.').append(element.getSimpleName());
+        } else {
+            source.append(element.getQualifiedName());
+        }
+
+        if (!type.getTypeArguments().isEmpty()) {
+            final List<String> arguments = new ArrayList<>(type.getTypeArguments().size());
+            for (final TypeMirror argument : type.getTypeArguments()) {
+                final String argumentSource = ListenerBootstrapWriter.toSource(argument);
+                if (argumentSource == null) {
+                    return null;
+                }
+                arguments.add(argumentSource);
+            }
+            source.append('<').append(String.join(", ", arguments)).append('>');
+        }
+
+        return source.toString();
+    }
+
+    /**
+     * Writes the holder of the given listener, which constructs the listener
+     * when first accessed, and records the time taken to load and construct
+     * it if timing is enabled
+     */
+    private void writeHolder(final SourceWriter source, final String name, final TypeElement listener) throws IOException {
+        final String type = listener.getQualifiedName().toString();
+
+        source.begin("private static final class " + name);
+
+        if (this.timedMod == null) {
+            source.line("private static final " + type + " INSTANCE = new " + type + "();");
+            source.end();
+            return;
+        }
+
+        final String binaryName = ListenerBootstrapWriter.toLiteral(this.elements.getBinaryName(listener).toString());
+
+        source.line("private static final " + type + " INSTANCE;");
+        source.line();
+        source.begin("static");
+        source.line("final long start = java.lang.System.nanoTime();");
+        source.begin("try");
+        source.line("java.lang.Class.forName(" + binaryName + ", true, " + name + ".class.getClassLoader());");
+        source.next("catch (final java.lang.ClassNotFoundException e)");
+        source.line("throw new java.lang.NoClassDefFoundError(e.getMessage());");
+        source.end();
+        source.line("final long loaded = java.lang.System.nanoTime();");
+        source.line("INSTANCE = new " + type + "();");
+        source.line(ListenerBootstrapWriter.TIMINGS + ".record(" + ListenerBootstrapWriter.toLiteral(this.timedMod) + ", " + binaryName
+            + ", loaded - start, java.lang.System.nanoTime() - loaded);");
+        source.end();
+        source.end();
+    }
+
+    /**
+     * @param value The value to be written
+     * @return A Java string literal of the given value
+     */
+    private static String toLiteral(final String value) {
+        final StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+
+        for (final char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Writes an invoker of the given interface, which calls each of the given
+     * listeners unconditionally, as they were already filtered by side
+     */
+    private void writeInvoker(final SourceWriter source, final String name, final TypeElement type, final List<Integer> implementors) throws IOException {
+        source.begin("private static final class " + name + " implements " + type.getQualifiedName());
+        boolean first = true;
+
+        for (final Entry<ExecutableElement, ExecutableType> entry : this.getAbstractMethods(type).entrySet()) {
+            final ExecutableElement method = entry.getKey();
+            final List<? extends TypeMirror> parameters = entry.getValue().getParameterTypes();
+            final List<? extends TypeMirror> thrownTypes = entry.getValue().getThrownTypes();
+            final List<String> declarations = new ArrayList<>(parameters.size());
+            final List<String> arguments = new ArrayList<>(parameters.size());
+
+            for (int index = 0; index < parameters.size(); ++index) {
+                String parameterType = ListenerBootstrapWriter.toSource(parameters.get(index));
+                if (method.isVarArgs() && index == parameters.size() - 1) {
+                    parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+                }
+                declarations.add("final " + parameterType + " arg" + index);
+                arguments.add("arg" + index);
+            }
+
+            String signature = "public void " + method.getSimpleName() + "(" + String.join(", ", declarations) + ")";
+            if (!thrownTypes.isEmpty()) {
+                final List<String> thrown = new ArrayList<>(thrownTypes.size());
+                for (final TypeMirror thrownType : thrownTypes) {
+                    thrown.add(ListenerBootstrapWriter.toSource(thrownType));
+                }
+                signature += " throws " + String.join(", ", thrown);
+            }
+
+            if (!first) {
+                source.line();
+            }
+            first = false;
+            source.line("@java.lang.Override");
+            source.begin(signature);
+            for (final int index : implementors) {
+                source.line("Listener" + index + ".INSTANCE." + method.getSimpleName() + "(" + String.join(", ", arguments) + ");");
+            }
+            source.end();
+        }
+
+        source.end();
+    }
+
+    /**
+     * Writes the given statement, guarded by a check of the given side if
+     * the listener is not loaded on both physical sides
+     */
+    private void writeSideGuarded(final SourceWriter source, final ListenerModel listener, final String side, final String statement) throws IOException {
+        final Side listenerSide = listener.getSide();
+
+        if (listenerSide.isAmbiguous()) {
+            source.line(statement);
+        } else {
+            source.begin("if (" + ListenerBootstrapWriter.SIDE + "." + listenerSide.name() + ".isEquivalentTo(" + side + "))");
+            source.line(statement);
+            source.end();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package net.insomniakitten.pylon.processor;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Assigns listeners to the mods whose scope they fall under. A mod declared
+ * on a package, or on a type, scopes the package and all of its subpackages,
+ * and a listener belongs to the mod with the most specific enclosing scope.
+ * When only a single mod is present, every listener belongs to it, so that
+ * single mod projects need not place listeners under the package of the mod
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ModScopes {
+    private ModScopes() {}
+
+    /**
+     * @param mods The mods, in discovery order
+     * @param modPackage The function giving the package of a mod
+     * @param listeners The listeners, in the order they should be assigned
+     * @param listenerPackage The function giving the package of a listener
+     * @param unscoped The consumer of listeners outside the scope of any mod
+     * @return The listeners of each mod, in the order they were given
+     * @since 0.4.0
+     */
+    public static <M, L> Map<M, List<L>> assign(final List<M> mods, final Function<M, String> modPackage, final List<L> listeners, final Function<L, String> listenerPackage, final Consumer<L> unscoped) {
+        final Map<M, ImmutableList.Builder<L>> builders = new LinkedHashMap<>();
+
+        for (final M mod : mods) {
+            builders.put(mod, ImmutableList.builder());
+        }
+
+        for (final L listener : listeners) {
+            final String pkg = listenerPackage.apply(listener);
+            M owner = null;
+            int ownerLength = -1;
+
+            for (final M mod : mods) {
+                final String scope = modPackage.apply(mod);
+                if (scope.length() > ownerLength && ModScopes.isWithin(pkg, scope)) {
+                    owner = mod;
+                    ownerLength = scope.length();
+                }
+            }
+
+            if (owner == null && mods.size() == 1) {
+                owner = mods.get(0);
+            }
+
+            if (owner != null) {
+                builders.get(owner).add(listener);
+            } else {
+                unscoped.accept(listener);
+            }
+        }
+
+        final Map<M, List<L>> scopes = new LinkedHashMap<>();
+        builders.forEach((mod, builder) -> scopes.put(mod, builder.build()));
+        return scopes;
+    }
+
+    /**
+     * @param pkg The qualified name of a package
+     * @param scope The qualified name of the package scoped by a mod
+     * @return True if the package is the scope or one of its subpackages
+     * @since 0.4.0
+     */
+    public static boolean isWithin(final String pkg, final String scope) {
+        return scope.isEmpty() || pkg.equals(scope) || pkg.startsWith(scope + ".");
+    }
+}
@@ -0,0 +1,57 @@
+package net.insomniakitten.pylon.processor;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Maps inputs to outputs on a dedicated fork-join pool, preserving the order
+ * of the inputs so that results are deterministic regardless of scheduling.
+ * With a parallelism of one, inputs are mapped on the calling thread
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+final class ParallelStage implements AutoCloseable {
+    @Nullable
+    private final ForkJoinPool pool;
+
+    ParallelStage(final int parallelism) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Applies the given function to every input. Unchecked exceptions thrown
+     * by the function are rethrown on the calling thread
+     * @param inputs The inputs to be mapped
+     * @param function The function to be applied, which must be thread-safe
+     * @return The outputs, in the order of their inputs
+     */
+    <T, R> List<R> map(final List<T> inputs, final Function<? super T, ? extends R> function) {
+        if (this.pool == null || inputs.size() < 2) {
+            return inputs.stream().<R>map(function).collect(ImmutableList.toImmutableList());
+        }
+
+        return this.pool.submit(() ->
+            inputs.parallelStream().<R>map(function).collect(ImmutableList.toImmutableList())
+        ).join();
+    }
+
+    int getParallelism() {
+        return this.pool != null ? this.pool.getParallelism() : 1;
+    }
+
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ParallelStage[%d]", this.getParallelism());
+    }
+}
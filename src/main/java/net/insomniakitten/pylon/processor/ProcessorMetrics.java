@@ -0,0 +1,293 @@
+package net.insomniakitten.pylon.processor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the overhead of an annotation processor, as timings of each round
+ * and of named phases, and as named counters. Metrics are always recorded,
+ * and are exported when the {@code pylon.metrics} option names a file by
+ * its absolute path
+ * @author InsomniaKitten
+ * @see PylonAnnotationProcessor#getMetrics()
+ * @since 0.4.0
+ */
+public final class ProcessorMetrics {
+    public static final String DISCOVERY = "discovery";
+    public static final String COLLECTION = "collection";
+    public static final String VALIDATION = "validation";
+    public static final String SORTING = "sorting";
+    public static final String SERIALIZATION = "serialization";
+    public static final String GENERATION = "generation";
+    public static final String OUTPUT = "output";
+
+    public static final String BYTES_WRITTEN = "bytes.written";
+    public static final String FILES_WRITTEN = "files.written";
+    public static final String FILES_UNCHANGED = "files.unchanged";
+
+    private final String processor;
+    private final Map<String, LongAdder> phases = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final List<Round> rounds = new ArrayList<>();
+
+    /**
+     * @param processor The name of the processor or tool being measured
+     * @since 0.4.0
+     */
+    public ProcessorMetrics(final String processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * Starts timing the given phase, adding the elapsed time to the phase
+     * when the returned timer is stopped, which should be done in a finally
+     * block at the end of the phase
+     * @param phase The name of the phase
+     * @return A timer to be stopped at the end of the phase
+     * @since 0.4.0
+     */
+    @Nonnull
+    public Timer time(final String phase) {
+        final long start = System.nanoTime();
+        return () -> this.phases.computeIfAbsent(phase, k -> new LongAdder()).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Adds the given amount to the given counter
+     * @param counter The name of the counter
+     * @param amount The amount to be added
+     * @since 0.4.0
+     */
+    public void count(final String counter, final long amount) {
+        this.counters.computeIfAbsent(counter, k -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Adds one to the given counter
+     * @param counter The name of the counter
+     * @since 0.4.0
+     */
+    public void increment(final String counter) {
+        this.count(counter, 1L);
+    }
+
+    /**
+     * @param phase The name of the phase
+     * @return The total time spent in the phase, in nanoseconds
+     * @since 0.4.0
+     */
+    public long getPhaseNanos(final String phase) {
+        final LongAdder adder = this.phases.get(phase);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * @param counter The name of the counter
+     * @return The current value of the counter
+     * @since 0.4.0
+     */
+    public long getCount(final String counter) {
+        final LongAdder adder = this.counters.get(counter);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * @return The recorded rounds, in order of processing
+     * @since 0.4.0
+     */
+    @Nonnull
+    public List<Round> getRounds() {
+        synchronized (this.rounds) {
+            return ImmutableList.copyOf(this.rounds);
+        }
+    }
+
+    void recordRound(final long nanos, final int rootElements, final int discoveredElements) {
+        synchronized (this.rounds) {
+            this.rounds.add(new Round(this.rounds.size() + 1, nanos, rootElements, discoveredElements));
+        }
+    }
+
+    /**
+     * Wraps the given messager, counting the diagnostics of each kind printed
+     * through it as {@code diagnostics.<kind>}
+     * @param delegate The messager to be wrapped
+     * @return A counting messager
+     */
+    Messager countDiagnostics(final Messager delegate) {
+        return new Messager() {
+            @Override
+            public void printMessage(final Diagnostic.Kind kind, final CharSequence msg) {
+                ProcessorMetrics.this.countDiagnostic(kind);
+                delegate.printMessage(kind, msg);
+            }
+
+            @Override
+            public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e) {
+                ProcessorMetrics.this.countDiagnostic(kind);
+                delegate.printMessage(kind, msg, e);
+            }
+
+            @Override
+            public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e, final AnnotationMirror a) {
+                ProcessorMetrics.this.countDiagnostic(kind);
+                delegate.printMessage(kind, msg, e, a);
+            }
+
+            @Override
+            public void printMessage(final Diagnostic.Kind kind, final CharSequence msg, final Element e, final AnnotationMirror a, final AnnotationValue v) {
+                ProcessorMetrics.this.countDiagnostic(kind);
+                delegate.printMessage(kind, msg, e, a, v);
+            }
+        };
+    }
+
+    private void countDiagnostic(final Diagnostic.Kind kind) {
+        this.increment("diagnostics." + kind.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes the metrics to the given file, as CSV if the file name ends
+     * with {@code .csv}, and otherwise as JSON
+     * @param file The file to be written to
+     * @throws IOException If the file cannot be written to
+     */
+    void export(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                this.exportCsv(writer);
+            } else {
+                this.exportJson(new JsonWriter(writer));
+            }
+        }
+    }
+
+    private void exportCsv(final Writer writer) throws IOException {
+        writer.write("processor,type,name,value\n");
+        for (final Round round : this.getRounds()) {
+            this.writeCsvRow(writer, "round", round.getIndex() + ".nanos", round.getNanos());
+            this.writeCsvRow(writer, "round", round.getIndex() + ".root_elements", round.getRootElements());
+            this.writeCsvRow(writer, "round", round.getIndex() + ".discovered_elements", round.getDiscoveredElements());
+        }
+        for (final Map.Entry<String, Long> phase : this.snapshot(this.phases).entrySet()) {
+            this.writeCsvRow(writer, "phase", phase.getKey() + ".nanos", phase.getValue());
+        }
+        for (final Map.Entry<String, Long> counter : this.snapshot(this.counters).entrySet()) {
+            this.writeCsvRow(writer, "counter", counter.getKey(), counter.getValue());
+        }
+    }
+
+    private void writeCsvRow(final Writer writer, final String type, final String name, final long value) throws IOException {
+        writer.write(this.processor + "," + type + "," + name + "," + value + "\n");
+    }
+
+    private void exportJson(final JsonWriter json) throws IOException {
+        json.setIndent("  ");
+        json.beginObject();
+        json.name("processor").value(this.processor);
+        json.name("rounds").beginArray();
+        for (final Round round : this.getRounds()) {
+            json.beginObject();
+            json.name("round").value(round.getIndex());
+            json.name("nanos").value(round.getNanos());
+            json.name("root_elements").value(round.getRootElements());
+            json.name("discovered_elements").value(round.getDiscoveredElements());
+            json.endObject();
+        }
+        json.endArray();
+        json.name("phase_nanos").beginObject();
+        for (final Map.Entry<String, Long> phase : this.snapshot(this.phases).entrySet()) {
+            json.name(phase.getKey()).value(phase.getValue());
+        }
+        json.endObject();
+        json.name("counters").beginObject();
+        for (final Map.Entry<String, Long> counter : this.snapshot(this.counters).entrySet()) {
+            json.name(counter.getKey()).value(counter.getValue());
+        }
+        json.endObject();
+        json.endObject();
+        json.flush();
+    }
+
+    private Map<String, Long> snapshot(final Map<String, LongAdder> adders) {
+        final ImmutableSortedMap.Builder<String, Long> builder = ImmutableSortedMap.naturalOrder();
+        adders.forEach((name, adder) -> builder.put(name, adder.sum()));
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProcessorMetrics['%s', %d rounds]", this.processor, this.rounds.size());
+    }
+
+    /**
+     * A timer of a phase, which records the elapsed time when stopped
+     * @since 0.4.0
+     */
+    @FunctionalInterface
+    public interface Timer {
+        /**
+         * Adds the time elapsed since this timer was started to its phase
+         * @since 0.4.0
+         */
+        void stop();
+    }
+
+    /**
+     * The timing and element counts of a single processing round
+     * @since 0.4.0
+     */
+    public static final class Round {
+        private final int index;
+        private final long nanos;
+        private final int rootElements;
+        private final int discoveredElements;
+
+        private Round(final int index, final long nanos, final int rootElements, final int discoveredElements) {
+            this.index = index;
+            this.nanos = nanos;
+            this.rootElements = rootElements;
+            this.discoveredElements = discoveredElements;
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public long getNanos() {
+            return this.nanos;
+        }
+
+        public int getRootElements() {
+            return this.rootElements;
+        }
+
+        public int getDiscoveredElements() {
+            return this.discoveredElements;
+        }
+    }
+}
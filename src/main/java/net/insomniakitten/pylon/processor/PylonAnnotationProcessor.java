@@ -2,33 +2,70 @@ package net.insomniakitten.pylon.processor;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.io.IOConsumer;
+import net.insomniakitten.pylon.io.SourceWriter;
 import net.insomniakitten.pylon.logging.PylonLogger;
+import net.insomniakitten.pylon.processor.model.AnnotationModel;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.processor.model.SourcePosition;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.processing.Completion;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public abstract class PylonAnnotationProcessor implements Processor {
+    private static final String METRICS_OPTION = "pylon.metrics";
+    private static final String LOG_LEVEL_OPTION = "pylon.logLevel";
+    private static final String PARALLELISM_OPTION = "pylon.parallelism";
+    private static final int LOG_ELEMENT_LIMIT = 8;
+
     private final Set<String> supportedAnnotationTypes;
+    private final Set<String> supportedOptions;
+    private final Map<String, Set<SourcePosition>> discoveredElements = new HashMap<>();
     private ProcessingEnvironment environment;
-    private final PylonLogger logger = PylonLogger.of(
-        this.getProcessorName(), () -> this.getEnvironment().getMessager()
+    private final ProcessorMetrics metrics = new ProcessorMetrics(this.getProcessorName());
+    private final PylonLogger logger = PylonLogger.buffered(
+        this.getProcessorName(), () -> this.getMetrics().countDiagnostics(this.getEnvironment().getMessager()),
+        this::getLogLevel, PylonAnnotationProcessor.LOG_ELEMENT_LIMIT
     );
 
+    @Nullable
+    private ParallelStage parallelStage;
     private boolean initialized;
 
     {
@@ -37,12 +74,53 @@ public abstract class PylonAnnotationProcessor implements Processor {
         this.supportedAnnotationTypes = builder.build();
     }
 
+    {
+        final ImmutableSet.Builder<String> builder = new ImmutableSet.Builder<>();
+        builder.add(this.getIncrementalType().getOption());
+        builder.add(PylonAnnotationProcessor.METRICS_OPTION);
+        builder.add(PylonAnnotationProcessor.LOG_LEVEL_OPTION);
+        builder.add(PylonAnnotationProcessor.PARALLELISM_OPTION);
+        this.getSupportedOptions(builder);
+        this.supportedOptions = builder.build();
+    }
+
     protected abstract String getProcessorName();
 
     protected abstract void getSupportedAnnotations(final ImmutableSet.Builder<String> builder);
 
+    /**
+     * Appends the names of the processor options recognized by this processor,
+     * which are passed to the compiler as {@code -A<name>=<value>}
+     * @param builder The builder to append option names to
+     * @since 0.4.0
+     */
+    protected void getSupportedOptions(final ImmutableSet.Builder<String> builder) {}
+
+    /**
+     * Invoked once, in the final round of processing, after the elements of
+     * every prior round have been discovered. Discovered elements can be
+     * retrieved with {@link #collectAnnotationsFor(Class, Predicate)}
+     * @param environment The environment of the final round
+     * @return True if the supported annotations were claimed
+     */
     protected abstract boolean onProcessAnnotations(final RoundEnvironment environment);
 
+    /**
+     * Invoked at the end of every round prior to the final round in which new
+     * elements were discovered. Source files must be generated here, as any
+     * created in the final round are not subject to further processing
+     * @param environment The environment of the current round
+     * @since 0.4.0
+     */
+    protected void onElementsDiscovered(final RoundEnvironment environment) {}
+
+    /**
+     * The category of incremental processing this processor conforms to,
+     * declared to Gradle through {@link #getSupportedOptions()}
+     * @since 0.4.0
+     */
+    protected abstract IncrementalType getIncrementalType();
+
     @Override
     public Set<String> getSupportedAnnotationTypes() {
         return this.supportedAnnotationTypes;
@@ -60,6 +138,16 @@ public abstract class PylonAnnotationProcessor implements Processor {
         return this.logger;
     }
 
+    /**
+     * The metrics of this processor, to which subclasses can add their own
+     * phase timings and counters. Metrics are exported to the path given by
+     * the {@code pylon.metrics} option at the end of processing
+     * @since 0.4.0
+     */
+    public ProcessorMetrics getMetrics() {
+        return this.metrics;
+    }
+
     public boolean isInitialized() {
         return this.initialized;
     }
@@ -70,7 +158,30 @@ public abstract class PylonAnnotationProcessor implements Processor {
 
     @Override
     public Set<String> getSupportedOptions() {
-        return Collections.emptySet();
+        return this.supportedOptions;
+    }
+
+    /**
+     * Retrieves the value of the given processor option
+     * @param option The name of the option
+     * @return The value of the option, or null if it was not passed
+     * @since 0.4.0
+     */
+    @Nullable
+    protected final String getOption(final String option) {
+        return this.getEnvironment().getOptions().get(option);
+    }
+
+    /**
+     * Determines if the given processor option is enabled, which is the case
+     * when the option is passed without a value, or with any value but false
+     * @param option The name of the option
+     * @return True if the option is enabled
+     * @since 0.4.0
+     */
+    protected final boolean isOptionEnabled(final String option) {
+        final Map<String, String> options = this.getEnvironment().getOptions();
+        return options.containsKey(option) && !"false".equalsIgnoreCase(options.get(option));
     }
 
     @Override
@@ -89,7 +200,204 @@ public abstract class PylonAnnotationProcessor implements Processor {
 
     @Override
     public final boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment environment) {
-        return this.onProcessAnnotations(environment);
+        try {
+            return this.processRound(annotations, environment);
+        } finally {
+            if (environment.processingOver()) {
+                this.logger.reset();
+            } else {
+                this.logger.flush();
+            }
+        }
+    }
+
+    private boolean processRound(final Set<? extends TypeElement> annotations, final RoundEnvironment environment) {
+        final long start = System.nanoTime();
+        final int rootElements = environment.getRootElements().size();
+
+        if (environment.processingOver()) {
+            final boolean claimed;
+            try {
+                claimed = this.onProcessAnnotations(environment);
+            } finally {
+                this.discoveredElements.clear();
+                if (this.parallelStage != null) {
+                    this.parallelStage.close();
+                    this.parallelStage = null;
+                }
+            }
+            this.metrics.recordRound(System.nanoTime() - start, rootElements, 0);
+            this.exportMetrics();
+            return claimed;
+        }
+
+        int discovered = 0;
+        final ProcessorMetrics.Timer discovery = this.metrics.time(ProcessorMetrics.DISCOVERY);
+        try {
+            for (final TypeElement annotation : annotations) {
+                final String name = annotation.getQualifiedName().toString();
+                final Set<SourcePosition> positions = this.discoveredElements.computeIfAbsent(name, k -> new LinkedHashSet<>());
+                for (final Element element : environment.getElementsAnnotatedWith(annotation)) {
+                    // Elements are recorded by name, as those of a prior round may be stale in later rounds
+                    final SourcePosition position = PylonAnnotationProcessor.getPosition(element, name);
+                    if (position != null && positions.add(position)) {
+                        ++discovered;
+                    }
+                }
+            }
+        } finally {
+            discovery.stop();
+        }
+
+        if (discovered > 0) {
+            this.onElementsDiscovered(environment);
+        }
+
+        this.metrics.recordRound(System.nanoTime() - start, rootElements, discovered);
+        return false;
+    }
+
+    /**
+     * The minimum level of messages printed by the logger of this processor,
+     * given by the {@code pylon.logLevel} option as one of note, warn, or error
+     */
+    private PylonLogger.Level getLogLevel() {
+        final String level = this.getOption(PylonAnnotationProcessor.LOG_LEVEL_OPTION);
+
+        if (level != null) {
+            for (final PylonLogger.Level value : PylonLogger.Level.values()) {
+                if (value.name().equalsIgnoreCase(level)) {
+                    return value;
+                }
+            }
+            this.getEnvironment().getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "[" + this.getProcessorName() + "] Unknown log level '" + level + "', expected note, warn, or error");
+        }
+
+        return PylonLogger.Level.NOTE;
+    }
+
+    /**
+     * The number of threads used by {@link #mapInParallel(List, Function)},
+     * given by the {@code pylon.parallelism} option, and otherwise the number
+     * of available processors
+     */
+    private int getParallelism() {
+        final String parallelism = this.getOption(PylonAnnotationProcessor.PARALLELISM_OPTION);
+
+        if (parallelism != null) {
+            try {
+                return Math.max(1, Integer.parseInt(parallelism.trim()));
+            } catch (final NumberFormatException e) {
+                this.getLogger().warn("Invalid parallelism '" + parallelism + "', expected a positive integer");
+            }
+        }
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Applies the given function to every input on a fork-join pool shared by
+     * this processor, returning the outputs in the order of their inputs. The
+     * function must not access the compiler, as its elements, types, filer,
+     * and messager are not thread-safe; messages should instead be returned
+     * as {@link Report}s and passed to {@link #report(Report)}
+     * @param inputs The inputs to be mapped
+     * @param function The thread-safe function to be applied
+     * @return An immutable list of the outputs
+     * @since 0.4.0
+     */
+    @Nonnull
+    protected final <T, R> List<R> mapInParallel(final List<T> inputs, final Function<? super T, ? extends R> function) {
+        if (this.parallelStage == null) {
+            this.parallelStage = new ParallelStage(this.getParallelism());
+        }
+        return this.parallelStage.map(inputs, function);
+    }
+
+    /**
+     * Prints the given report through the logger of this processor, resolving
+     * its position to the element, annotation, and value it concerns. This
+     * must be invoked on the processing thread
+     * @param report The report to be printed
+     * @since 0.4.0
+     */
+    protected final void report(final Report report) {
+        final PylonLogger.Level level = report.getLevel();
+        final SourcePosition position = report.getPosition();
+        final Element element = position != null ? position.resolve(this.getEnvironment().getElementUtils()).orElse(null) : null;
+
+        if (position == null || element == null) {
+            this.log(level, report.getMessage(), null, null, null);
+            return;
+        }
+
+        final AnnotationMirror mirror = AnnotationModel.findMirror(element, position.getAnnotation()).orElse(null);
+        AnnotationValue value = null;
+
+        if (mirror != null && position.getMember() != null) {
+            for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals(position.getMember())) {
+                    value = entry.getValue();
+                }
+            }
+        }
+
+        this.log(level, report.getMessage(), element, mirror, value);
+    }
+
+    private void log(final PylonLogger.Level level, final String message, @Nullable final Element element, @Nullable final AnnotationMirror mirror, @Nullable final AnnotationValue value) {
+        final PylonLogger logger = this.getLogger();
+
+        if (element == null) {
+            switch (level) {
+                case NOTE: logger.note(message); break;
+                case WARN: logger.warn(message); break;
+                default: logger.error(message); break;
+            }
+        } else if (mirror == null) {
+            switch (level) {
+                case NOTE: logger.note(message, element); break;
+                case WARN: logger.warn(message, element); break;
+                default: logger.error(message, element); break;
+            }
+        } else if (value == null) {
+            switch (level) {
+                case NOTE: logger.note(message, element, mirror); break;
+                case WARN: logger.warn(message, element, mirror); break;
+                default: logger.error(message, element, mirror); break;
+            }
+        } else {
+            switch (level) {
+                case NOTE: logger.note(message, element, mirror, value); break;
+                case WARN: logger.warn(message, element, mirror, value); break;
+                default: logger.error(message, element, mirror, value); break;
+            }
+        }
+    }
+
+    /**
+     * Exports the metrics of this processor, if the {@code pylon.metrics}
+     * option names a file to export to by its absolute path
+     */
+    private void exportMetrics() {
+        final String path = this.getOption(PylonAnnotationProcessor.METRICS_OPTION);
+
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+
+        try {
+            final Path file = Paths.get(path);
+            // Relative paths would resolve against the working directory of the compiler, such as a Gradle daemon
+            if (!file.isAbsolute()) {
+                this.getLogger().warn("Metrics path '" + path + "' is not absolute, skipping export");
+                return;
+            }
+            this.metrics.export(file);
+        } catch (final IOException | InvalidPathException e) {
+            this.getLogger().warn("Failed to export metrics to '" + path + "': " + e.getMessage());
+        }
     }
 
     @Override
@@ -97,15 +405,168 @@ public abstract class PylonAnnotationProcessor implements Processor {
         return Collections.emptySet();
     }
 
+    /**
+     * Opens a {@link SourceWriter} for a new source file and feeds it to the
+     * given {@link IOConsumer}. The source file will be compiled alongside
+     * the sources of the current compilation
+     * @param name The fully qualified name of the type to be generated
+     * @param originatingElements The elements the type is generated from
+     * @param consumer The consumer to accept the writer
+     * @throws IOException If the source file cannot be written to
+     * @since 0.4.0
+     */
+    protected final void openSourceWriter(final String name, final Element[] originatingElements, final IOConsumer<SourceWriter> consumer) throws IOException {
+        final StringWriter buffer = new StringWriter();
+
+        final ProcessorMetrics.Timer generation = this.metrics.time(ProcessorMetrics.GENERATION);
+        try {
+            try (final SourceWriter writer = new SourceWriter(buffer)) {
+                consumer.accept(writer);
+            }
+        } finally {
+            generation.stop();
+        }
+
+        final ProcessorMetrics.Timer output = this.metrics.time(ProcessorMetrics.OUTPUT);
+        try {
+            final String source = buffer.toString();
+            final JavaFileObject file = this.getEnvironment().getFiler().createSourceFile(name, originatingElements);
+            try (final Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+            this.metrics.increment(ProcessorMetrics.FILES_WRITTEN);
+            this.metrics.count(ProcessorMetrics.BYTES_WRITTEN, source.getBytes(StandardCharsets.UTF_8).length);
+        } finally {
+            output.stop();
+        }
+    }
+
+    /**
+     * Retrieves the elements annotated with the given type that were
+     * discovered across all rounds of processing, in discovery order. Elements
+     * are resolved by name against the current round on every invocation, so
+     * the returned elements must not be retained beyond the current round
+     * @param type The annotation type
+     * @return An immutable set of the discovered elements
+     * @since 0.4.0
+     */
+    @Nonnull
+    protected final Set<Element> getDiscoveredElements(final Class<? extends Annotation> type) {
+        final Set<SourcePosition> positions = this.discoveredElements.get(type.getCanonicalName());
+
+        if (positions == null) {
+            return Collections.emptySet();
+        }
+
+        final Elements utils = this.getEnvironment().getElementUtils();
+        final Set<Element> elements = new LinkedHashSet<>(positions.size());
+
+        for (final SourcePosition position : positions) {
+            position.resolve(utils).ifPresent(elements::add);
+        }
+
+        return Collections.unmodifiableSet(elements);
+    }
+
+    /**
+     * Records the position of the given annotated element by name, so that it
+     * can be resolved again in later rounds
+     * @param element The annotated element
+     * @param annotation The qualified name of the annotation type
+     * @return The position of the element, or null if it is neither a named
+     *         type nor a package, and so cannot be resolved by name
+     */
+    @Nullable
+    private static SourcePosition getPosition(final Element element, final String annotation) {
+        if (element instanceof TypeElement) {
+            final String name = ((TypeElement) element).getQualifiedName().toString();
+            return name.isEmpty() ? null : SourcePosition.forType(name, annotation);
+        }
+        if (element instanceof PackageElement) {
+            return SourcePosition.forPackage(((PackageElement) element).getQualifiedName().toString(), annotation);
+        }
+        return null;
+    }
+
     @Nonnull
-    protected final <T extends Annotation> Map<Element, T> collectAnnotationsFor(final RoundEnvironment environment, final Class<T> type, final Predicate<Element> filter) {
-        return environment.getElementsAnnotatedWith(type).stream().filter(filter)
-            .collect(ImmutableMap.toImmutableMap(Function.identity(), it -> it.getAnnotation(type)));
+    protected final <T extends Annotation> Map<Element, T> collectAnnotationsFor(final Class<T> type, final Predicate<Element> filter) {
+        return this.collectAnnotationsFor(type, filter, null);
     }
 
     @Nonnull
-    protected final <T extends Annotation> Map<Element, T> collectAnnotationsFor(final RoundEnvironment environment, final Class<T> type, final Predicate<Element> filter, final Comparator<Element> sorter) {
-        return environment.getElementsAnnotatedWith(type).stream().filter(filter).sorted(sorter)
-            .collect(ImmutableMap.toImmutableMap(Function.identity(), it -> it.getAnnotation(type)));
+    protected final <T extends Annotation> Map<Element, T> collectAnnotationsFor(final Class<T> type, final Predicate<Element> filter, @Nullable final Comparator<Element> sorter) {
+        final List<Element> elements;
+
+        final ProcessorMetrics.Timer validation = this.metrics.time(ProcessorMetrics.VALIDATION);
+        try {
+            elements = this.getDiscoveredElements(type).stream().filter(filter).collect(Collectors.toList());
+        } finally {
+            validation.stop();
+        }
+
+        if (sorter != null) {
+            final ProcessorMetrics.Timer sorting = this.metrics.time(ProcessorMetrics.SORTING);
+            try {
+                elements.sort(sorter);
+            } finally {
+                sorting.stop();
+            }
+        }
+
+        final ProcessorMetrics.Timer collection = this.metrics.time(ProcessorMetrics.COLLECTION);
+        try {
+            this.metrics.count("elements." + type.getSimpleName().toLowerCase(Locale.ROOT), elements.size());
+            return elements.stream().collect(ImmutableMap.toImmutableMap(Function.identity(), it -> it.getAnnotation(type)));
+        } finally {
+            collection.stop();
+        }
+    }
+
+    /**
+     * Collects the discovered elements annotated with the given type that pass
+     * the given filter, extracting a model of each annotation from its mirror.
+     * Models are sorted after extraction, so that comparators read the values
+     * of the model rather than querying the annotation of each element again
+     * @param type The annotation type
+     * @param filter The filter validating each element
+     * @param extractor The function creating a model from an element and its mirror
+     * @param sorter The comparator to sort models by, or null to keep discovery order
+     * @return An immutable list of the models of valid elements
+     * @since 0.4.0
+     */
+    @Nonnull
+    protected final <R extends AnnotationModel<?>> List<R> collectModelsFor(final Class<? extends Annotation> type, final Predicate<Element> filter, final BiFunction<Element, AnnotationMirror, R> extractor, @Nullable final Comparator<? super R> sorter) {
+        final List<Element> elements;
+
+        final ProcessorMetrics.Timer validation = this.metrics.time(ProcessorMetrics.VALIDATION);
+        try {
+            elements = this.getDiscoveredElements(type).stream().filter(filter).collect(Collectors.toList());
+        } finally {
+            validation.stop();
+        }
+
+        final List<R> models = new ArrayList<>(elements.size());
+
+        final ProcessorMetrics.Timer collection = this.metrics.time(ProcessorMetrics.COLLECTION);
+        try {
+            this.metrics.count("elements." + type.getSimpleName().toLowerCase(Locale.ROOT), elements.size());
+            for (final Element element : elements) {
+                final Optional<AnnotationMirror> mirror = AnnotationModel.findMirror(element, type);
+                mirror.ifPresent(it -> models.add(extractor.apply(element, it)));
+            }
+        } finally {
+            collection.stop();
+        }
+
+        if (sorter != null) {
+            final ProcessorMetrics.Timer sorting = this.metrics.time(ProcessorMetrics.SORTING);
+            try {
+                models.sort(sorter);
+            } finally {
+                sorting.stop();
+            }
+        }
+
+        return Collections.unmodifiableList(models);
     }
 }
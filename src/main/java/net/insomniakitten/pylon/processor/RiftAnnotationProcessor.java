@@ -1,27 +1,59 @@
 package net.insomniakitten.pylon.processor;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
-import com.google.gson.stream.JsonWriter;
+import com.google.common.collect.Multiset;
 import net.insomniakitten.pylon.Pylon;
 import net.insomniakitten.pylon.annotation.rift.Listener;
+import net.insomniakitten.pylon.annotation.rift.MixinConfig;
 import net.insomniakitten.pylon.annotation.rift.Mod;
-import net.insomniakitten.pylon.ref.Side;
-
+import net.insomniakitten.pylon.processor.emit.BufferedEmitterContext;
+import net.insomniakitten.pylon.processor.emit.DescriptorEmitter;
+import net.insomniakitten.pylon.processor.model.AnnotationModel;
+import net.insomniakitten.pylon.processor.model.ListenerModel;
+import net.insomniakitten.pylon.processor.model.MixinModel;
+import net.insomniakitten.pylon.processor.model.ModModel;
+import net.insomniakitten.pylon.processor.model.ModSnapshot;
+import net.insomniakitten.pylon.processor.model.ModuleSnapshot;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.processor.model.SnapshotValidator;
+import net.insomniakitten.pylon.runtime.ListenerBootstrap;
+
+import javax.annotation.Nullable;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
-import javax.lang.model.element.Name;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class RiftAnnotationProcessor extends JsonAnnotationProcessor {
+    private final Map<String, Set<String>> bootstrapListeners = new HashMap<>();
+    private final Set<String> bootstrapSkipped = new HashSet<>();
+    private List<DescriptorEmitter> emitters = ImmutableList.of();
+    @Nullable
+    private SupertypeCache supertypes;
+    @Nullable
+    private Boolean riftPresent;
+    @Nullable
+    private Boolean mixinPresent;
+
     @Override
     protected String getProcessorName() {
         return "pylon.rift";
@@ -32,49 +64,161 @@ public final class RiftAnnotationProcessor extends JsonAnnotationProcessor {
         builder.add("net.insomniakitten.pylon.annotation.rift.*");
     }
 
+    @Override
+    protected void getSupportedOptions(final ImmutableSet.Builder<String> builder) {
+        builder.add(Constants.EMITTERS_OPTION);
+        builder.add(Constants.TIMING_OPTION);
+        for (final DescriptorEmitter emitter : DescriptorEmitter.loadAll(RiftAnnotationProcessor.class.getClassLoader())) {
+            emitter.getSupportedOptions(builder);
+        }
+    }
+
+    @Override
+    protected IncrementalType getIncrementalType() {
+        return IncrementalType.AGGREGATING;
+    }
+
+    @Override
+    public void init(final ProcessingEnvironment environment) {
+        super.init(environment);
+        this.emitters = DescriptorEmitter.loadAll(RiftAnnotationProcessor.class.getClassLoader());
+        this.supertypes = new SupertypeCache(environment.getTypeUtils());
+    }
+
+    @Override
+    protected void onElementsDiscovered(final RoundEnvironment environment) {
+        try {
+            this.generateListenerBootstraps();
+        } finally {
+            // Resolved types belong to this round, and must not be reused by the next
+            this.getSupertypes().clear();
+        }
+    }
+
+    /**
+     * Generates the listener bootstrap of every mod whose listeners have all
+     * been discovered and are bootstrappable, unless one was already generated
+     */
+    private void generateListenerBootstraps() {
+        final List<Element> modElements = ImmutableList.copyOf(this.getDiscoveredElements(Mod.class));
+        final List<Element> listenerElements = ImmutableList.copyOf(this.getDiscoveredElements(Listener.class));
+
+        if (modElements.isEmpty() || listenerElements.isEmpty()) {
+            return;
+        }
+
+        final Multiset<String> packages = modElements.stream().map(this::getPackageName).collect(Collectors.toCollection(HashMultiset::create));
+        final Map<Element, List<Element>> scopes = ModScopes.assign(modElements, this::getPackageName, listenerElements, this::getPackageName, listener -> {});
+
+        for (final Entry<Element, List<Element>> scope : scopes.entrySet()) {
+            final Element modElement = scope.getKey();
+            final List<Element> scopedElements = scope.getValue();
+
+            if (scopedElements.isEmpty() || packages.count(this.getPackageName(modElement)) > 1) {
+                continue;
+            }
+
+            // Mods are recorded by the name of their bootstrap, as elements are not retained across rounds
+            final String bootstrapName = this.getBootstrapName(modElement);
+
+            if (this.bootstrapListeners.containsKey(bootstrapName) || this.bootstrapSkipped.contains(bootstrapName)) {
+                continue;
+            }
+
+            if (!this.isBootstrappable(scopedElements)) {
+                this.bootstrapSkipped.add(bootstrapName);
+                continue;
+            }
+
+            final List<ListenerModel> listeners = scopedElements.stream()
+                .map(element -> this.getListenerModel(element, AnnotationModel.findMirror(element, Listener.class).orElseThrow(IllegalStateException::new)))
+                .sorted(ListenerModel.ORDER).collect(ImmutableList.toImmutableList());
+
+            try {
+                this.generateListenerBootstrap(modElement, listeners);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            this.bootstrapListeners.put(bootstrapName, listeners.stream().map(ListenerModel::getBinaryName).collect(ImmutableSet.toImmutableSet()));
+        }
+    }
+
     @Override
     protected boolean onProcessAnnotations(final RoundEnvironment environment) {
-        final Map<Element, Mod> modElements = this.collectDiscoveredMods(environment);
-        final Map<Element, Listener> listenerElements = this.collectDiscoveredListeners(environment);
+        final List<ModModel> mods = this.collectDiscoveredMods();
+        final List<ListenerModel> listeners = this.collectDiscoveredListeners();
+        final List<MixinModel> mixins = this.collectDiscoveredMixins();
 
-        if (modElements.isEmpty() && !listenerElements.isEmpty()) {
+        if (mods.isEmpty() && !(listeners.isEmpty() && mixins.isEmpty())) {
             this.getLogger().warn("No @Mod annotation discovered in environment");
             return false;
         }
 
-        if (modElements.isEmpty()) {
+        if (mods.isEmpty()) {
             this.getLogger().note("No @Mod annotation discovered in environment");
             return false;
         }
 
-        if (modElements.size() > 1) {
-            this.getLogger().note("More than one @Mod annotation discovered in environment");
-            return false;
+        if (!this.checkModPackages(mods)) {
+            return true;
         }
 
-        try {
-            this.openJsonWriter(Constants.FILE, json -> {
-                json.beginObject();
+        if (listeners.isEmpty()) {
+            this.getLogger().note("No @Listener annotations discovered in environment");
+        }
 
-                json.name(Constants.COMMENT).value(Constants.GENERATED + Pylon.VERSION);
+        final Element[] originatingElements = Stream.concat(
+            Stream.concat(mods.stream().map(ModModel::getElement), listeners.stream().map(ListenerModel::getElement)),
+            mixins.stream().map(MixinModel::getElement)
+        ).toArray(Element[]::new);
 
-                this.appendModToWriter(Iterables.getOnlyElement(modElements.entrySet()), json);
+        final Map<ModModel, List<ListenerModel>> scopes = ModScopes.assign(mods, ModModel::getPackage, listeners, ListenerModel::getPackage, listener ->
+            this.getLogger().warn("@Listener is not within the package of any @Mod", listener.getElement(), listener.getMirror())
+        );
 
-                if (listenerElements.isEmpty()) {
-                    this.getLogger().note("No @Listener annotations discovered in environment");
-                } else {
-                    json.name(Constants.LISTENERS);
-                    json.beginArray();
+        final Map<ModModel, List<MixinModel>> mixinScopes = ModScopes.assign(mods, ModModel::getPackage, mixins, MixinModel::getPackage, mixin ->
+            this.getLogger().warn("@MixinConfig is not within the package of any @Mod", mixin.getElement(), mixin.getMirror())
+        );
 
-                    for (final Entry<Element, Listener> entry : listenerElements.entrySet()) {
-                        this.appendListenerToWriter(entry, json);
-                    }
+        final ImmutableList.Builder<ModSnapshot> snapshots = ImmutableList.builder();
 
-                    json.endArray();
-                }
+        for (final Entry<ModModel, List<ListenerModel>> scope : scopes.entrySet()) {
+            final Element modElement = scope.getKey().getElement();
+            final Set<String> bootstrapped = this.bootstrapListeners.get(this.getBootstrapName(modElement));
+            final Set<String> scopedListeners = scope.getValue().stream().map(ListenerModel::getBinaryName).collect(ImmutableSet.toImmutableSet());
+            final boolean bootstrap = scopedListeners.equals(bootstrapped);
+
+            if (!bootstrap && bootstrapped != null) {
+                this.getLogger().note("@Listener discovered after bootstrap generation, omitting bootstrap", modElement);
+            }
+
+            snapshots.add(scope.getKey().snapshot(
+                scope.getValue().stream().map(ListenerModel::snapshot).collect(ImmutableList.toImmutableList()),
+                mixinScopes.get(scope.getKey()).stream().map(MixinModel::snapshot).collect(ImmutableList.toImmutableList()),
+                bootstrap ? this.getBootstrapName(modElement) : null
+            ));
+        }
 
-                json.endObject();
-            });
+        final ModuleSnapshot snapshot = new ModuleSnapshot(snapshots.build());
+
+        this.getMetrics().count("supertypes.hits", this.getSupertypes().getHits());
+        this.getMetrics().count("supertypes.misses", this.getSupertypes().getMisses());
+        this.getSupertypes().clear();
+
+        final List<Report> reports = Stream.concat(
+            SnapshotValidator.validateIds(snapshot).stream(),
+            this.mapInParallel(snapshot.getMods(), SnapshotValidator::validateMod).stream().flatMap(List::stream)
+        ).collect(ImmutableList.toImmutableList());
+
+        reports.forEach(this::report);
+
+        if (reports.stream().anyMatch(Report::isError)) {
+            return true;
+        }
+
+        try {
+            this.emitDescriptors(snapshot, originatingElements);
         } catch (final IOException e) {
             throw new RuntimeException(e);
         }
@@ -82,8 +226,8 @@ public final class RiftAnnotationProcessor extends JsonAnnotationProcessor {
         return true;
     }
 
-    private Map<Element, Mod> collectDiscoveredMods(final RoundEnvironment environment) {
-        return this.collectAnnotationsFor(environment, Mod.class, element -> {
+    private List<ModModel> collectDiscoveredMods() {
+        return this.collectModelsFor(Mod.class, element -> {
             if (!(element instanceof TypeElement) && !(element instanceof PackageElement)) {
                 this.getLogger().error("@Mod applied to non-type/non-package element", element);
                 return false;
@@ -97,11 +241,11 @@ public final class RiftAnnotationProcessor extends JsonAnnotationProcessor {
             }
 
             return true;
-        });
+        }, (element, mirror) -> new ModModel(element, mirror, this.getEnvironment().getElementUtils()), null);
     }
 
-    private Map<Element, Listener> collectDiscoveredListeners(final RoundEnvironment environment) {
-        return this.collectAnnotationsFor(environment, Listener.class, element -> {
+    private List<ListenerModel> collectDiscoveredListeners() {
+        return this.collectModelsFor(Listener.class, element -> {
             if (!(element instanceof TypeElement)) {
                 this.getLogger().error("@Listener applied to non-type element", element);
                 return false;
@@ -114,91 +258,243 @@ public final class RiftAnnotationProcessor extends JsonAnnotationProcessor {
                 }
             }
 
-            if (((TypeElement) element).getInterfaces().isEmpty()) {
+            final Set<TypeElement> interfaces = this.getSupertypes().getInterfaces((TypeElement) element);
+
+            if (interfaces.isEmpty()) {
                 this.getLogger().warn("@Listener does not implement any interfaces", element);
+            } else if (this.isRiftPresent() && interfaces.stream().noneMatch(this::isListenerInterface)) {
+                this.getLogger().warn("@Listener does not implement any Rift listener interfaces", element);
             }
 
             return true;
-        }, Comparator.comparingInt(element -> element.getAnnotation(Listener.class).priority()));
+        }, this::getListenerModel, ListenerModel.ORDER);
     }
 
-    private void appendModToWriter(final Entry<Element, Mod> entry, final JsonWriter writer) throws IOException {
-        final Element element = entry.getKey();
-        final Mod mod = entry.getValue();
+    private List<MixinModel> collectDiscoveredMixins() {
+        return this.collectModelsFor(MixinConfig.class, element -> {
+            if (!(element instanceof TypeElement)) {
+                this.getLogger().error("@MixinConfig applied to non-type element", element);
+                return false;
+            }
 
-        if (mod.id().isEmpty()) {
-            this.getLogger().error("Empty value 'id' in @Mod", element);
-            return;
-        } else {
-            writer.name(Constants.ID).value(mod.id());
+            if (!(element.getEnclosingElement() instanceof PackageElement)) {
+                if (!element.getModifiers().contains(Modifier.STATIC)) {
+                    this.getLogger().error("@MixinConfig is not top-level or static", element);
+                    return false;
+                }
+            }
+
+            if (this.isMixinPresent() && !AnnotationModel.findMirror(element, Constants.MIXIN_ANNOTATION).isPresent()) {
+                this.getLogger().warn("@MixinConfig applied to type not annotated with @Mixin", element);
+            }
+
+            return true;
+        }, (element, mirror) -> new MixinModel((TypeElement) element, mirror, this.getEnvironment().getElementUtils()),
+            Comparator.comparing(MixinModel::getBinaryName));
+    }
+
+    /**
+     * Reports an error for every mod declared in the same package as another
+     * mod, as their scopes, and their generated bootstraps, would collide
+     * @param mods The discovered mods
+     * @return True if every mod has its own package
+     */
+    private boolean checkModPackages(final List<ModModel> mods) {
+        final Map<String, ModModel> packages = new HashMap<>();
+        boolean valid = true;
+
+        for (final ModModel mod : mods) {
+            final ModModel existing = packages.putIfAbsent(mod.getPackage(), mod);
+            if (existing != null) {
+                this.getLogger().error("@Mod declared in the same package as @Mod '" + existing.getId() + "'", mod.getElement(), mod.getMirror());
+                valid = false;
+            }
         }
 
-        if (mod.name().isEmpty()) {
-            this.getLogger().note("Empty value 'name' in @Mod, substituting '" + mod.id() + "'");
-            writer.name(Constants.NAME).value(mod.id());
-        } else {
-            writer.name(Constants.NAME).value(mod.name());
+        return valid;
+    }
+
+    /**
+     * Determines if a bootstrap can be generated for the given listeners,
+     * noting the first listener that cannot be constructed directly
+     * @param listenerElements The listeners of a mod
+     * @return True if every listener can be constructed by the bootstrap
+     */
+    private boolean isBootstrappable(final List<Element> listenerElements) {
+        for (final Element element : listenerElements) {
+            if (!(element instanceof TypeElement) || !ListenerBootstrapWriter.isDirectlyConstructible((TypeElement) element)) {
+                this.getLogger().note("@Listener has no public no-args constructor, skipping bootstrap generation", element);
+                return false;
+            }
         }
+        return true;
+    }
 
-        if (mod.version().isEmpty()) {
-            this.getLogger().error("Empty value 'version' in @Mod", element);
-        } else {
-            writer.name(Constants.VERSION).value(mod.version());
+    /**
+     * @param element The element to be inspected
+     * @return The qualified name of the package of the element
+     */
+    private String getPackageName(final Element element) {
+        return this.getEnvironment().getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * Extracts the model of the given listener from its mirror. Models are
+     * not retained across rounds, as they hold the elements of the round in
+     * which they were extracted
+     * @param element The element annotated with {@link Listener}
+     * @param mirror The mirror of the annotation
+     * @return The model of the listener
+     */
+    private ListenerModel getListenerModel(final Element element, final AnnotationMirror mirror) {
+        final Set<TypeElement> interfaces = this.getSupertypes().getInterfaces((TypeElement) element);
+        final Set<TypeElement> listenerInterfaces = interfaces.stream().filter(this::isListenerInterface).collect(ImmutableSet.toImmutableSet());
+        return new ListenerModel((TypeElement) element, mirror, this.getEnvironment().getElementUtils(), interfaces, listenerInterfaces);
+    }
+
+    private SupertypeCache getSupertypes() {
+        if (this.supertypes == null) {
+            throw new IllegalStateException("Not initialized");
         }
+        return this.supertypes;
+    }
 
-        writer.name(Constants.SIDE).value(mod.side().getName());
+    /**
+     * Determines if the given interface is a listener interface. When Rift is
+     * on the compile classpath, only the interfaces of its listener package
+     * are listener interfaces, and otherwise every interface is assumed to be
+     * @param type The interface to be checked
+     * @return True if the interface is a listener interface
+     */
+    private boolean isListenerInterface(final TypeElement type) {
+        if (!this.isRiftPresent()) {
+            return true;
+        }
+        final String pkg = this.getPackageName(type);
+        return ModScopes.isWithin(pkg, Constants.RIFT_LISTENER_PACKAGE);
+    }
+
+    /**
+     * @return True if the mixin annotation is on the compile classpath
+     */
+    private boolean isMixinPresent() {
+        if (this.mixinPresent == null) {
+            this.mixinPresent = this.getEnvironment().getElementUtils().getTypeElement(Constants.MIXIN_ANNOTATION) != null;
+        }
+        return this.mixinPresent;
+    }
+
+    /**
+     * @return True if the listener package of Rift is on the compile classpath
+     */
+    private boolean isRiftPresent() {
+        if (this.riftPresent == null) {
+            this.riftPresent = this.getEnvironment().getElementUtils().getPackageElement(Constants.RIFT_LISTENER_PACKAGE) != null;
+        }
+        return this.riftPresent;
+    }
+
+    /**
+     * Runs every selected emitter over the given snapshot in parallel, and
+     * writes their files on the processing thread once all have completed
+     * @param snapshot The validated snapshot of every mod
+     * @param originatingElements The elements the files are generated from
+     * @throws IOException If a file cannot be written to
+     */
+    private void emitDescriptors(final ModuleSnapshot snapshot, final Element[] originatingElements) throws IOException {
+        final List<DescriptorEmitter> emitters = this.getEmitters();
+        // Options are copied on the processing thread, as the environment is not thread-safe
+        final Map<String, String> options = Collections.unmodifiableMap(new HashMap<>(this.getEnvironment().getOptions()));
+        final List<Map<String, byte[]>> outputs = this.mapInParallel(emitters, emitter -> {
+            final BufferedEmitterContext context = new BufferedEmitterContext(options, this.getMetrics());
+            try {
+                emitter.emit(snapshot, context);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return context.getFiles();
+        });
 
-        if (mod.authors().length > 0) {
-            writer.name(Constants.AUTHORS);
-            writer.beginArray();
-            for (final String author : mod.authors()) {
-                if (author.isEmpty()) {
-                    this.getLogger().error("Empty element in value 'authors' in @Mod", element);
+        final Map<String, String> owners = new HashMap<>();
+
+        for (int index = 0; index < emitters.size(); ++index) {
+            final String name = emitters.get(index).getName();
+            for (final Entry<String, byte[]> file : outputs.get(index).entrySet()) {
+                final String owner = owners.putIfAbsent(file.getKey(), name);
+                if (owner != null) {
+                    this.getLogger().error("Emitter '" + name + "' wrote '" + file.getKey() + "', already written by emitter '" + owner + "'");
                     continue;
                 }
-                writer.value(author);
+                this.writeResource(file.getKey(), file.getValue(), originatingElements);
             }
-            writer.endArray();
         }
     }
 
-    private void appendListenerToWriter(final Entry<Element, Listener> entry, final JsonWriter writer) throws IOException {
-        final TypeElement element = (TypeElement) entry.getKey();
-        final Listener listener = entry.getValue();
+    /**
+     * The emitters to be run, being those named by the {@code pylon.emitters}
+     * option, or every discovered emitter if the option is not passed
+     */
+    private List<DescriptorEmitter> getEmitters() {
+        final String option = this.getOption(Constants.EMITTERS_OPTION);
 
-        writer.beginObject();
+        if (option == null) {
+            return this.emitters;
+        }
 
-        final ProcessingEnvironment env = this.getEnvironment();
-        final Elements utils = env.getElementUtils();
-        final Name name = utils.getBinaryName(element);
+        final Set<String> names = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(option).stream()
+            .collect(ImmutableSet.toImmutableSet());
 
-        writer.name(Constants.CLASS).value(name.toString());
-        writer.name(Constants.SIDE).value(this.getSideName(listener.side()));
-        writer.name(Constants.PRIORITY).value(listener.priority());
+        for (final String name : names) {
+            if (this.emitters.stream().noneMatch(emitter -> emitter.getName().equals(name))) {
+                this.getLogger().warn("Unknown emitter '" + name + "' in option " + Constants.EMITTERS_OPTION);
+            }
+        }
+
+        return this.emitters.stream().filter(emitter -> names.contains(emitter.getName())).collect(ImmutableList.toImmutableList());
+    }
 
-        writer.endObject();
+    /**
+     * Generates a {@link ListenerBootstrap} implementation in the package of
+     * the given mod element, constructing every listener directly in order of
+     * priority, so that the listeners need not be loaded by name at runtime.
+     * With the {@code pylon.timing} option, the bootstrap also records the
+     * time taken to load and construct each listener under the id of the mod
+     * @param modElement The element annotated with {@link Mod}
+     * @param listeners The sorted listeners to be constructed
+     * @throws IOException If the source file cannot be written to
+     * @see ListenerBootstrapWriter
+     */
+    private void generateListenerBootstrap(final Element modElement, final List<ListenerModel> listeners) throws IOException {
+        final Elements utils = this.getEnvironment().getElementUtils();
+        final PackageElement pkg = utils.getPackageOf(modElement);
+        final String timedMod = this.isOptionEnabled(Constants.TIMING_OPTION) ? AnnotationModel.findMirror(modElement, Mod.class)
+            .map(mirror -> new ModModel(modElement, mirror, utils).getId()).orElseThrow(IllegalStateException::new) : null;
+        final Element[] originatingElements = Stream.concat(
+            Stream.of(modElement), listeners.stream().map(ListenerModel::getElement)
+        ).toArray(Element[]::new);
+
+        this.openSourceWriter(this.getBootstrapName(modElement), originatingElements, source -> {
+            final String pkgName = pkg.getQualifiedName().toString();
+            final String header = Constants.GENERATED + Pylon.VERSION;
+            new ListenerBootstrapWriter(utils, this.getEnvironment().getTypeUtils(), timedMod).write(source, pkgName, Constants.BOOTSTRAP_CLASS, header, listeners);
+        });
     }
 
     /**
-     * @param side The {@link Side} constant to be transformed
-     * @return The name of the side relative to Rift implementation
-     * @see <a href=https://git.io/fp3Wn>DimensionalDevelopment/Rift@2af4885</a>
+     * @param modElement The element annotated with {@link Mod}
+     * @return The binary name of the listener bootstrap for the given mod
      */
-    private String getSideName(final Side side) {
-        return side.isAmbiguous() ? "both" : side.getName();
+    private String getBootstrapName(final Element modElement) {
+        final PackageElement pkg = this.getEnvironment().getElementUtils().getPackageOf(modElement);
+        return pkg.isUnnamed() ? Constants.BOOTSTRAP_CLASS : pkg.getQualifiedName() + "." + Constants.BOOTSTRAP_CLASS;
     }
 
     private static final class Constants {
-        public static final String LISTENERS = "listeners";
-        private static final String FILE = "riftmod.json";
-        private static final String COMMENT = "__comment";
         private static final String GENERATED = "Generated with Pylon ";
-        private static final String ID = "id";
-        private static final String NAME = "name";
-        private static final String VERSION = "version";
-        private static final String AUTHORS = "authors";
-        private static final String CLASS = "class";
-        private static final String PRIORITY = "priority";
-        private static final String SIDE = "side";
+        private static final String BOOTSTRAP_CLASS = "PylonListenerBootstrap";
+        private static final String EMITTERS_OPTION = "pylon.emitters";
+        private static final String TIMING_OPTION = "pylon.timing";
+        private static final String RIFT_LISTENER_PACKAGE = "org.dimdev.rift.listener";
+        private static final String MIXIN_ANNOTATION = "org.spongepowered.asm.mixin.Mixin";
     }
 }
@@ -0,0 +1,100 @@
+package net.insomniakitten.pylon.processor;
+
+import com.google.common.collect.ImmutableSet;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the interfaces a type implements through its entire supertype
+ * hierarchy, walking {@link Types#directSupertypes(TypeMirror)}. The resolved
+ * interfaces of every type visited along the way are memoized, so that the
+ * hierarchy of a base class shared by many listeners is walked only once per
+ * round. The cache must be cleared at the end of every round, as the elements
+ * of one round are stale in the next. It is not thread-safe, as it must access
+ * the compiler
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+final class SupertypeCache {
+    private final Types types;
+    private final Map<TypeElement, Set<TypeElement>> interfaces = new HashMap<>();
+    private int hits;
+    private int misses;
+
+    SupertypeCache(final Types types) {
+        this.types = types;
+    }
+
+    /**
+     * @param type The type to be resolved
+     * @return Every interface implemented by the type, directly or through
+     *         its superclasses and superinterfaces, in order of declaration
+     *         with the interfaces of each type preceding those of its supertypes
+     */
+    Set<TypeElement> getInterfaces(final TypeElement type) {
+        final Set<TypeElement> cached = this.interfaces.get(type);
+
+        if (cached != null) {
+            ++this.hits;
+            return cached;
+        }
+
+        ++this.misses;
+
+        final Set<TypeElement> direct = new LinkedHashSet<>();
+        final Set<TypeElement> inherited = new LinkedHashSet<>();
+
+        for (final TypeMirror supertype : this.types.directSupertypes(type.asType())) {
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+
+            final TypeElement element = (TypeElement) ((DeclaredType) supertype).asElement();
+
+            if (element.getKind() == ElementKind.INTERFACE) {
+                direct.add(element);
+            }
+
+            inherited.addAll(this.getInterfaces(element));
+        }
+
+        final Set<TypeElement> resolved = ImmutableSet.<TypeElement>builder().addAll(direct).addAll(inherited).build();
+        this.interfaces.put(type, resolved);
+        return resolved;
+    }
+
+    /**
+     * The number of lookups answered from the cache
+     */
+    int getHits() {
+        return this.hits;
+    }
+
+    /**
+     * The number of types whose direct supertypes were walked
+     */
+    int getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Discards every resolved type, retaining the counts of hits and misses
+     */
+    void clear() {
+        this.interfaces.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SupertypeCache[%d types]", this.interfaces.size());
+    }
+}
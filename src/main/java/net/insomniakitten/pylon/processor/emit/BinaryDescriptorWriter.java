@@ -0,0 +1,157 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.BinaryDescriptor;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the bytes of a compact binary descriptor, in the layout read by
+ * {@link BinaryDescriptor}. Strings are deduplicated into a shared table
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+final class BinaryDescriptorWriter {
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final List<Integer> authors = new ArrayList<>();
+    private final List<int[]> listeners = new ArrayList<>();
+    private final List<Integer> dependencies = new ArrayList<>();
+    private final List<Integer> loadAfter = new ArrayList<>();
+    private final List<Integer> loadBefore = new ArrayList<>();
+    private final List<Integer> mixins = new ArrayList<>();
+
+    private int id = -1;
+    private int name = -1;
+    private int version = -1;
+    private int bootstrap = -1;
+    private Side side = Side.EITHER;
+
+    BinaryDescriptorWriter mod(final String id, final String name, final String version, final Side side) {
+        this.id = this.intern(id);
+        this.name = this.intern(name);
+        this.version = this.intern(version);
+        this.side = side;
+        return this;
+    }
+
+    BinaryDescriptorWriter author(final String author) {
+        this.authors.add(this.intern(author));
+        return this;
+    }
+
+    BinaryDescriptorWriter listener(final String name, final int priority, final Side side) {
+        this.listeners.add(new int[] { this.intern(name), priority, BinaryDescriptor.getSideCode(side) });
+        return this;
+    }
+
+    BinaryDescriptorWriter dependency(final String id) {
+        this.dependencies.add(this.intern(id));
+        return this;
+    }
+
+    BinaryDescriptorWriter loadAfter(final String id) {
+        this.loadAfter.add(this.intern(id));
+        return this;
+    }
+
+    BinaryDescriptorWriter loadBefore(final String id) {
+        this.loadBefore.add(this.intern(id));
+        return this;
+    }
+
+    BinaryDescriptorWriter mixin(final String config) {
+        this.mixins.add(this.intern(config));
+        return this;
+    }
+
+    BinaryDescriptorWriter bootstrap(@Nullable final String bootstrap) {
+        this.bootstrap = bootstrap != null ? this.intern(bootstrap) : -1;
+        return this;
+    }
+
+    byte[] toByteArray() throws IOException {
+        final int authorOffset = BinaryDescriptor.HEADER_SIZE;
+        final int listenerOffset = authorOffset + this.authors.size() * 4;
+        final int dependencyOffset = listenerOffset + this.listeners.size() * BinaryDescriptor.LISTENER_SIZE;
+        final int loadAfterOffset = dependencyOffset + this.dependencies.size() * 4;
+        final int loadBeforeOffset = loadAfterOffset + this.loadAfter.size() * 4;
+        final int mixinOffset = loadBeforeOffset + this.loadBefore.size() * 4;
+        final int stringIndex = mixinOffset + this.mixins.size() * 4;
+        final List<byte[]> encoded = new ArrayList<>(this.strings.size());
+
+        for (final String string : this.strings.keySet()) {
+            encoded.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(BinaryDescriptor.MAGIC);
+        out.writeShort(BinaryDescriptor.VERSION);
+        out.writeShort(0);
+        out.writeInt(encoded.size());
+        out.writeInt(stringIndex);
+        out.writeInt(this.id);
+        out.writeInt(this.name);
+        out.writeInt(this.version);
+        out.writeInt(BinaryDescriptor.getSideCode(this.side));
+        out.writeInt(this.authors.size());
+        out.writeInt(authorOffset);
+        out.writeInt(this.listeners.size());
+        out.writeInt(listenerOffset);
+        out.writeInt(this.bootstrap);
+        out.writeInt(this.dependencies.size());
+        out.writeInt(dependencyOffset);
+        out.writeInt(this.loadAfter.size());
+        out.writeInt(loadAfterOffset);
+        out.writeInt(this.loadBefore.size());
+        out.writeInt(loadBeforeOffset);
+        out.writeInt(this.mixins.size());
+        out.writeInt(mixinOffset);
+
+        BinaryDescriptorWriter.writeInts(out, this.authors);
+
+        for (final int[] listener : this.listeners) {
+            out.writeInt(listener[0]);
+            out.writeInt(listener[1]);
+            out.writeInt(listener[2]);
+        }
+
+        BinaryDescriptorWriter.writeInts(out, this.dependencies);
+        BinaryDescriptorWriter.writeInts(out, this.loadAfter);
+        BinaryDescriptorWriter.writeInts(out, this.loadBefore);
+        BinaryDescriptorWriter.writeInts(out, this.mixins);
+
+        int offset = stringIndex + encoded.size() * 4;
+        for (final byte[] string : encoded) {
+            out.writeInt(offset);
+            offset += 4 + string.length;
+        }
+
+        for (final byte[] string : encoded) {
+            out.writeInt(string.length);
+            out.write(string);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeInts(final DataOutputStream out, final List<Integer> values) throws IOException {
+        for (final int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private int intern(final String string) {
+        return this.strings.computeIfAbsent(string, k -> this.strings.size());
+    }
+}
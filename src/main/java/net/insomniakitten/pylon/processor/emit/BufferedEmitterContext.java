@@ -0,0 +1,85 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.io.IOConsumer;
+import net.insomniakitten.pylon.io.JsonFormat;
+import net.insomniakitten.pylon.processor.ProcessorMetrics;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An {@link EmitterContext} buffering the files written by a single emitter,
+ * to be written out by its owner once every emitter has completed. Each
+ * emitter is given its own context, so a context is only ever accessed by a
+ * single thread
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class BufferedEmitterContext implements EmitterContext {
+    private final Map<String, String> options;
+    private final ProcessorMetrics metrics;
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    /**
+     * @param options The options visible to the emitter, where options
+     *                passed without a value map to null
+     * @param metrics The metrics the emitter records to
+     * @since 0.4.0
+     */
+    public BufferedEmitterContext(final Map<String, String> options, final ProcessorMetrics metrics) {
+        this.options = Collections.unmodifiableMap(new HashMap<>(options));
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    @Override
+    public String getOption(final String option) {
+        return this.options.get(option);
+    }
+
+    @Override
+    public boolean isOptionEnabled(final String option) {
+        return this.options.containsKey(option) && !"false".equalsIgnoreCase(this.options.get(option));
+    }
+
+    @Override
+    public void writeJson(final String file, final IOConsumer<JsonWriter> consumer) throws IOException {
+        final ProcessorMetrics.Timer serialization = this.metrics.time(ProcessorMetrics.SERIALIZATION);
+        try {
+            this.writeBytes(file, JsonFormat.serialize(consumer));
+        } finally {
+            serialization.stop();
+        }
+    }
+
+    @Override
+    public void writeBytes(final String file, final byte[] content) {
+        if (this.files.putIfAbsent(file, content) != null) {
+            throw new IllegalStateException("File '" + file + "' already written");
+        }
+    }
+
+    @Override
+    public ProcessorMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * The files written through this context, keyed by path in the order
+     * they were written
+     * @since 0.4.0
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(this.files);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferedEmitterContext[%d files]", this.files.size());
+    }
+}
@@ -0,0 +1,65 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.processor.model.ModuleSnapshot;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * A service writing descriptors of one format from the mods and listeners
+ * discovered in a compilation. Emitters are discovered through
+ * {@link java.util.ServiceLoader} on the annotation processor path, and are
+ * invoked once per compilation with a snapshot that has already been
+ * collected and validated, so supporting another format requires neither a
+ * second processor nor a second scan of the compilation. Emitters run in
+ * parallel with one another, and must therefore be thread-safe
+ * @author InsomniaKitten
+ * @see RiftDescriptorEmitter
+ * @since 0.4.0
+ */
+public interface DescriptorEmitter {
+    /**
+     * The name of the format written by this emitter, by which it can be
+     * selected through the {@code pylon.emitters} option
+     * @since 0.4.0
+     */
+    String getName();
+
+    /**
+     * Appends the names of the processor options recognized by this emitter
+     * @param builder The builder to append option names to
+     * @since 0.4.0
+     */
+    default void getSupportedOptions(final ImmutableSet.Builder<String> builder) {}
+
+    /**
+     * Writes the descriptors of the given snapshot through the given context.
+     * Files are written once every emitter has completed, and no two emitters
+     * may write the same file
+     * @param snapshot The validated snapshot of every mod
+     * @param context The context to write files through
+     * @throws IOException If a descriptor cannot be serialized
+     * @since 0.4.0
+     */
+    void emit(final ModuleSnapshot snapshot, final EmitterContext context) throws IOException;
+
+    /**
+     * Loads the emitters available to the given class loader, keeping the
+     * first emitter of each name
+     * @param loader The class loader to discover emitters through
+     * @return The emitters, in the order they were discovered
+     * @since 0.4.0
+     */
+    static List<DescriptorEmitter> loadAll(final ClassLoader loader) {
+        final Map<String, DescriptorEmitter> emitters = new LinkedHashMap<>();
+        for (final DescriptorEmitter emitter : ServiceLoader.load(DescriptorEmitter.class, loader)) {
+            emitters.putIfAbsent(emitter.getName(), emitter);
+        }
+        return ImmutableList.copyOf(emitters.values());
+    }
+}
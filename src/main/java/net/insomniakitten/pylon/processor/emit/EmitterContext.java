@@ -0,0 +1,60 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.io.IOConsumer;
+import net.insomniakitten.pylon.processor.ProcessorMetrics;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * The context in which a {@link DescriptorEmitter} writes its files. Files are
+ * buffered in memory and written by the processor once every emitter has
+ * completed, skipping any file whose content is unchanged
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public interface EmitterContext {
+    /**
+     * Retrieves the value of the given processor option
+     * @param option The name of the option
+     * @return The value of the option, or null if it was not passed
+     * @since 0.4.0
+     */
+    @Nullable
+    String getOption(final String option);
+
+    /**
+     * Determines if the given processor option is enabled, which is the case
+     * when the option is passed without a value, or with any value but false
+     * @param option The name of the option
+     * @return True if the option is enabled
+     * @since 0.4.0
+     */
+    boolean isOptionEnabled(final String option);
+
+    /**
+     * Writes a JSON file to the root of the class output, using the same
+     * formatting as every other JSON file written by the processor
+     * @param file The path of the file relative to the root
+     * @param consumer The consumer to accept the writer
+     * @throws IOException If the consumer fails to write
+     * @since 0.4.0
+     */
+    void writeJson(final String file, final IOConsumer<JsonWriter> consumer) throws IOException;
+
+    /**
+     * Writes a binary file to the root of the class output
+     * @param file The path of the file relative to the root
+     * @param content The content of the file
+     * @since 0.4.0
+     */
+    void writeBytes(final String file, final byte[] content);
+
+    /**
+     * The metrics of the processor, to which the emitter can add its own
+     * phase timings and counters
+     * @since 0.4.0
+     */
+    ProcessorMetrics getMetrics();
+}
@@ -0,0 +1,352 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.Pylon;
+import net.insomniakitten.pylon.processor.ProcessorMetrics;
+import net.insomniakitten.pylon.processor.model.ListenerSnapshot;
+import net.insomniakitten.pylon.processor.model.MixinSnapshot;
+import net.insomniakitten.pylon.processor.model.ModSnapshot;
+import net.insomniakitten.pylon.processor.model.ModuleSnapshot;
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.BinaryDescriptor;
+import net.insomniakitten.pylon.runtime.DescriptorReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the `riftmod.json` descriptor of each mod, the listener files of each
+ * physical side, the mixin config of each mod declaring mixins, and, when
+ * enabled by the {@code pylon.binary} option, the compact binary descriptor.
+ * A lone mod is described at the root, while the descriptors of several mods
+ * are written to per-mod paths and indexed
+ * @author InsomniaKitten
+ * @see DescriptorReader
+ * @since 0.4.0
+ */
+public final class RiftDescriptorEmitter implements DescriptorEmitter {
+    @Override
+    public String getName() {
+        return "rift";
+    }
+
+    @Override
+    public void getSupportedOptions(final ImmutableSet.Builder<String> builder) {
+        builder.add(Constants.BINARY_OPTION);
+    }
+
+    @Override
+    public void emit(final ModuleSnapshot snapshot, final EmitterContext context) throws IOException {
+        for (final ModSnapshot mod : snapshot.getMods()) {
+            context.writeJson(this.getModFile(snapshot, mod, DescriptorReader.FILE), json -> this.writeDescriptor(mod, json));
+
+            if (!mod.getListeners().isEmpty()) {
+                for (final Side side : Constants.PHYSICAL_SIDES) {
+                    context.writeJson(this.getSideListenersFile(mod.getId(), side), json -> this.writeSideListeners(mod, side, json));
+                }
+            }
+
+            if (!mod.getMixins().isEmpty()) {
+                context.writeJson(this.getMixinConfigFile(mod.getId()), json -> this.writeMixinConfig(mod, json));
+            }
+
+            if (context.isOptionEnabled(Constants.BINARY_OPTION)) {
+                context.writeBytes(this.getModFile(snapshot, mod, BinaryDescriptor.FILE), this.toBinaryDescriptor(mod, context.getMetrics()));
+            }
+        }
+
+        if (!snapshot.isSingleMod()) {
+            context.writeJson(DescriptorReader.INDEX, json -> this.writeIndex(snapshot, json));
+        }
+    }
+
+    private void writeDescriptor(final ModSnapshot mod, final JsonWriter json) throws IOException {
+        json.beginObject();
+
+        json.name(Constants.COMMENT).value(Constants.GENERATED + Pylon.VERSION);
+
+        this.appendModToWriter(mod, json);
+
+        if (!mod.getListeners().isEmpty()) {
+            json.name(Constants.LISTENERS);
+            json.beginArray();
+
+            for (final ListenerSnapshot listener : mod.getListeners()) {
+                this.appendListenerToWriter(listener, json);
+            }
+
+            json.endArray();
+        }
+
+        if (mod.getBootstrap() != null) {
+            json.name(Constants.BOOTSTRAP).value(mod.getBootstrap());
+        }
+
+        if (!mod.getMixins().isEmpty()) {
+            json.name(Constants.MIXINS);
+            json.beginArray();
+            json.value(this.getMixinConfigFile(mod.getId()));
+            json.endArray();
+        }
+
+        if (!mod.getListeners().isEmpty()) {
+            json.name(Constants.SIDE_LISTENERS);
+            json.beginObject();
+            for (final Side side : Constants.PHYSICAL_SIDES) {
+                json.name(side.getName()).value(this.getSideListenersFile(mod.getId(), side));
+            }
+            json.endObject();
+        }
+
+        json.endObject();
+    }
+
+    private void appendModToWriter(final ModSnapshot mod, final JsonWriter writer) throws IOException {
+        writer.name(Constants.ID).value(mod.getId());
+        writer.name(Constants.NAME).value(mod.getName().isEmpty() ? mod.getId() : mod.getName());
+        writer.name(Constants.VERSION).value(mod.getVersion());
+        writer.name(Constants.SIDE).value(mod.getSide().getName());
+
+        this.appendStringsToWriter(Constants.AUTHORS, mod.getAuthors(), writer);
+        this.appendStringsToWriter(Constants.DEPENDENCIES, mod.getDependencies(), writer);
+        this.appendStringsToWriter(Constants.LOAD_AFTER, mod.getLoadAfter(), writer);
+        this.appendStringsToWriter(Constants.LOAD_BEFORE, mod.getLoadBefore(), writer);
+    }
+
+    private void appendStringsToWriter(final String name, final List<String> values, final JsonWriter writer) throws IOException {
+        if (!values.isEmpty()) {
+            writer.name(name);
+            writer.beginArray();
+            for (final String value : values) {
+                writer.value(value);
+            }
+            writer.endArray();
+        }
+    }
+
+    private void appendListenerToWriter(final ListenerSnapshot listener, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+
+        writer.name(Constants.CLASS).value(listener.getBinaryName());
+        writer.name(Constants.SIDE).value(this.getSideName(listener.getSide()));
+        writer.name(Constants.PRIORITY).value(listener.getPriority());
+
+        if (!listener.getInterfaces().isEmpty()) {
+            writer.name(Constants.INTERFACES);
+            writer.beginArray();
+            for (final String type : listener.getInterfaces()) {
+                writer.value(type);
+            }
+            writer.endArray();
+        }
+
+        writer.endObject();
+    }
+
+    /**
+     * Writes the binary names of the listeners to be loaded on the given
+     * physical side, in order of priority, so that each side never reads
+     * the listeners of the opposite side
+     * @param mod The mod owning the listeners
+     * @param side The physical side to write listeners for
+     * @param json The writer to write to
+     * @throws IOException If the listeners cannot be written
+     */
+    private void writeSideListeners(final ModSnapshot mod, final Side side, final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name(Constants.COMMENT).value(Constants.GENERATED + Pylon.VERSION);
+        json.name(Constants.SIDE).value(side.getName());
+        json.name(Constants.LISTENERS);
+        json.beginArray();
+
+        for (final ListenerSnapshot listener : mod.getListeners()) {
+            if (listener.getSide().isEquivalentTo(side)) {
+                json.value(listener.getBinaryName());
+            }
+        }
+
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * Writes the mixin config of the given mod, listing its mixins relative to
+     * their common package, sorted and partitioned by physical side, so that
+     * each side only parses and applies the mixins it needs
+     * @param mod The mod owning the mixins
+     * @param json The writer to write to
+     * @throws IOException If the config cannot be written
+     */
+    private void writeMixinConfig(final ModSnapshot mod, final JsonWriter json) throws IOException {
+        final String pkg = MixinSnapshot.getCommonPackage(mod.getMixins());
+
+        json.beginObject();
+        json.name(Constants.COMMENT).value(Constants.GENERATED + Pylon.VERSION);
+        json.name(Constants.REQUIRED).value(true);
+        json.name(Constants.PACKAGE).value(pkg);
+        json.name(Constants.COMPATIBILITY_LEVEL).value(Constants.JAVA_8);
+
+        for (final Side side : Side.values()) {
+            final Set<String> mixins = new TreeSet<>();
+
+            for (final MixinSnapshot mixin : mod.getMixins()) {
+                if (mixin.getSide() == side) {
+                    mixins.add(mixin.getBinaryName().substring(pkg.length() + 1));
+                }
+            }
+
+            if (!mixins.isEmpty()) {
+                json.name(side.isAmbiguous() ? Constants.MIXINS : side.getName());
+                json.beginArray();
+                for (final String mixin : mixins) {
+                    json.value(mixin);
+                }
+                json.endArray();
+            }
+        }
+
+        json.endObject();
+    }
+
+    /**
+     * Writes an index of the descriptor of each mod, as the descriptors of
+     * several mods are written to per-mod paths
+     * @param snapshot The snapshot of every mod
+     * @param json The writer to write to
+     * @throws IOException If the index cannot be written
+     * @see DescriptorReader#readJarAll(java.nio.file.Path)
+     */
+    private void writeIndex(final ModuleSnapshot snapshot, final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name(Constants.COMMENT).value(Constants.GENERATED + Pylon.VERSION);
+        json.name(Constants.MODS);
+        json.beginArray();
+        for (final ModSnapshot mod : snapshot.getMods()) {
+            json.beginObject();
+            json.name(Constants.ID).value(mod.getId());
+            json.name(Constants.DESCRIPTOR).value(this.getModFile(snapshot, mod, DescriptorReader.FILE));
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * @param mod The mod to be described
+     * @param metrics The metrics to time serialization with
+     * @return The compact binary form of the descriptor of the mod
+     * @throws IOException If the descriptor cannot be serialized
+     * @see BinaryDescriptor
+     */
+    private byte[] toBinaryDescriptor(final ModSnapshot mod, final ProcessorMetrics metrics) throws IOException {
+        final BinaryDescriptorWriter writer = new BinaryDescriptorWriter();
+
+        final ProcessorMetrics.Timer serialization = metrics.time(ProcessorMetrics.SERIALIZATION);
+        try {
+            writer.mod(mod.getId(), mod.getName().isEmpty() ? mod.getId() : mod.getName(), mod.getVersion(), mod.getSide());
+
+            for (final String author : mod.getAuthors()) {
+                writer.author(author);
+            }
+
+            for (final ListenerSnapshot listener : mod.getListeners()) {
+                writer.listener(listener.getBinaryName(), listener.getPriority(), listener.getSide());
+            }
+
+            for (final String dependency : mod.getDependencies()) {
+                writer.dependency(dependency);
+            }
+
+            for (final String id : mod.getLoadAfter()) {
+                writer.loadAfter(id);
+            }
+
+            for (final String id : mod.getLoadBefore()) {
+                writer.loadBefore(id);
+            }
+
+            if (!mod.getMixins().isEmpty()) {
+                writer.mixin(this.getMixinConfigFile(mod.getId()));
+            }
+
+            return writer.bootstrap(mod.getBootstrap()).toByteArray();
+        } finally {
+            serialization.stop();
+        }
+    }
+
+    /**
+     * @param snapshot The snapshot of every mod
+     * @param mod The mod owning the file
+     * @param file The name of the file
+     * @return The path of the file in the root when a single mod is declared,
+     *         and otherwise in the directory of the mod
+     */
+    private String getModFile(final ModuleSnapshot snapshot, final ModSnapshot mod, final String file) {
+        return snapshot.isSingleMod() ? file : Constants.PYLON_DIRECTORY + mod.getId() + "/" + file;
+    }
+
+    /**
+     * @param id The identifier of the mod owning the listeners
+     * @param side The physical side of the listeners
+     * @return The path of the file listing the listeners of the given side
+     */
+    private String getSideListenersFile(final String id, final Side side) {
+        return Constants.PYLON_DIRECTORY + id + "/listeners." + side.getName() + ".json";
+    }
+
+    /**
+     * @param id The identifier of the mod owning the mixins
+     * @return The path of the mixin config of the mod, which is at the root
+     *         as mixin configs are loaded by name from the classpath
+     */
+    private String getMixinConfigFile(final String id) {
+        return "mixins." + id + ".json";
+    }
+
+    /**
+     * @param side The {@link Side} constant to be transformed
+     * @return The name of the side relative to Rift implementation
+     * @see <a href=https://git.io/fp3Wn>DimensionalDevelopment/Rift@2af4885</a>
+     */
+    private String getSideName(final Side side) {
+        return side.isAmbiguous() ? "both" : side.getName();
+    }
+
+    @Override
+    public String toString() {
+        return "RiftDescriptorEmitter";
+    }
+
+    private static final class Constants {
+        private static final String LISTENERS = "listeners";
+        private static final String COMMENT = "__comment";
+        private static final String GENERATED = "Generated with Pylon ";
+        private static final String ID = "id";
+        private static final String NAME = "name";
+        private static final String VERSION = "version";
+        private static final String AUTHORS = "authors";
+        private static final String DEPENDENCIES = "dependencies";
+        private static final String LOAD_AFTER = "load_after";
+        private static final String LOAD_BEFORE = "load_before";
+        private static final String CLASS = "class";
+        private static final String PRIORITY = "priority";
+        private static final String INTERFACES = "interfaces";
+        private static final String SIDE = "side";
+        private static final String BOOTSTRAP = "bootstrap";
+        private static final String SIDE_LISTENERS = "side_listeners";
+        private static final String PYLON_DIRECTORY = "META-INF/pylon/";
+        private static final String BINARY_OPTION = "pylon.binary";
+        private static final String MODS = "mods";
+        private static final String MIXINS = "mixins";
+        private static final String REQUIRED = "required";
+        private static final String PACKAGE = "package";
+        private static final String COMPATIBILITY_LEVEL = "compatibilityLevel";
+        private static final String JAVA_8 = "JAVA_8";
+        private static final String DESCRIPTOR = "descriptor";
+        private static final Side[] PHYSICAL_SIDES = { Side.CLIENT, Side.SERVER };
+    }
+}
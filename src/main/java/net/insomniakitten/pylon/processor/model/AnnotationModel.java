@@ -0,0 +1,134 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable record of an annotation applied to an element, with values
+ * read once from its {@link AnnotationMirror} rather than through a reflective
+ * annotation proxy. The mirror and its values are retained so that messages
+ * can be positioned at the exact value they concern
+ * @param <E> The type of the annotated element
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public abstract class AnnotationModel<E extends Element> {
+    private final E element;
+    private final AnnotationMirror mirror;
+    private final Map<String, AnnotationValue> values;
+
+    protected AnnotationModel(final E element, final AnnotationMirror mirror, final Elements elements) {
+        final ImmutableMap.Builder<String, AnnotationValue> builder = ImmutableMap.builder();
+
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            builder.put(entry.getKey().getSimpleName().toString(), entry.getValue());
+        }
+
+        this.element = element;
+        this.mirror = mirror;
+        this.values = builder.build();
+    }
+
+    /**
+     * Finds the mirror of the given annotation type on the given element
+     * @param element The annotated element
+     * @param type The annotation type
+     * @return The mirror, or empty if the element is not annotated with the type
+     * @since 0.4.0
+     */
+    public static Optional<AnnotationMirror> findMirror(final Element element, final Class<? extends Annotation> type) {
+        return AnnotationModel.findMirror(element, type.getCanonicalName());
+    }
+
+    /**
+     * Finds the mirror of the annotation type of the given name on the given element
+     * @param element The annotated element
+     * @param type The qualified name of the annotation type
+     * @return The mirror, or empty if the element is not annotated with the type
+     * @since 0.4.0
+     */
+    public static Optional<AnnotationMirror> findMirror(final Element element, final String type) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(type)) {
+                return Optional.of(mirror);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The annotated element
+     * @since 0.4.0
+     */
+    public final E getElement() {
+        return this.element;
+    }
+
+    /**
+     * The mirror of the annotation
+     * @since 0.4.0
+     */
+    public final AnnotationMirror getMirror() {
+        return this.mirror;
+    }
+
+    /**
+     * The value of the given annotation member, for positioning messages
+     * @param name The name of the annotation member
+     * @return The value, or null if the member has no value
+     * @since 0.4.0
+     */
+    @Nullable
+    public final AnnotationValue getValue(final String name) {
+        return this.values.get(name);
+    }
+
+    protected final String getString(final String name) {
+        final AnnotationValue value = this.values.get(name);
+        return value != null && value.getValue() instanceof String ? (String) value.getValue() : "";
+    }
+
+    protected final int getInt(final String name) {
+        final AnnotationValue value = this.values.get(name);
+        return value != null && value.getValue() instanceof Integer ? (Integer) value.getValue() : 0;
+    }
+
+    protected final <T extends Enum<T>> T getEnum(final String name, final Class<T> type, final T fallback) {
+        final AnnotationValue value = this.values.get(name);
+        if (value != null && value.getValue() instanceof VariableElement) {
+            return Enum.valueOf(type, ((VariableElement) value.getValue()).getSimpleName().toString());
+        }
+        return fallback;
+    }
+
+    protected final List<String> getStrings(final String name) {
+        final AnnotationValue value = this.values.get(name);
+        final ImmutableList.Builder<String> builder = ImmutableList.builder();
+
+        if (value != null && value.getValue() instanceof List) {
+            for (final Object element : (List<?>) value.getValue()) {
+                if (element instanceof AnnotationValue && ((AnnotationValue) element).getValue() instanceof String) {
+                    builder.add((String) ((AnnotationValue) element).getValue());
+                }
+            }
+        } else if (value != null && value.getValue() instanceof String) {
+            builder.add((String) value.getValue());
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,123 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.annotation.rift.Listener;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable record of a {@link Listener} annotation, including the binary
+ * name of the listener type, by which listeners are ordered when their
+ * priorities are equal
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ListenerModel extends AnnotationModel<TypeElement> {
+    public static final String PRIORITY = "priority";
+    public static final String SIDE = "side";
+
+    /**
+     * Orders listeners by priority, and by binary name when priorities are equal
+     * @since 0.4.0
+     */
+    public static final Comparator<ListenerModel> ORDER = Comparator
+        .comparingInt(ListenerModel::getPriority)
+        .thenComparing(ListenerModel::getBinaryName);
+
+    private final String binaryName;
+    private final int priority;
+    private final Side side;
+    private final String pkg;
+    private final Set<TypeElement> interfaces;
+    private final List<String> listenerInterfaces;
+
+    /**
+     * @param element The listener type
+     * @param mirror The mirror of the annotation
+     * @param elements The element utilities of the current environment
+     * @param interfaces Every interface the listener implements, including inherited interfaces
+     * @param listenerInterfaces The interfaces to be described as the listener interfaces of the listener
+     * @since 0.4.0
+     */
+    public ListenerModel(final TypeElement element, final AnnotationMirror mirror, final Elements elements, final Set<TypeElement> interfaces, final Set<TypeElement> listenerInterfaces) {
+        super(element, mirror, elements);
+        this.binaryName = elements.getBinaryName(element).toString();
+        this.priority = this.getInt(ListenerModel.PRIORITY);
+        this.side = this.getEnum(ListenerModel.SIDE, Side.class, Side.EITHER);
+        this.pkg = elements.getPackageOf(element).getQualifiedName().toString();
+        this.interfaces = ImmutableSet.copyOf(interfaces);
+        this.listenerInterfaces = listenerInterfaces.stream()
+            .map(type -> elements.getBinaryName(type).toString())
+            .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * The binary name of the listener type, as loaded at runtime
+     * @since 0.4.0
+     */
+    public String getBinaryName() {
+        return this.binaryName;
+    }
+
+    /**
+     * @see Listener#priority()
+     */
+    public int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * @see Listener#side()
+     */
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The qualified name of the package of the listener type
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        return this.pkg;
+    }
+
+    /**
+     * Every interface the listener implements, including those inherited
+     * from its superclasses and superinterfaces
+     * @since 0.4.0
+     */
+    public Set<TypeElement> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * The binary names of the listener interfaces of the listener
+     * @since 0.4.0
+     */
+    public List<String> getListenerInterfaces() {
+        return this.listenerInterfaces;
+    }
+
+    /**
+     * Captures the values of this model into a snapshot detached from the
+     * elements of the compiler
+     * @return The snapshot of this model
+     * @since 0.4.0
+     */
+    public ListenerSnapshot snapshot() {
+        final SourcePosition position = SourcePosition.of(this.getElement(), this.getMirror());
+        return new ListenerSnapshot(this.binaryName, this.priority, this.side, this.listenerInterfaces, position);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ListenerModel['%s', %d, %s]", this.binaryName, this.priority, this.side);
+    }
+}
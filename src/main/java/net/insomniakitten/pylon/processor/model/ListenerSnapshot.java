@@ -0,0 +1,78 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+import net.insomniakitten.pylon.ref.Side;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a listener, detached from the elements of the
+ * compiler so that it can be validated and serialized on any thread
+ * @author InsomniaKitten
+ * @see ListenerModel#snapshot()
+ * @since 0.4.0
+ */
+public final class ListenerSnapshot {
+    /**
+     * Orders listeners by priority, and by binary name when priorities are equal
+     * @see ListenerModel#ORDER
+     * @since 0.4.0
+     */
+    public static final Comparator<ListenerSnapshot> ORDER = Comparator
+        .comparingInt(ListenerSnapshot::getPriority)
+        .thenComparing(ListenerSnapshot::getBinaryName);
+
+    private final String binaryName;
+    private final int priority;
+    private final Side side;
+    private final List<String> interfaces;
+    private final SourcePosition position;
+
+    /**
+     * Creates a snapshot from values that were not read from the elements of
+     * the compiler, such as those of the offline indexer
+     * @since 0.4.0
+     */
+    public ListenerSnapshot(final String binaryName, final int priority, final Side side, final List<String> interfaces, final SourcePosition position) {
+        this.binaryName = binaryName;
+        this.priority = priority;
+        this.side = side;
+        this.interfaces = ImmutableList.copyOf(interfaces);
+        this.position = position;
+    }
+
+    public String getBinaryName() {
+        return this.binaryName;
+    }
+
+    public int getPriority() {
+        return this.priority;
+    }
+
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The binary names of the listener interfaces the listener implements,
+     * whether directly or through its supertypes
+     * @since 0.4.0
+     */
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * The position of the {@code @Listener} annotation
+     * @since 0.4.0
+     */
+    public SourcePosition getPosition() {
+        return this.position;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ListenerSnapshot['%s', %d, %s]", this.binaryName, this.priority, this.side);
+    }
+}
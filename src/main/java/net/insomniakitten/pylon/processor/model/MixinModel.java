@@ -0,0 +1,66 @@
+package net.insomniakitten.pylon.processor.model;
+
+import net.insomniakitten.pylon.annotation.rift.MixinConfig;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * An immutable record of a {@link MixinConfig} annotation
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class MixinModel extends AnnotationModel<TypeElement> {
+    public static final String SIDE = "side";
+
+    private final String binaryName;
+    private final Side side;
+    private final String pkg;
+
+    public MixinModel(final TypeElement element, final AnnotationMirror mirror, final Elements elements) {
+        super(element, mirror, elements);
+        this.binaryName = elements.getBinaryName(element).toString();
+        this.side = this.getEnum(MixinModel.SIDE, Side.class, Side.EITHER);
+        this.pkg = elements.getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * The binary name of the mixin type, as loaded at runtime
+     * @since 0.4.0
+     */
+    public String getBinaryName() {
+        return this.binaryName;
+    }
+
+    /**
+     * @see MixinConfig#side()
+     */
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The qualified name of the package of the mixin type
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        return this.pkg;
+    }
+
+    /**
+     * Captures the values of this model into a snapshot detached from the
+     * elements of the compiler
+     * @return The snapshot of this model
+     * @since 0.4.0
+     */
+    public MixinSnapshot snapshot() {
+        return new MixinSnapshot(this.binaryName, this.side, SourcePosition.of(this.getElement(), this.getMirror()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MixinModel['%s', %s]", this.binaryName, this.side);
+    }
+}
@@ -0,0 +1,91 @@
+package net.insomniakitten.pylon.processor.model;
+
+import net.insomniakitten.pylon.ref.Side;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a mixin, detached from the elements of the
+ * compiler so that it can be validated and serialized on any thread
+ * @author InsomniaKitten
+ * @see MixinModel#snapshot()
+ * @since 0.4.0
+ */
+public final class MixinSnapshot {
+    /**
+     * Orders mixins by binary name
+     * @since 0.4.0
+     */
+    public static final Comparator<MixinSnapshot> ORDER = Comparator.comparing(MixinSnapshot::getBinaryName);
+
+    private final String binaryName;
+    private final Side side;
+    private final SourcePosition position;
+
+    /**
+     * Creates a snapshot from values that were not read from the elements of
+     * the compiler, such as those of the offline indexer
+     * @since 0.4.0
+     */
+    public MixinSnapshot(final String binaryName, final Side side, final SourcePosition position) {
+        this.binaryName = binaryName;
+        this.side = side;
+        this.position = position;
+    }
+
+    /**
+     * Determines the package shared by every given mixin, which is the
+     * package of the mixin config
+     * @param mixins The mixins of a mod
+     * @return The qualified name of the most specific package enclosing every
+     *         mixin, which is empty if they share no package
+     * @since 0.4.0
+     */
+    public static String getCommonPackage(final List<MixinSnapshot> mixins) {
+        String common = null;
+
+        for (final MixinSnapshot mixin : mixins) {
+            final String pkg = mixin.getPackage();
+            if (common == null) {
+                common = pkg;
+            }
+            while (!common.isEmpty() && !pkg.equals(common) && !pkg.startsWith(common + ".")) {
+                final int index = common.lastIndexOf('.');
+                common = index < 0 ? "" : common.substring(0, index);
+            }
+        }
+
+        return common != null ? common : "";
+    }
+
+    public String getBinaryName() {
+        return this.binaryName;
+    }
+
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * The qualified name of the package of the mixin
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        final int index = this.binaryName.lastIndexOf('.');
+        return index < 0 ? "" : this.binaryName.substring(0, index);
+    }
+
+    /**
+     * The position of the {@code @MixinConfig} annotation
+     * @since 0.4.0
+     */
+    public SourcePosition getPosition() {
+        return this.position;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MixinSnapshot['%s', %s]", this.binaryName, this.side);
+    }
+}
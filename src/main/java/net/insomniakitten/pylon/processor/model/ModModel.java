@@ -0,0 +1,133 @@
+package net.insomniakitten.pylon.processor.model;
+
+import net.insomniakitten.pylon.annotation.rift.Mod;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import java.util.List;
+
+/**
+ * An immutable record of a {@link Mod} annotation
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ModModel extends AnnotationModel<Element> {
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String VERSION = "version";
+    public static final String SIDE = "side";
+    public static final String AUTHORS = "authors";
+    public static final String DEPENDENCIES = "dependencies";
+    public static final String LOAD_AFTER = "loadAfter";
+    public static final String LOAD_BEFORE = "loadBefore";
+
+    private final String id;
+    private final String name;
+    private final String version;
+    private final Side side;
+    private final List<String> authors;
+    private final List<String> dependencies;
+    private final List<String> loadAfter;
+    private final List<String> loadBefore;
+    private final String pkg;
+
+    public ModModel(final Element element, final AnnotationMirror mirror, final Elements elements) {
+        super(element, mirror, elements);
+        this.id = this.getString(ModModel.ID);
+        this.name = this.getString(ModModel.NAME);
+        this.version = this.getString(ModModel.VERSION);
+        this.side = this.getEnum(ModModel.SIDE, Side.class, Side.EITHER);
+        this.authors = this.getStrings(ModModel.AUTHORS);
+        this.dependencies = this.getStrings(ModModel.DEPENDENCIES);
+        this.loadAfter = this.getStrings(ModModel.LOAD_AFTER);
+        this.loadBefore = this.getStrings(ModModel.LOAD_BEFORE);
+        this.pkg = elements.getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * @see Mod#id()
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * @see Mod#name()
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @see Mod#version()
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @see Mod#side()
+     */
+    public Side getSide() {
+        return this.side;
+    }
+
+    /**
+     * @see Mod#authors()
+     */
+    public List<String> getAuthors() {
+        return this.authors;
+    }
+
+    /**
+     * @see Mod#dependencies()
+     */
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * @see Mod#loadAfter()
+     */
+    public List<String> getLoadAfter() {
+        return this.loadAfter;
+    }
+
+    /**
+     * @see Mod#loadBefore()
+     */
+    public List<String> getLoadBefore() {
+        return this.loadBefore;
+    }
+
+    /**
+     * The qualified name of the package of the annotated element, which
+     * scopes the listeners belonging to the mod
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        return this.pkg;
+    }
+
+    /**
+     * Captures the values of this model into a snapshot detached from the
+     * elements of the compiler
+     * @param listeners The snapshots of the listeners belonging to the mod
+     * @param mixins The snapshots of the mixins belonging to the mod
+     * @param bootstrap The binary name of the generated listener bootstrap, if any
+     * @return The snapshot of this model
+     * @since 0.4.0
+     */
+    public ModSnapshot snapshot(final List<ListenerSnapshot> listeners, final List<MixinSnapshot> mixins, @Nullable final String bootstrap) {
+        final SourcePosition position = SourcePosition.of(this.getElement(), this.getMirror());
+        return new ModSnapshot(this.id, this.name, this.version, this.side, this.authors, this.dependencies, this.loadAfter, this.loadBefore, this.pkg, listeners, mixins, bootstrap, position);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModModel['%s', '%s']", this.id, this.version);
+    }
+}
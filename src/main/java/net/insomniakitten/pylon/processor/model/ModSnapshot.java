@@ -0,0 +1,143 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+import net.insomniakitten.pylon.ref.Side;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a mod, detached from the elements of the compiler
+ * so that it can be validated and serialized on any thread
+ * @author InsomniaKitten
+ * @see ModModel#snapshot(List, List, String)
+ * @since 0.4.0
+ */
+public final class ModSnapshot {
+    private final String id;
+    private final String name;
+    private final String version;
+    private final Side side;
+    private final List<String> authors;
+    private final List<String> dependencies;
+    private final List<String> loadAfter;
+    private final List<String> loadBefore;
+    private final String pkg;
+    private final List<ListenerSnapshot> listeners;
+    private final List<MixinSnapshot> mixins;
+    @Nullable
+    private final String bootstrap;
+    private final SourcePosition position;
+
+    /**
+     * Creates a snapshot from values that were not read from the elements of
+     * the compiler, such as those of the offline indexer
+     * @since 0.4.0
+     */
+    public ModSnapshot(final String id, final String name, final String version, final Side side, final List<String> authors, final List<String> dependencies, final List<String> loadAfter, final List<String> loadBefore, final String pkg, final List<ListenerSnapshot> listeners, final List<MixinSnapshot> mixins, @Nullable final String bootstrap, final SourcePosition position) {
+        this.id = id;
+        this.name = name;
+        this.version = version;
+        this.side = side;
+        this.authors = ImmutableList.copyOf(authors);
+        this.dependencies = ImmutableList.copyOf(dependencies);
+        this.loadAfter = ImmutableList.copyOf(loadAfter);
+        this.loadBefore = ImmutableList.copyOf(loadBefore);
+        this.pkg = pkg;
+        this.listeners = ImmutableList.copyOf(listeners);
+        this.mixins = ImmutableList.copyOf(mixins);
+        this.bootstrap = bootstrap;
+        this.position = position;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public Side getSide() {
+        return this.side;
+    }
+
+    public List<String> getAuthors() {
+        return this.authors;
+    }
+
+    /**
+     * The identifiers of the mods required by the mod
+     * @since 0.4.0
+     */
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * The identifiers of the mods the mod is loaded after, if present
+     * @since 0.4.0
+     */
+    public List<String> getLoadAfter() {
+        return this.loadAfter;
+    }
+
+    /**
+     * The identifiers of the mods the mod is loaded before, if present
+     * @since 0.4.0
+     */
+    public List<String> getLoadBefore() {
+        return this.loadBefore;
+    }
+
+    /**
+     * The qualified name of the package scoped by the mod
+     * @since 0.4.0
+     */
+    public String getPackage() {
+        return this.pkg;
+    }
+
+    /**
+     * The listeners belonging to the mod, in order of priority
+     * @since 0.4.0
+     */
+    public List<ListenerSnapshot> getListeners() {
+        return this.listeners;
+    }
+
+    /**
+     * The mixins belonging to the mod, in order of binary name
+     * @since 0.4.0
+     */
+    public List<MixinSnapshot> getMixins() {
+        return this.mixins;
+    }
+
+    /**
+     * The binary name of the generated listener bootstrap of the mod, or null
+     * if no bootstrap was generated
+     * @since 0.4.0
+     */
+    @Nullable
+    public String getBootstrap() {
+        return this.bootstrap;
+    }
+
+    /**
+     * The position of the {@code @Mod} annotation
+     * @since 0.4.0
+     */
+    public SourcePosition getPosition() {
+        return this.position;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModSnapshot['%s', '%s']", this.id, this.version);
+    }
+}
@@ -0,0 +1,50 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the mods and listeners discovered in a compilation,
+ * holding only names, values, and source positions. Once captured, the models
+ * and elements it was created from can be released
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class ModuleSnapshot {
+    private final List<ModSnapshot> mods;
+
+    public ModuleSnapshot(final List<ModSnapshot> mods) {
+        this.mods = ImmutableList.copyOf(mods);
+    }
+
+    /**
+     * The discovered mods, in discovery order
+     * @since 0.4.0
+     */
+    public List<ModSnapshot> getMods() {
+        return this.mods;
+    }
+
+    /**
+     * The listeners of every mod, in order of their mods
+     * @since 0.4.0
+     */
+    public List<ListenerSnapshot> getListeners() {
+        return this.mods.stream().flatMap(mod -> mod.getListeners().stream()).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Determines if the compilation declares a single mod, in which case its
+     * descriptor is written to the root rather than to a per-mod path
+     * @since 0.4.0
+     */
+    public boolean isSingleMod() {
+        return this.mods.size() == 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModuleSnapshot[%d mods]", this.mods.size());
+    }
+}
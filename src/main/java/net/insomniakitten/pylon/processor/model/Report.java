@@ -0,0 +1,63 @@
+package net.insomniakitten.pylon.processor.model;
+
+import net.insomniakitten.pylon.logging.PylonLogger;
+
+import javax.annotation.Nullable;
+
+/**
+ * A message produced while validating a snapshot, away from the processing
+ * thread, to be printed through the logger of the processor once the stage
+ * that produced it has completed
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class Report {
+    private final PylonLogger.Level level;
+    private final String message;
+    @Nullable
+    private final SourcePosition position;
+
+    private Report(final PylonLogger.Level level, final String message, @Nullable final SourcePosition position) {
+        this.level = level;
+        this.message = message;
+        this.position = position;
+    }
+
+    public static Report note(final String message, @Nullable final SourcePosition position) {
+        return new Report(PylonLogger.Level.NOTE, message, position);
+    }
+
+    public static Report warn(final String message, @Nullable final SourcePosition position) {
+        return new Report(PylonLogger.Level.WARN, message, position);
+    }
+
+    public static Report error(final String message, @Nullable final SourcePosition position) {
+        return new Report(PylonLogger.Level.ERROR, message, position);
+    }
+
+    public PylonLogger.Level getLevel() {
+        return this.level;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * The position the message concerns, or null if it concerns no element
+     * @since 0.4.0
+     */
+    @Nullable
+    public SourcePosition getPosition() {
+        return this.position;
+    }
+
+    public boolean isError() {
+        return this.level == PylonLogger.Level.ERROR;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Report[%s, '%s', %s]", this.level, this.message, this.position);
+    }
+}
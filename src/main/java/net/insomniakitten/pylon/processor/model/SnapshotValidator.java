@@ -0,0 +1,142 @@
+package net.insomniakitten.pylon.processor.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates the values of a {@link ModuleSnapshot}. Validation only reads the
+ * snapshot, and reports its messages rather than printing them, so that it
+ * can run on any thread and be shared by the processor and offline tools
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class SnapshotValidator {
+    private SnapshotValidator() {}
+
+    /**
+     * Validates the values of the given mod
+     * @param mod The mod to be validated
+     * @return The messages concerning the mod
+     * @since 0.4.0
+     */
+    public static List<Report> validateMod(final ModSnapshot mod) {
+        final ImmutableList.Builder<Report> reports = ImmutableList.builder();
+        final SourcePosition position = mod.getPosition();
+
+        if (mod.getId().isEmpty()) {
+            reports.add(Report.error("Empty value 'id' in @Mod", position.withMember(ModModel.ID)));
+        } else if (mod.getName().isEmpty()) {
+            reports.add(Report.note("Empty value 'name' in @Mod, substituting '" + mod.getId() + "'", null));
+        }
+
+        if (mod.getVersion().isEmpty()) {
+            reports.add(Report.error("Empty value 'version' in @Mod", position.withMember(ModModel.VERSION)));
+        }
+
+        for (final String author : mod.getAuthors()) {
+            if (author.isEmpty()) {
+                reports.add(Report.error("Empty element in value 'authors' in @Mod", position.withMember(ModModel.AUTHORS)));
+            }
+        }
+
+        SnapshotValidator.validateReferences(mod, ModModel.DEPENDENCIES, mod.getDependencies(), reports);
+        SnapshotValidator.validateReferences(mod, ModModel.LOAD_AFTER, mod.getLoadAfter(), reports);
+        SnapshotValidator.validateReferences(mod, ModModel.LOAD_BEFORE, mod.getLoadBefore(), reports);
+
+        for (final String id : mod.getLoadBefore()) {
+            if (mod.getDependencies().contains(id)) {
+                reports.add(Report.error("Mod '" + id + "' in value 'loadBefore' in @Mod is also a dependency", position.withMember(ModModel.LOAD_BEFORE)));
+            } else if (mod.getLoadAfter().contains(id)) {
+                reports.add(Report.error("Mod '" + id + "' in value 'loadBefore' in @Mod is also in value 'loadAfter'", position.withMember(ModModel.LOAD_BEFORE)));
+            }
+        }
+
+        if (!mod.getMixins().isEmpty()) {
+            SnapshotValidator.validateMixins(mod, reports);
+        }
+
+        return reports.build();
+    }
+
+    /**
+     * Validates the identifiers of the mods referenced by the given member,
+     * which must be non-empty, unique, and not refer to the mod itself
+     * @param mod The mod to be validated
+     * @param member The name of the member of {@code @Mod} holding the identifiers
+     * @param ids The identifiers held by the member
+     * @param reports The builder of messages concerning the mod
+     */
+    private static void validateReferences(final ModSnapshot mod, final String member, final List<String> ids, final ImmutableList.Builder<Report> reports) {
+        final SourcePosition position = mod.getPosition().withMember(member);
+        final Set<String> seen = new HashSet<>();
+
+        for (final String id : ids) {
+            if (id.isEmpty()) {
+                reports.add(Report.error("Empty element in value '" + member + "' in @Mod", position));
+            } else if (id.equals(mod.getId())) {
+                reports.add(Report.error("@Mod '" + id + "' refers to itself in value '" + member + "'", position));
+            } else if (!seen.add(id)) {
+                reports.add(Report.warn("Duplicate element '" + id + "' in value '" + member + "' in @Mod", position));
+            }
+        }
+    }
+
+    /**
+     * Validates that the mixins of the given mod share a package, and that
+     * no other class of the mod is loaded from it, as the mixin subsystem
+     * refuses to load the classes of mixin packages
+     * @param mod The mod to be validated
+     * @param reports The builder of messages concerning the mod
+     */
+    private static void validateMixins(final ModSnapshot mod, final ImmutableList.Builder<Report> reports) {
+        final String pkg = MixinSnapshot.getCommonPackage(mod.getMixins());
+
+        if (pkg.isEmpty()) {
+            reports.add(Report.error("@MixinConfig types of @Mod '" + mod.getId() + "' share no common package", mod.getMixins().get(0).getPosition()));
+            return;
+        }
+
+        for (final ListenerSnapshot listener : mod.getListeners()) {
+            if (SnapshotValidator.isWithin(listener.getBinaryName(), pkg)) {
+                reports.add(Report.error("@Listener is within the mixin package '" + pkg + "'", listener.getPosition()));
+            }
+        }
+
+        if (mod.getBootstrap() != null && SnapshotValidator.isWithin(mod.getBootstrap(), pkg)) {
+            reports.add(Report.error("Listener bootstrap of @Mod is within the mixin package '" + pkg + "'", mod.getPosition()));
+        }
+    }
+
+    private static boolean isWithin(final String binaryName, final String pkg) {
+        return binaryName.startsWith(pkg + ".");
+    }
+
+    /**
+     * Validates that the identifiers of all mods are unique
+     * @param snapshot The snapshot of every mod
+     * @return The messages concerning duplicate identifiers
+     * @since 0.4.0
+     */
+    public static List<Report> validateIds(final ModuleSnapshot snapshot) {
+        final ImmutableList.Builder<Report> reports = ImmutableList.builder();
+        final Map<String, ModSnapshot> ids = new HashMap<>();
+
+        for (final ModSnapshot mod : snapshot.getMods()) {
+            if (mod.getId().isEmpty()) {
+                continue;
+            }
+            final ModSnapshot existing = ids.putIfAbsent(mod.getId(), mod);
+            if (existing != null) {
+                final String message = "Duplicate value 'id' in @Mod, also declared in package '" + existing.getPackage() + "'";
+                reports.add(Report.error(message, mod.getPosition().withMember(ModModel.ID)));
+            }
+        }
+
+        return reports.build();
+    }
+}
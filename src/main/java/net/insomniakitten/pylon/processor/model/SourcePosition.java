@@ -0,0 +1,155 @@
+package net.insomniakitten.pylon.processor.model;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The position of an annotation, or one of its values, in the sources being
+ * compiled. Positions are recorded by name rather than by element, so that a
+ * snapshot holding them does not retain the element trees of the compiler,
+ * and are resolved to elements again only when a message is printed
+ * @author InsomniaKitten
+ * @since 0.4.0
+ */
+public final class SourcePosition {
+    private final Kind kind;
+    private final String element;
+    private final String annotation;
+    @Nullable
+    private final String member;
+
+    private SourcePosition(final Kind kind, final String element, final String annotation, @Nullable final String member) {
+        this.kind = kind;
+        this.element = element;
+        this.annotation = annotation;
+        this.member = member;
+    }
+
+    /**
+     * Records the position of the given annotation on the given element
+     * @param element The annotated type or package element
+     * @param mirror The mirror of the annotation
+     * @return The position of the annotation
+     * @throws IllegalArgumentException If the element is neither a type nor a package
+     * @since 0.4.0
+     */
+    public static SourcePosition of(final Element element, final AnnotationMirror mirror) {
+        final String annotation = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+
+        if (element instanceof TypeElement) {
+            return new SourcePosition(Kind.TYPE, ((TypeElement) element).getQualifiedName().toString(), annotation, null);
+        }
+
+        if (element instanceof PackageElement) {
+            return new SourcePosition(Kind.PACKAGE, ((PackageElement) element).getQualifiedName().toString(), annotation, null);
+        }
+
+        throw new IllegalArgumentException("Unsupported element " + element);
+    }
+
+    /**
+     * Records the position of the given annotation on the type of the given
+     * name, for annotations that were not read from the sources
+     * @param type The qualified name of the annotated type
+     * @param annotation The qualified name of the annotation type
+     * @return The position of the annotation
+     * @since 0.4.0
+     */
+    public static SourcePosition forType(final String type, final String annotation) {
+        return new SourcePosition(Kind.TYPE, type, annotation, null);
+    }
+
+    /**
+     * Records the position of the given annotation on the package of the
+     * given name, for annotations that were not read from the sources
+     * @param pkg The qualified name of the annotated package
+     * @param annotation The qualified name of the annotation type
+     * @return The position of the annotation
+     * @since 0.4.0
+     */
+    public static SourcePosition forPackage(final String pkg, final String annotation) {
+        return new SourcePosition(Kind.PACKAGE, pkg, annotation, null);
+    }
+
+    /**
+     * @param member The name of the annotation member
+     * @return The position of the given value of this annotation
+     * @since 0.4.0
+     */
+    public SourcePosition withMember(final String member) {
+        return new SourcePosition(this.kind, this.element, this.annotation, member);
+    }
+
+    /**
+     * The qualified name of the annotated element
+     * @since 0.4.0
+     */
+    public String getElement() {
+        return this.element;
+    }
+
+    /**
+     * The qualified name of the annotation type
+     * @since 0.4.0
+     */
+    public String getAnnotation() {
+        return this.annotation;
+    }
+
+    /**
+     * The name of the annotation member, or null if the position is that of
+     * the annotation as a whole
+     * @since 0.4.0
+     */
+    @Nullable
+    public String getMember() {
+        return this.member;
+    }
+
+    /**
+     * Resolves the annotated element by its name
+     * @param elements The element utilities of the current environment
+     * @return The element, or empty if it no longer exists
+     * @since 0.4.0
+     */
+    public Optional<Element> resolve(final Elements elements) {
+        if (this.kind == Kind.PACKAGE) {
+            return Optional.ofNullable(elements.getPackageElement(this.element));
+        }
+        return Optional.ofNullable(elements.getTypeElement(this.element));
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SourcePosition)) {
+            return false;
+        }
+        final SourcePosition other = (SourcePosition) obj;
+        return this.kind == other.kind && this.element.equals(other.element)
+            && this.annotation.equals(other.annotation) && Objects.equals(this.member, other.member);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.kind, this.element, this.annotation, this.member);
+    }
+
+    @Override
+    public String toString() {
+        final String position = this.element + "@" + this.annotation;
+        return this.member != null ? position + "#" + this.member : position;
+    }
+
+    private enum Kind {
+        TYPE, PACKAGE
+    }
+}
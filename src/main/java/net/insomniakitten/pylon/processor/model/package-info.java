@@ -0,0 +1,4 @@
+@NonNullByDefault
+package net.insomniakitten.pylon.processor.model;
+
+import net.insomniakitten.pylon.util.NonNullByDefault;
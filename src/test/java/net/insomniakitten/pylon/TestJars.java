@@ -0,0 +1,168 @@
+package net.insomniakitten.pylon;
+
+import com.google.gson.stream.JsonWriter;
+import net.insomniakitten.pylon.processor.RiftAnnotationProcessor;
+import net.insomniakitten.pylon.runtime.DescriptorReader;
+import net.insomniakitten.pylon.runtime.ModDescriptor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds the jars read by tests, either from the given entries or by
+ * compiling the given sources against the test classpath
+ */
+public final class TestJars {
+    private TestJars() {}
+
+    /**
+     * Writes a jar holding the given entries, in order
+     * @param jar The path of the jar to be written
+     * @param entries The contents of the entries, keyed by their names
+     * @return The path of the jar
+     */
+    public static Path write(final Path jar, final Map<String, byte[]> entries) throws IOException {
+        Files.write(jar, TestJars.toByteArray(entries));
+        return jar;
+    }
+
+    /**
+     * Writes a jar holding the given entries, where the last entry is renamed
+     * to the name of the first, as zip streams refuse to write duplicates
+     * @param jar The path of the jar to be written
+     * @param entries The contents of the entries, keyed by names of equal length
+     * @return The path of the jar
+     */
+    public static Path writeWithDuplicate(final Path jar, final Map<String, byte[]> entries) throws IOException {
+        final List<String> names = new ArrayList<>(entries.keySet());
+        final byte[] first = names.get(0).getBytes(StandardCharsets.UTF_8);
+        final byte[] last = names.get(names.size() - 1).getBytes(StandardCharsets.UTF_8);
+
+        if (first.length != last.length) {
+            throw new IllegalArgumentException("Duplicated names must be of equal length");
+        }
+
+        final byte[] bytes = TestJars.toByteArray(entries);
+
+        // The name appears once in the local header and once in the central header
+        for (int index = 0; index <= bytes.length - last.length; ++index) {
+            if (TestJars.matches(bytes, index, last)) {
+                System.arraycopy(first, 0, bytes, index, first.length);
+            }
+        }
+
+        Files.write(jar, bytes);
+        return jar;
+    }
+
+    /**
+     * Compiles the given sources into a jar, along with any resources
+     * generated by the Rift processor if processing is enabled
+     * @param directory The directory to compile in, which holds the jar
+     * @param sources The sources to be compiled, keyed by their paths
+     * @param process True to run the Rift processor over the sources
+     * @return The path of the jar
+     */
+    public static Path compile(final Path directory, final Map<String, String> sources, final boolean process) throws IOException {
+        final Path sourceDirectory = Files.createDirectories(directory.resolve("src"));
+        final Path classDirectory = Files.createDirectories(directory.resolve("classes"));
+        final List<File> files = new ArrayList<>(sources.size());
+
+        for (final Map.Entry<String, String> source : sources.entrySet()) {
+            final Path file = sourceDirectory.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<String> options = new ArrayList<>(Arrays.asList(
+            "-classpath", System.getProperty("java.class.path"), "-d", classDirectory.toString()
+        ));
+
+        if (!process) {
+            options.add("-proc:none");
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (final StandardJavaFileManager manager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+             final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(writer, manager, null, options, null,
+                manager.getJavaFileObjectsFromFiles(files));
+            if (process) {
+                task.setProcessors(Collections.singletonList(new RiftAnnotationProcessor()));
+            }
+            if (!task.call()) {
+                writer.flush();
+                throw new IllegalStateException("Compilation failed:\n" + output.toString("UTF-8"));
+            }
+        }
+
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+
+        try (final Stream<Path> walk = Files.walk(classDirectory)) {
+            for (final Path file : walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                entries.put(classDirectory.relativize(file).toString().replace('\\', '/'), Files.readAllBytes(file));
+            }
+        }
+
+        return TestJars.write(directory.resolve("mod.jar"), entries);
+    }
+
+    /**
+     * @param mod The descriptor to be written
+     * @return The JSON descriptor of the given Mod, as read from a jar
+     */
+    public static byte[] toJson(final ModDescriptor mod) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            DescriptorReader.write(mod, json);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static byte[] toByteArray(final Map<String, byte[]> entries) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static boolean matches(final byte[] bytes, final int offset, final byte[] pattern) {
+        for (int index = 0; index < pattern.length; ++index) {
+            if (bytes[offset + index] != pattern[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
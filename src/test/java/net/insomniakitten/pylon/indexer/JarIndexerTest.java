@@ -0,0 +1,108 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.collect.ImmutableMap;
+import net.insomniakitten.pylon.TestJars;
+import net.insomniakitten.pylon.processor.model.ListenerSnapshot;
+import net.insomniakitten.pylon.processor.model.ModSnapshot;
+import net.insomniakitten.pylon.processor.model.Report;
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.DescriptorReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link JarIndexer} reads the annotations of compiled classes
+ * into the same descriptors the processor would write
+ */
+public class JarIndexerTest {
+    private static final Map<String, String> SOURCES = ImmutableMap.of(
+        "t/Example.java", "package t;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Mod(id = \"example\", name = \"Example\", version = \"1.0\", authors = \"a\")\n"
+            + "public final class Example {}\n",
+        "t/Early.java", "package t;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Listener(priority = -1, side = net.insomniakitten.pylon.ref.Side.CLIENT)\n"
+            + "public class Early implements Runnable { public void run() {} }\n",
+        "t/Late.java", "package t;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Listener\n"
+            + "public class Late extends Early {}\n"
+    );
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void indexesAnnotatedClasses() throws IOException {
+        final Path jar = TestJars.compile(this.folder.getRoot().toPath(), JarIndexerTest.SOURCES, false);
+
+        try (final JarIndexer indexer = JarIndexer.create(1, Collections.emptyMap())) {
+            final JarIndexer.Result result = indexer.index(jar);
+
+            assertEquals(Collections.emptyList(), result.getReports());
+            assertNotNull(result.getSnapshot());
+            assertEquals(1, result.getSnapshot().getMods().size());
+
+            final ModSnapshot mod = result.getSnapshot().getMods().get(0);
+
+            assertEquals("example", mod.getId());
+            assertEquals(Collections.singletonList("a"), mod.getAuthors());
+            assertEquals(Arrays.asList("t.Early", "t.Late"),
+                mod.getListeners().stream().map(ListenerSnapshot::getBinaryName).collect(Collectors.toList()));
+            assertEquals(Side.CLIENT, mod.getListeners().get(0).getSide());
+            assertTrue(result.getFiles().containsKey(DescriptorReader.FILE));
+        }
+    }
+
+    @Test
+    public void notesJarsWithoutMods() throws IOException {
+        final Path jar = TestJars.write(this.folder.getRoot().toPath().resolve("empty.jar"),
+            ImmutableMap.of("readme.txt", new byte[0]));
+
+        try (final JarIndexer indexer = JarIndexer.create(1, Collections.emptyMap())) {
+            final JarIndexer.Result result = indexer.index(jar);
+
+            assertEquals(1, result.getReports().size());
+            assertEquals("No @Mod annotation discovered in jar", result.getReports().get(0).getMessage());
+            assertNull(result.getSnapshot());
+            assertTrue(result.getFiles().isEmpty());
+        }
+    }
+
+    @Test
+    public void readsFirstOfDuplicateEntries() throws IOException {
+        final Path compiled = TestJars.compile(this.folder.newFolder("compiled").toPath(), JarIndexerTest.SOURCES, false);
+        final Path classes = compiled.resolveSibling("classes");
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+
+        entries.put("t/Early.class", Files.readAllBytes(classes.resolve("t/Early.class")));
+        entries.put("t/Example.class", Files.readAllBytes(classes.resolve("t/Example.class")));
+        entries.put("t/Late.class", Files.readAllBytes(classes.resolve("t/Late.class")));
+        // Renamed to a duplicate of the first entry
+        entries.put("t/Spare.class", new byte[] { 1, 2, 3 });
+
+        final Path jar = TestJars.writeWithDuplicate(this.folder.getRoot().toPath().resolve("duplicate.jar"), entries);
+
+        try (final JarIndexer indexer = JarIndexer.create(1, Collections.emptyMap())) {
+            final JarIndexer.Result result = indexer.index(jar);
+
+            assertFalse(result.getReports().stream().anyMatch(Report::isError));
+            assertTrue(result.getReports().stream().anyMatch(report -> report.getMessage().contains("t/Early.class")));
+            assertEquals(2, result.getSnapshot().getListeners().size());
+        }
+    }
+}
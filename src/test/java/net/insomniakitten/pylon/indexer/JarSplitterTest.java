@@ -0,0 +1,89 @@
+package net.insomniakitten.pylon.indexer;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import net.insomniakitten.pylon.TestJars;
+import net.insomniakitten.pylon.ref.Side;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link JarSplitter} leaves out only the classes reachable
+ * through the listeners of the other side
+ */
+public class JarSplitterTest {
+    private static final Map<String, String> SOURCES = ImmutableMap.<String, String>builder()
+        .put("t/Example.java", "package t;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Mod(id = \"example\", name = \"Example\", version = \"1.0\")\n"
+            + "public final class Example {}\n")
+        .put("t/Common.java", "package t;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Listener\n"
+            + "public class Common implements Runnable { public void run() { Shared.use(); } }\n")
+        .put("t/Shared.java", "package t;\n"
+            + "public final class Shared { public static void use() {} }\n")
+        .put("t/client/ClientListener.java", "package t.client;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Listener(side = net.insomniakitten.pylon.ref.Side.CLIENT)\n"
+            + "public class ClientListener implements Runnable { public void run() { Renderer.render(); t.Shared.use(); } }\n")
+        .put("t/client/Renderer.java", "package t.client;\n"
+            + "public final class Renderer { public static void render() {} }\n")
+        .put("t/server/ServerListener.java", "package t.server;\n"
+            + "@net.insomniakitten.pylon.annotation.rift.Listener(side = net.insomniakitten.pylon.ref.Side.SERVER)\n"
+            + "public class ServerListener implements Runnable { public void run() {} }\n")
+        .build();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void leavesOutClassesOfOtherSide() throws IOException {
+        final Path jar = TestJars.compile(this.folder.newFolder("mod").toPath(), JarSplitterTest.SOURCES, true);
+        final JarSplitter.Result result = JarSplitter.split(jar);
+
+        assertFalse(result.hasErrors());
+        assertEquals(Collections.singleton("t.server.ServerListener"), result.getRemoved(Side.CLIENT));
+        assertEquals(ImmutableSet.of("t.client.ClientListener", "t.client.Renderer"), result.getRemoved(Side.SERVER));
+    }
+
+    @Test
+    public void writesJarOfEachSide() throws IOException {
+        final Path jar = TestJars.compile(this.folder.newFolder("mod").toPath(), JarSplitterTest.SOURCES, true);
+        final JarSplitter.Result result = JarSplitter.split(jar);
+        final Path server = this.folder.getRoot().toPath().resolve("server.jar");
+
+        result.write(Side.SERVER, server);
+
+        try (final ZipFile zip = new ZipFile(server.toFile())) {
+            final Set<String> names = ImmutableSet.of("t/Example.class", "t/Common.class", "t/Shared.class", "t/server/ServerListener.class", "riftmod.json");
+            for (final String name : names) {
+                assertNotNull(name, zip.getEntry(name));
+            }
+            assertNull(zip.getEntry("t/client/ClientListener.class"));
+            assertNull(zip.getEntry("t/client/Renderer.class"));
+            assertTrue(zip.stream().map(ZipEntry::getName).noneMatch(name -> name.startsWith("t/client/")));
+        }
+    }
+
+    @Test
+    public void reportsJarsWithoutDescriptors() throws IOException {
+        final Path jar = TestJars.compile(this.folder.newFolder("mod").toPath(), JarSplitterTest.SOURCES, false);
+        final JarSplitter.Result result = JarSplitter.split(jar);
+
+        assertTrue(result.hasErrors());
+        assertTrue(result.getRemoved(Side.CLIENT).isEmpty());
+    }
+}
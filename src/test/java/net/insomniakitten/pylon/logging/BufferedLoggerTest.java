@@ -0,0 +1,148 @@
+package net.insomniakitten.pylon.logging;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the deduplication, filtering and limits of {@link BufferedLogger}
+ */
+public class BufferedLoggerTest {
+    private final RecordingMessager messager = new RecordingMessager();
+    private final Element first = BufferedLoggerTest.element("First");
+    private final Element second = BufferedLoggerTest.element("Second");
+
+    private PylonLogger logger;
+
+    @Before
+    public void setup() {
+        this.logger = new BufferedLogger("test", () -> this.messager, () -> PylonLogger.Level.NOTE, 2);
+    }
+
+    @Test
+    public void collapsesRepeatedWarnings() {
+        this.logger.warn("warning", this.first);
+        this.logger.warn("warning", this.second);
+        this.logger.warn("warning");
+        this.logger.flush();
+
+        assertEquals(Collections.singletonList("WARNING [test] warning (logged 3 times) @First"), this.messager.messages);
+    }
+
+    @Test
+    public void printsErrorsAtEveryPosition() {
+        this.logger.error("error", this.first);
+        this.logger.error("error", this.second);
+        this.logger.error("error", this.first);
+        this.logger.flush();
+
+        assertEquals(Arrays.asList(
+            "ERROR [test] error (logged 2 times) @First",
+            "ERROR [test] error @Second"
+        ), this.messager.messages);
+    }
+
+    @Test
+    public void countsRepeatsAfterFlush() {
+        this.logger.note("note");
+        this.logger.flush();
+        this.logger.note("note");
+        this.logger.note("note");
+        this.logger.flush();
+
+        assertEquals(Arrays.asList(
+            "NOTE [test] note",
+            "NOTE [test] note (repeated 2 more times)"
+        ), this.messager.messages);
+    }
+
+    @Test
+    public void dropsMessagesBelowLevel() {
+        final PylonLogger logger = new BufferedLogger("test", () -> this.messager, () -> PylonLogger.Level.WARN, 2);
+
+        logger.note("note");
+        logger.warn("warning");
+        logger.flush();
+
+        assertEquals(Collections.singletonList("WARNING [test] warning"), this.messager.messages);
+    }
+
+    @Test
+    public void limitsMessagesPerElementExceptErrors() {
+        this.logger.note("a", this.first);
+        this.logger.note("b", this.first);
+        this.logger.note("c", this.first);
+        this.logger.error("d", this.first);
+        this.logger.flush();
+
+        assertEquals(Arrays.asList(
+            "NOTE [test] a @First",
+            "NOTE [test] b @First",
+            "ERROR [test] d @First"
+        ), this.messager.messages);
+    }
+
+    @Test
+    public void forgetsMessagesOnReset() {
+        this.logger.warn("warning");
+        this.logger.reset();
+        this.logger.warn("warning");
+        this.logger.flush();
+
+        assertEquals(Arrays.asList("WARNING [test] warning", "WARNING [test] warning"), this.messager.messages);
+    }
+
+    /**
+     * Creates an element that is only equal to itself, and is printed as
+     * the given name
+     */
+    private static Element element(final String name) {
+        return (Element) Proxy.newProxyInstance(Element.class.getClassLoader(), new Class<?>[] { Element.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return name;
+                default: throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    /**
+     * Records every printed message as its kind, content and element
+     */
+    private static final class RecordingMessager implements Messager {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence message) {
+            this.messages.add(kind + " " + message);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence message, final Element element) {
+            this.messages.add(kind + " " + message + " @" + element);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence message, final Element element, final AnnotationMirror mirror) {
+            this.printMessage(kind, message, element);
+        }
+
+        @Override
+        public void printMessage(final Diagnostic.Kind kind, final CharSequence message, final Element element, final AnnotationMirror mirror, final AnnotationValue value) {
+            this.printMessage(kind, message, element);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.insomniakitten.pylon.processor.emit;
+
+import net.insomniakitten.pylon.ref.Side;
+import net.insomniakitten.pylon.runtime.BinaryDescriptor;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that descriptors written by {@link BinaryDescriptorWriter} are read
+ * back unchanged by {@link BinaryDescriptor}
+ */
+public class BinaryDescriptorWriterTest {
+    @Test
+    public void roundTripsEveryField() throws IOException {
+        final byte[] bytes = new BinaryDescriptorWriter()
+            .mod("example", "Example", "1.0", Side.CLIENT)
+            .author("a")
+            .author("b")
+            .listener("com.example.First", -1, Side.EITHER)
+            .listener("com.example.Second", 0, Side.CLIENT)
+            .listener("com.example.Third", 5, Side.SERVER)
+            .dependency("core")
+            .loadAfter("other")
+            .loadBefore("later")
+            .mixin("mixins.example.json")
+            .bootstrap("com.example.PylonListenerBootstrap")
+            .toByteArray();
+
+        final BinaryDescriptor descriptor = BinaryDescriptor.of(ByteBuffer.wrap(bytes));
+
+        assertEquals("example", descriptor.getId());
+        assertEquals("Example", descriptor.getName());
+        assertEquals("1.0", descriptor.getVersion());
+        assertEquals(Side.CLIENT, descriptor.getSide());
+        assertEquals(2, descriptor.getAuthorCount());
+        assertEquals("a", descriptor.getAuthor(0));
+        assertEquals("b", descriptor.getAuthor(1));
+        assertEquals(3, descriptor.getListenerCount());
+        assertEquals("com.example.First", descriptor.getListenerClass(0));
+        assertEquals(-1, descriptor.getListenerPriority(0));
+        assertEquals(Side.EITHER, descriptor.getListenerSide(0));
+        assertEquals(Side.CLIENT, descriptor.getListenerSide(1));
+        assertEquals("com.example.Third", descriptor.getListenerClass(2));
+        assertEquals(5, descriptor.getListenerPriority(2));
+        assertEquals(Side.SERVER, descriptor.getListenerSide(2));
+        assertEquals(1, descriptor.getDependencyCount());
+        assertEquals("core", descriptor.getDependency(0));
+        assertEquals("other", descriptor.getLoadAfter(0));
+        assertEquals("later", descriptor.getLoadBefore(0));
+        assertEquals(1, descriptor.getMixinCount());
+        assertEquals("mixins.example.json", descriptor.getMixin(0));
+        assertEquals("com.example.PylonListenerBootstrap", descriptor.getBootstrap());
+    }
+
+    @Test
+    public void roundTripsEmptyDescriptor() throws IOException {
+        final BinaryDescriptor descriptor = BinaryDescriptor.of(ByteBuffer.wrap(
+            new BinaryDescriptorWriter().mod("empty", "Empty", "0", Side.EITHER).toByteArray()
+        ));
+
+        assertEquals("empty", descriptor.getId());
+        assertEquals(Side.EITHER, descriptor.getSide());
+        assertEquals(0, descriptor.getAuthorCount());
+        assertEquals(0, descriptor.getListenerCount());
+        assertEquals(0, descriptor.getLoadAfterCount());
+        assertEquals(0, descriptor.getLoadBeforeCount());
+        assertNull(descriptor.getBootstrap());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherFormats() {
+        BinaryDescriptor.of(ByteBuffer.wrap(new byte[BinaryDescriptor.HEADER_SIZE]));
+    }
+}
@@ -0,0 +1,104 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.common.collect.ImmutableMap;
+import net.insomniakitten.pylon.TestJars;
+import net.insomniakitten.pylon.ref.Side;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks when {@link DescriptorCache} reads a jar again, and that its entries
+ * are kept across saves
+ */
+public class DescriptorCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsJarsOnlyOnceUnchanged() throws IOException {
+        final Path jar = this.folder.getRoot().toPath().resolve("a.jar");
+        final Path file = this.folder.getRoot().toPath().resolve("cache.json");
+        final ModDescriptor mod = DescriptorCacheTest.mod("a", "a.Listener");
+
+        DescriptorCacheTest.writeJar(jar, mod);
+
+        final DescriptorCache cache = DescriptorCache.open(file, 16);
+
+        assertEquals(Collections.singletonList(mod), cache.get(jar));
+        assertEquals(Collections.singletonList(mod), cache.get(jar));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.save();
+
+        final DescriptorCache reopened = DescriptorCache.open(file, 16);
+
+        assertEquals(Collections.singletonList(mod), reopened.get(jar));
+        assertEquals(1, reopened.getHits());
+        assertEquals(0, reopened.getMisses());
+    }
+
+    @Test
+    public void hashesTouchedJarsOnce() throws IOException {
+        final Path jar = this.folder.getRoot().toPath().resolve("a.jar");
+        final DescriptorCache cache = DescriptorCache.open(this.folder.getRoot().toPath().resolve("cache.json"), 16);
+
+        DescriptorCacheTest.writeJar(jar, DescriptorCacheTest.mod("a", "a.Listener"));
+        cache.get(jar);
+
+        // The first touch is read again, as the jar is only hashed once touched
+        DescriptorCacheTest.touch(jar);
+        cache.get(jar);
+        assertEquals(2, cache.getMisses());
+
+        DescriptorCacheTest.touch(jar);
+        cache.get(jar);
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void readsChangedJarsAgain() throws IOException {
+        final Path jar = this.folder.getRoot().toPath().resolve("a.jar");
+        final DescriptorCache cache = DescriptorCache.open(this.folder.getRoot().toPath().resolve("cache.json"), 16);
+        final ModDescriptor changed = DescriptorCacheTest.mod("a", "a.Renamed");
+
+        DescriptorCacheTest.writeJar(jar, DescriptorCacheTest.mod("a", "a.Listener"));
+        cache.get(jar);
+        DescriptorCacheTest.writeJar(jar, changed);
+        DescriptorCacheTest.touch(jar);
+
+        final List<ModDescriptor> descriptors = cache.get(jar);
+
+        assertEquals(Collections.singletonList(changed), descriptors);
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static ModDescriptor mod(final String id, final String listener) {
+        return new ModDescriptor(id, id, "1.0", Side.EITHER, Collections.singletonList("author"),
+            Collections.singletonList(new ListenerDescriptor(listener, Side.EITHER, 0)), null);
+    }
+
+    private static void writeJar(final Path jar, final ModDescriptor mod) throws IOException {
+        TestJars.write(jar, ImmutableMap.of(DescriptorReader.FILE, TestJars.toJson(mod)));
+    }
+
+    /**
+     * Moves the modification time of the given file forward, as file systems
+     * may not record times finer than a second
+     */
+    private static void touch(final Path file) throws IOException {
+        final long modified = Files.getLastModifiedTime(file).toMillis();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified + 2000L));
+    }
+}
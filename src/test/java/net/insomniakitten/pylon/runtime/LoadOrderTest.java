@@ -0,0 +1,91 @@
+package net.insomniakitten.pylon.runtime;
+
+import net.insomniakitten.pylon.ref.Side;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the ordering and error reporting of {@link LoadOrder}
+ */
+public class LoadOrderTest {
+    @Test
+    public void ordersUnrelatedModsById() {
+        final LoadOrder order = LoadOrder.resolve(Arrays.asList(
+            LoadOrderTest.mod("c"), LoadOrderTest.mod("a"), LoadOrderTest.mod("b")
+        ));
+
+        assertEquals(Arrays.asList("a", "b", "c"), order.getOrder());
+        assertFalse(order.hasErrors());
+    }
+
+    @Test
+    public void ordersDependenciesAndDeclaredOrder() {
+        final LoadOrder order = LoadOrder.resolve(Arrays.asList(
+            LoadOrderTest.mod("a", Collections.singletonList("d"), Collections.emptyList(), Collections.emptyList()),
+            LoadOrderTest.mod("b", Collections.emptyList(), Collections.singletonList("a"), Collections.emptyList()),
+            LoadOrderTest.mod("c", Collections.emptyList(), Collections.emptyList(), Collections.singletonList("a")),
+            LoadOrderTest.mod("d")
+        ));
+
+        assertEquals(Arrays.asList("c", "d", "a", "b"), order.getOrder());
+        assertFalse(order.hasErrors());
+    }
+
+    @Test
+    public void ignoresDeclaredOrderOfAbsentMods() {
+        final LoadOrder order = LoadOrder.resolve(Collections.singletonList(
+            LoadOrderTest.mod("a", Collections.emptyList(), Collections.singletonList("x"), Collections.singletonList("y"))
+        ));
+
+        assertEquals(Collections.singletonList("a"), order.getOrder());
+        assertFalse(order.hasErrors());
+    }
+
+    @Test
+    public void reportsMissingDependencies() {
+        final LoadOrder order = LoadOrder.resolve(Collections.singletonList(
+            LoadOrderTest.mod("a", Collections.singletonList("x"), Collections.emptyList(), Collections.emptyList())
+        ));
+
+        assertEquals(Collections.singletonList("a"), order.getOrder());
+        assertEquals(Collections.singletonList("Mod 'a' requires missing mod 'x'"), order.getErrors());
+    }
+
+    @Test
+    public void reportsDuplicateMods() {
+        final LoadOrder order = LoadOrder.resolve(Arrays.asList(LoadOrderTest.mod("a"), LoadOrderTest.mod("a")));
+
+        assertEquals(Collections.singletonList("a"), order.getOrder());
+        assertEquals(Collections.singletonList("Duplicate mod 'a'"), order.getErrors());
+    }
+
+    @Test
+    public void dropsCyclesAndTheirDependents() {
+        final LoadOrder order = LoadOrder.resolve(Arrays.asList(
+            LoadOrderTest.mod("a", Collections.emptyList(), Collections.singletonList("b"), Collections.emptyList()),
+            LoadOrderTest.mod("b", Collections.emptyList(), Collections.singletonList("a"), Collections.emptyList()),
+            LoadOrderTest.mod("c", Collections.singletonList("a"), Collections.emptyList(), Collections.emptyList()),
+            LoadOrderTest.mod("d")
+        ));
+
+        assertEquals(Collections.singletonList("d"), order.getOrder());
+        assertEquals(1, order.getErrors().size());
+        assertTrue(order.getErrors().get(0).startsWith("Cyclic load order between mods "));
+    }
+
+    static ModDescriptor mod(final String id) {
+        return LoadOrderTest.mod(id, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    static ModDescriptor mod(final String id, final List<String> dependencies, final List<String> loadAfter, final List<String> loadBefore) {
+        return new ModDescriptor(id, id, "1.0", Side.EITHER, Collections.emptyList(), Collections.emptyList(), null,
+            Collections.emptyList(), dependencies, loadAfter, loadBefore);
+    }
+}
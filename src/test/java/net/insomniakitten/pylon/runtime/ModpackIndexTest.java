@@ -0,0 +1,103 @@
+package net.insomniakitten.pylon.runtime;
+
+import com.google.common.collect.ImmutableMap;
+import net.insomniakitten.pylon.TestJars;
+import net.insomniakitten.pylon.ref.Side;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the linking of {@link ModpackIndex}, and its reuse from a saved file
+ */
+public class ModpackIndexTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mergesListenersByPriorityThenLoadOrder() {
+        final ModpackIndex index = ModpackIndex.link(Arrays.asList(
+            ModpackIndexTest.mod("a", Side.EITHER, Collections.singletonList("b"),
+                new ListenerDescriptor("a.Server", Side.SERVER, 0),
+                new ListenerDescriptor("a.Early", Side.EITHER, -1)),
+            ModpackIndexTest.mod("b", Side.EITHER, Collections.emptyList(),
+                new ListenerDescriptor("b.Common", Side.EITHER, 0),
+                new ListenerDescriptor("b.Client", Side.CLIENT, -1))
+        ));
+
+        assertFalse(index.hasErrors());
+        assertEquals(Arrays.asList("b", "a"), index.getMods().stream().map(ModDescriptor::getId).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("b.Client", "a.Early", "b.Common"), ModpackIndexTest.getListeners(index, Side.CLIENT));
+        assertEquals(Arrays.asList("a.Early", "b.Common", "a.Server"), ModpackIndexTest.getListeners(index, Side.SERVER));
+    }
+
+    @Test
+    public void leavesModsOutOfOtherSides() {
+        final ModpackIndex index = ModpackIndex.link(Collections.singletonList(
+            ModpackIndexTest.mod("a", Side.CLIENT, Collections.emptyList(), new ListenerDescriptor("a.Common", Side.EITHER, 0))
+        ));
+
+        assertEquals(Collections.singletonList("a.Common"), ModpackIndexTest.getListeners(index, Side.CLIENT));
+        assertEquals(Collections.emptyList(), ModpackIndexTest.getListeners(index, Side.SERVER));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAmbiguousSide() {
+        ModpackIndex.link(Collections.emptyList()).getListeners(Side.EITHER);
+    }
+
+    @Test
+    public void reusesSavedIndexUntilJarsChange() throws IOException {
+        final Path mods = this.folder.newFolder("mods").toPath();
+        final Path file = this.folder.getRoot().toPath().resolve("index.json");
+
+        ModpackIndexTest.writeJar(mods.resolve("a.jar"), ModpackIndexTest.mod("a", Side.EITHER, Collections.singletonList("b"),
+            new ListenerDescriptor("a.Listener", Side.EITHER, 0)));
+        ModpackIndexTest.writeJar(mods.resolve("b.jar"), ModpackIndexTest.mod("b", Side.EITHER, Collections.emptyList()));
+
+        final ModpackIndex linked = ModpackIndex.load(mods, file);
+
+        assertTrue(Files.exists(file));
+
+        final ModpackIndex saved = ModpackIndex.read(file, JarSet.scan(mods));
+
+        assertNotNull(saved);
+        assertEquals(linked.getMods(), saved.getMods());
+        assertEquals(Collections.singletonList("a.Listener"), ModpackIndexTest.getListeners(saved, Side.SERVER));
+
+        ModpackIndexTest.writeJar(mods.resolve("b.jar"), ModpackIndexTest.mod("b", Side.EITHER, Collections.emptyList(),
+            new ListenerDescriptor("b.Listener", Side.EITHER, -1)));
+
+        assertNull(ModpackIndex.read(file, JarSet.scan(mods)));
+        assertEquals(Arrays.asList("b.Listener", "a.Listener"), ModpackIndexTest.getListeners(ModpackIndex.load(mods, file), Side.CLIENT));
+    }
+
+    private static List<String> getListeners(final ModpackIndex index, final Side side) {
+        return index.getListeners(side).stream()
+            .map(listener -> listener.getListener().getClassName())
+            .collect(Collectors.toList());
+    }
+
+    private static ModDescriptor mod(final String id, final Side side, final List<String> dependencies, final ListenerDescriptor... listeners) {
+        return new ModDescriptor(id, id, "1.0", side, Collections.emptyList(), Arrays.asList(listeners), null,
+            Collections.emptyList(), dependencies, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static void writeJar(final Path jar, final ModDescriptor mod) throws IOException {
+        TestJars.write(jar, ImmutableMap.of(DescriptorReader.FILE, TestJars.toJson(mod)));
+    }
+}